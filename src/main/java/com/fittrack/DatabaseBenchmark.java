@@ -0,0 +1,163 @@
+package com.fittrack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fittrack.model.ConnectionPool;
+import com.fittrack.model.PerformanceProfile;
+
+/**
+ * Compares SQLite read/write throughput between performance profiles
+ * Runs against a throw-away database file, never against fittrack.db
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.fittrack.DatabaseBenchmark" [-Dexec.args="rows"]
+ */
+public class DatabaseBenchmark {
+
+    private static final int READER_THREADS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        System.out.println("==============================================");
+        System.out.println("   FitTrack SQLite Profile Benchmark (" + rows + " rows)");
+        System.out.println("==============================================\n");
+
+        List<PerformanceProfile> profiles = List.of(PerformanceProfile.sqliteDefaults(), PerformanceProfile.tuned());
+        for (PerformanceProfile profile : profiles) {
+            Result result = run(profile, rows);
+            System.out.println(profile);
+            System.out.printf("   writes (autocommit):        %,10.0f rows/s%n", result.writesPerSec);
+            System.out.printf("   reads (indexed by day):     %,10.0f queries/s%n", result.readsPerSec);
+            System.out.printf("   reads while writing:        %,10.0f queries/s%n%n", result.concurrentReadsPerSec);
+        }
+    }
+
+    private static Result run(PerformanceProfile profile, int rows) throws SQLException, IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("fittrack-bench");
+        Path dbFile = dir.resolve("bench.db");
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dbFile, READER_THREADS,
+            profile.writerPragmas(), profile.readerPragmas());
+        try {
+            try (Connection conn = pool.acquireWriter(); Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE food_log (food_log_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "user_id INTEGER NOT NULL, food_name TEXT NOT NULL, calories INTEGER NOT NULL, "
+                    + "protein REAL, carbs REAL, fats REAL, date DATE NOT NULL)");
+                stmt.execute("CREATE INDEX idx_food_log_user_date ON food_log(user_id, date)");
+            }
+
+            Result result = new Result();
+            result.writesPerSec = timeWrites(pool, rows, 0);
+            result.readsPerSec = timeReads(pool, rows);
+            result.concurrentReadsPerSec = timeReadsWhileWriting(pool, rows);
+            return result;
+        } finally {
+            pool.close();
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static double timeWrites(ConnectionPool pool, int rows, int offset) throws SQLException {
+        String sql = "INSERT INTO food_log(user_id, food_name, calories, protein, carbs, fats, date) VALUES(?, ?, ?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            // One lease and one auto-committed transaction per row, like saveFoodLog()
+            try (Connection conn = pool.acquireWriter(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, 1);
+                pstmt.setString(2, "Food " + (offset + i));
+                pstmt.setInt(3, 100 + i % 500);
+                pstmt.setDouble(4, 10);
+                pstmt.setDouble(5, 20);
+                pstmt.setDouble(6, 5);
+                pstmt.setObject(7, day(offset + i));
+                pstmt.executeUpdate();
+            }
+        }
+        return rows / seconds(start);
+    }
+
+    private static double timeReads(ConnectionPool pool, int queries) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            readDay(pool, i);
+        }
+        return queries / seconds(start);
+    }
+
+    private static double timeReadsWhileWriting(ConnectionPool pool, int rows) throws InterruptedException {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(READER_THREADS);
+        List<Thread> readers = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int t = 0; t < READER_THREADS; t++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    int i = 0;
+                    while (writing.get()) {
+                        readDay(pool, i++);
+                        reads.incrementAndGet();
+                    }
+                } catch (SQLException e) {
+                    System.err.println("   reader failed: " + e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        try {
+            timeWrites(pool, rows, rows);
+        } catch (SQLException e) {
+            System.err.println("   writer failed: " + e.getMessage());
+        } finally {
+            writing.set(false);
+        }
+        done.await();
+        return reads.get() / seconds(start);
+    }
+
+    private static void readDay(ConnectionPool pool, int i) throws SQLException {
+        String sql = "SELECT SUM(calories) FROM food_log WHERE user_id = ? AND date = ?";
+        try (Connection conn = pool.acquireReader(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, 1);
+            pstmt.setObject(2, day(i));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static LocalDate day(int i) {
+        return LocalDate.of(2020, 1, 1).plusDays(i % 1500);
+    }
+
+    private static double seconds(long startNanos) {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private static class Result {
+        double writesPerSec;
+        double readsPerSec;
+        double concurrentReadsPerSec;
+    }
+}
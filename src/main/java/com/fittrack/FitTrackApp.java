@@ -3,7 +3,13 @@ package com.fittrack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fittrack.model.AsyncDatabaseManager;
 import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.PasswordHasher;
+import com.fittrack.model.WorkoutLogBuffer;
+import com.fittrack.util.CommandHistory;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.SceneSwitcher;
 
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -24,6 +30,9 @@ public class FitTrackApp extends Application {
         // Initialize database on startup
         DatabaseManager dbManager = new DatabaseManager();
         dbManager.createTables();
+
+        // Pick a BCrypt cost for this machine in the background (login works meanwhile at the default cost)
+        AsyncDatabaseManager.getInstance().calibratePasswordHashing(PasswordHasher.DEFAULT_TARGET_MILLIS);
         
         // Load the Login.fxml file
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/fittrack/view/Login.fxml"));
@@ -40,6 +49,9 @@ public class FitTrackApp extends Application {
         primaryStage.setMinHeight(500);   // Minimum height
         primaryStage.show();
 
+        // Measure FX thread stalls for the lifetime of the app
+        FxThreadMonitor.startWatchdog();
+
         // Console output
         logger.info("✓ FitTrack Application Started");
         logger.info("✓ Using SQLite DATABASE (File-based)");
@@ -49,6 +61,14 @@ public class FitTrackApp extends Application {
 
     @Override
     public void stop() {
+        FxThreadMonitor.stopWatchdog();
+        logger.info("ℹ FX thread: {}", FxThreadMonitor.getSummary());
+        logger.info("ℹ Navigation: {}", SceneSwitcher.getNavigationSummary());
+        logger.info("ℹ Command save latency: {}", CommandHistory.getInstance().getLatencySummary());
+        WorkoutLogBuffer.getInstance().shutdown();
+        AsyncDatabaseManager.getInstance().shutdown();
+        CommandHistory.getInstance().closeJournal(); // after queued saves have been journaled
+        DatabaseManager.shutdown();
         logger.info("✓ FitTrack Application Closed");
     }
 
@@ -1,19 +1,23 @@
 package com.fittrack.command;
 
+import java.io.DataOutput;
+import java.io.IOException;
+
 import com.fittrack.model.DatabaseManager;
 import com.fittrack.model.FoodLog;
-import com.fittrack.util.Command;
+import com.fittrack.util.OptimisticCommand;
+import com.fittrack.util.PersistentCommand;
 
 import javafx.collections.ObservableList;
 
 /**
  * Command to add a food log entry
- * Supports undo/redo functionality
+ * Supports undo/redo functionality, and is kept in the undo journal across restarts
  */
-public class AddFoodLogCommand implements Command {
+public class AddFoodLogCommand implements PersistentCommand, OptimisticCommand, FoodLogViewCommand {
     private final DatabaseManager dbManager;
     private final FoodLog foodLog;
-    private final ObservableList<FoodLog> foodLogList;
+    private ObservableList<FoodLog> foodLogList;
     
     public AddFoodLogCommand(DatabaseManager dbManager, FoodLog foodLog, ObservableList<FoodLog> foodLogList) {
         this.dbManager = dbManager;
@@ -22,26 +26,48 @@ public class AddFoodLogCommand implements Command {
     }
     
     @Override
-    public boolean execute() {
-        boolean success = dbManager.saveFoodLog(foodLog);
-        if (success) {
-            // Add to UI list only if not already present
-            if (!foodLogList.contains(foodLog)) {
-                foodLogList.add(0, foodLog); // Add at top (newest first)
-            }
-        }
-        return success;
+    public boolean persist() {
+        return dbManager.saveFoodLog(foodLog);
     }
-    
+
+    @Override
+    public boolean unpersist() {
+        return dbManager.deleteFoodLog(foodLog.getId());
+    }
+
     @Override
-    public boolean undo() {
-        boolean success = dbManager.deleteFoodLog(foodLog.getId());
-        if (success) {
-            foodLogList.remove(foodLog);
+    public void applyView() {
+        // Add to UI list only if not already present
+        if (!foodLogList.contains(foodLog)) {
+            foodLogList.add(0, foodLog); // Add at top (newest first)
         }
-        return success;
+    }
+
+    @Override
+    public void revertView() {
+        foodLogList.remove(foodLog);
     }
     
+    @Override
+    public void bindView(ObservableList<FoodLog> foodLogList) {
+        this.foodLogList = foodLogList;
+    }
+
+    @Override
+    public int getTypeId() {
+        return CommandCodecs.ADD_FOOD_LOG;
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        CommandCodecs.writeFoodLog(out, foodLog);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return BASE_BYTES + CommandSizes.of(foodLog);
+    }
+
     @Override
     public String getDescription() {
         return "Add food: " + foodLog.getFoodName();
@@ -0,0 +1,88 @@
+package com.fittrack.command;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.FoodLog;
+import com.fittrack.util.Command;
+
+import javafx.collections.FXCollections;
+
+/**
+ * CommandCodecs - Decodes commands read back from the undo journal
+ *
+ * Each PersistentCommand has a type ID listed here and writes its own state;
+ * decode() is the CommandJournal.Decoder for all of them. Restored commands
+ * start out bound to a detached list; the food log screen re-binds them to its
+ * table (FoodLogViewCommand.bindView()) so their undo and redo show there.
+ *
+ * Simple usage:
+ *   CommandJournal journal = CommandJournal.forUser(userId, CommandCodecs::decode);
+ */
+public final class CommandCodecs {
+
+    // Journal type IDs; never reuse or renumber one that has shipped
+    static final int ADD_FOOD_LOG = 1;
+    static final int DELETE_FOOD_LOG = 2;
+    static final int MACRO = 3;
+
+    private CommandCodecs() {}
+
+    /**
+     * Rebuild a command from its type ID and journal bytes (null for unknown types)
+     */
+    public static Command decode(int typeId, DataInput in) throws IOException {
+        switch (typeId) {
+            case ADD_FOOD_LOG:
+                return new AddFoodLogCommand(new DatabaseManager(), readFoodLog(in), FXCollections.observableArrayList());
+            case DELETE_FOOD_LOG:
+                return new DeleteFoodLogCommand(new DatabaseManager(), readFoodLog(in), FXCollections.observableArrayList());
+            case MACRO:
+                return readMacro(in);
+            default:
+                return null;
+        }
+    }
+
+    private static Command readMacro(DataInput in) throws IOException {
+        int userId = in.readInt();
+        String description = in.readUTF();
+        int count = in.readInt();
+        List<Command> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int typeId = in.readInt();
+            Command child = typeId == 0 ? null : decode(typeId, in);
+            if (child == null) return null; // a child cannot be restored, so neither can the batch
+            children.add(child);
+        }
+        return new MacroCommand(new DatabaseManager(), userId, description, children);
+    }
+
+    static void writeFoodLog(DataOutput out, FoodLog log) throws IOException {
+        out.writeInt(log.getId());
+        out.writeInt(log.getUserId());
+        out.writeUTF(log.getFoodName());
+        out.writeInt(log.getCalories());
+        out.writeDouble(log.getProtein());
+        out.writeDouble(log.getCarbs());
+        out.writeDouble(log.getFats());
+        out.writeLong(log.getDate().toEpochDay());
+    }
+
+    static FoodLog readFoodLog(DataInput in) throws IOException {
+        int id = in.readInt();
+        int userId = in.readInt();
+        String foodName = in.readUTF();
+        int calories = in.readInt();
+        double protein = in.readDouble();
+        double carbs = in.readDouble();
+        double fats = in.readDouble();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        return new FoodLog(id, userId, foodName, calories, protein, carbs, fats, date);
+    }
+}
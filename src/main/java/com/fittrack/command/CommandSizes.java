@@ -0,0 +1,27 @@
+package com.fittrack.command;
+
+import com.fittrack.model.FoodLog;
+
+/**
+ * CommandSizes - Rough retained sizes of the state commands keep for undo/redo
+ * Figures assume a 64-bit JVM with compressed references; they feed
+ * Command.estimatedBytes(), so they only need to be in the right ballpark.
+ */
+final class CommandSizes {
+
+    // FoodLog object with its primitive fields plus its LocalDate
+    private static final long FOOD_LOG = 96;
+    // String object plus its backing array header
+    private static final long STRING = 40;
+
+    private CommandSizes() {}
+
+    static long of(String value) {
+        // Compact strings: one byte per char for Latin-1, two otherwise (count the worst case)
+        return value == null ? 0 : STRING + 2L * value.length();
+    }
+
+    static long of(FoodLog log) {
+        return FOOD_LOG + of(log.getFoodName());
+    }
+}
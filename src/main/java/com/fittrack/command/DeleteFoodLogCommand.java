@@ -1,8 +1,12 @@
 package com.fittrack.command;
 
+import java.io.DataOutput;
+import java.io.IOException;
+
 import com.fittrack.model.DatabaseManager;
 import com.fittrack.model.FoodLog;
-import com.fittrack.util.Command;
+import com.fittrack.util.OptimisticCommand;
+import com.fittrack.util.PersistentCommand;
 
 import javafx.collections.ObservableList;
 
@@ -10,11 +14,11 @@ import javafx.collections.ObservableList;
  * Command to delete a food log entry
  * Supports undo/redo functionality by preserving the original position
  */
-public class DeleteFoodLogCommand implements Command {
+public class DeleteFoodLogCommand implements PersistentCommand, OptimisticCommand, FoodLogViewCommand {
     private final DatabaseManager dbManager;
     private final FoodLog foodLog;
-    private final ObservableList<FoodLog> foodLogList;
-    private final int originalIndex;
+    private ObservableList<FoodLog> foodLogList;
+    private int originalIndex;
     
     public DeleteFoodLogCommand(DatabaseManager dbManager, FoodLog foodLog, ObservableList<FoodLog> foodLogList) {
         this.dbManager = dbManager;
@@ -24,29 +28,57 @@ public class DeleteFoodLogCommand implements Command {
     }
     
     @Override
-    public boolean execute() {
-        boolean success = dbManager.deleteFoodLog(foodLog.getId());
-        if (success) {
-            foodLogList.remove(foodLog);
-        }
-        return success;
+    public boolean persist() {
+        return dbManager.deleteFoodLog(foodLog.getId());
     }
-    
+
     @Override
-    public boolean undo() {
+    public boolean unpersist() {
         // Re-save to database (will get new ID)
-        boolean success = dbManager.saveFoodLog(foodLog);
-        if (success) {
-            // Re-insert at original position if possible
-            if (originalIndex >= 0 && originalIndex <= foodLogList.size()) {
-                foodLogList.add(originalIndex, foodLog);
-            } else {
-                foodLogList.add(foodLog);
-            }
+        return dbManager.saveFoodLog(foodLog);
+    }
+
+    @Override
+    public void applyView() {
+        foodLogList.remove(foodLog);
+    }
+
+    @Override
+    public void revertView() {
+        // Already back, e.g. undone before the delete failed to save; FoodLog.equals() matches twins, so compare identity
+        if (foodLogList.stream().anyMatch(entry -> entry == foodLog)) return;
+        // Re-insert at original position if possible, else where it sorts (newest first)
+        if (originalIndex >= 0 && originalIndex <= foodLogList.size()) {
+            foodLogList.add(originalIndex, foodLog);
+        } else {
+            int index = 0;
+            while (index < foodLogList.size() && !foodLog.getDate().isAfter(foodLogList.get(index).getDate())) index++;
+            foodLogList.add(index, foodLog);
         }
-        return success;
+    }
+
+    @Override
+    public void bindView(ObservableList<FoodLog> foodLogList) {
+        if (foodLogList == this.foodLogList) return;
+        this.foodLogList = foodLogList;
+        this.originalIndex = -1; // a position in another list means nothing here
     }
     
+    @Override
+    public int getTypeId() {
+        return CommandCodecs.DELETE_FOOD_LOG;
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        CommandCodecs.writeFoodLog(out, foodLog);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return BASE_BYTES + CommandSizes.of(foodLog);
+    }
+
     @Override
     public String getDescription() {
         return "Delete food: " + foodLog.getFoodName();
@@ -0,0 +1,24 @@
+package com.fittrack.command;
+
+import com.fittrack.model.FoodLog;
+import com.fittrack.util.Command;
+
+import javafx.collections.ObservableList;
+
+/**
+ * FoodLogViewCommand - A command that shows its change in a food log table
+ *
+ * Commands restored from the undo journal start out bound to a detached list, and a
+ * food log screen that was rebuilt has a new table. The screen re-binds the history's
+ * commands to its own list so undo and redo update what is on screen.
+ *
+ * Simple usage:
+ *   if (command instanceof FoodLogViewCommand) ((FoodLogViewCommand) command).bindView(foodLogList);
+ */
+public interface FoodLogViewCommand extends Command {
+
+    /**
+     * Apply and revert this command's view changes on foodLogList from now on (FX thread)
+     */
+    void bindView(ObservableList<FoodLog> foodLogList);
+}
@@ -0,0 +1,175 @@
+package com.fittrack.command;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.FoodLog;
+import com.fittrack.util.Command;
+import com.fittrack.util.OptimisticCommand;
+import com.fittrack.util.PersistentCommand;
+
+import javafx.collections.ObservableList;
+
+/**
+ * MacroCommand - Several commands undone and redone as one step
+ *
+ * The children run inside a single SQLite transaction (DatabaseManager.inTransaction),
+ * so a bulk edit costs one commit instead of one per row, and it either applies
+ * completely or not at all. Undo runs the children's undo in reverse order, also as
+ * one transaction. If any child fails the whole batch is rolled back and the command
+ * reports failure with the database unchanged. UI lists are only touched once the
+ * batch is saved (or optimistically, through CommandHistory.executeAsync()); children
+ * that are not OptimisticCommands run entirely inside the transaction.
+ *
+ * Simple usage:
+ *   MacroCommand clear = MacroCommand.deleteFoodForDay(dbManager, userId, date, entries, foodLogList);
+ *   CommandHistory.getInstance().executeCommand(clear);
+ */
+public class MacroCommand implements PersistentCommand, OptimisticCommand, FoodLogViewCommand {
+    private static final Logger logger = LoggerFactory.getLogger(MacroCommand.class);
+
+    private final DatabaseManager dbManager;
+    private final int userId;
+    private final String description;
+    private final List<Command> children;
+
+    public MacroCommand(DatabaseManager dbManager, int userId, String description, List<? extends Command> children) {
+        this.dbManager = dbManager;
+        this.userId = userId;
+        this.description = description;
+        this.children = List.copyOf(children);
+    }
+
+    /**
+     * Delete every food entry logged on a day
+     * @param entries the day's entries, already loaded (e.g. with AsyncDatabaseManager.getFoodLog())
+     */
+    public static MacroCommand deleteFoodForDay(DatabaseManager dbManager, int userId, LocalDate date,
+                                                List<FoodLog> entries, ObservableList<FoodLog> foodLogList) {
+        List<Command> deletes = new ArrayList<>();
+        for (FoodLog entry : entries) {
+            deletes.add(new DeleteFoodLogCommand(dbManager, entry, foodLogList));
+        }
+        return new MacroCommand(dbManager, userId, "Delete all food on " + date, deletes);
+    }
+
+    /**
+     * Log copies of every food entry from one day on another (e.g. yesterday's meals today)
+     * @param entries the entries logged on from, already loaded
+     */
+    public static MacroCommand copyFood(DatabaseManager dbManager, int userId, LocalDate from, LocalDate to,
+                                        List<FoodLog> entries, ObservableList<FoodLog> foodLogList) {
+        List<Command> adds = new ArrayList<>();
+        for (FoodLog entry : entries) {
+            FoodLog copy = new FoodLog(userId, entry.getFoodName(), entry.getCalories(),
+                entry.getProtein(), entry.getCarbs(), entry.getFats(), to);
+            adds.add(new AddFoodLogCommand(dbManager, copy, foodLogList));
+        }
+        return new MacroCommand(dbManager, userId, "Copy food from " + from + " to " + to, adds);
+    }
+
+    @Override
+    public boolean persist() {
+        return dbManager.inTransaction(userId, () -> {
+            for (Command child : children) {
+                boolean saved = child instanceof OptimisticCommand
+                    ? ((OptimisticCommand) child).persist() : child.execute();
+                if (!saved) {
+                    logger.error("✗ {} failed at: {}", description, child.getDescription());
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public boolean unpersist() {
+        return dbManager.inTransaction(userId, () -> {
+            for (int i = children.size() - 1; i >= 0; i--) {
+                Command child = children.get(i);
+                boolean reversed = child instanceof OptimisticCommand
+                    ? ((OptimisticCommand) child).unpersist() : child.undo();
+                if (!reversed) {
+                    logger.error("✗ Undo of {} failed at: {}", description, child.getDescription());
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public void applyView() {
+        for (Command child : children) {
+            if (child instanceof OptimisticCommand) ((OptimisticCommand) child).applyView();
+        }
+    }
+
+    @Override
+    public void revertView() {
+        for (int i = children.size() - 1; i >= 0; i--) {
+            if (children.get(i) instanceof OptimisticCommand) ((OptimisticCommand) children.get(i)).revertView();
+        }
+    }
+
+    @Override
+    public void bindView(ObservableList<FoodLog> foodLogList) {
+        for (Command child : children) {
+            if (child instanceof FoodLogViewCommand) ((FoodLogViewCommand) child).bindView(foodLogList);
+        }
+    }
+
+    /**
+     * Number of commands in the batch
+     */
+    public int size() {
+        return children.size();
+    }
+
+    public boolean isEmpty() {
+        return children.isEmpty();
+    }
+
+    @Override
+    public int getTypeId() {
+        return CommandCodecs.MACRO;
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(userId);
+        out.writeUTF(description);
+        out.writeInt(children.size());
+        for (Command child : children) {
+            if (child instanceof PersistentCommand) {
+                PersistentCommand persistent = (PersistentCommand) child;
+                out.writeInt(persistent.getTypeId());
+                persistent.writeTo(out);
+            } else {
+                out.writeInt(0); // decoded as a gap, so the batch is not restored
+            }
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = BASE_BYTES + CommandSizes.of(description) + 16L * children.size();
+        for (Command child : children) {
+            bytes += child.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String getDescription() {
+        return description + " (" + children.size() + " entries)";
+    }
+}
@@ -7,16 +7,21 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.model.DaySeries;
 import com.fittrack.model.Goal;
+import com.fittrack.model.NutritionIndex;
+import com.fittrack.model.PersonalRecords;
+import com.fittrack.model.TimeSeriesStore;
+import com.fittrack.model.TrainingLoad;
 import com.fittrack.model.User;
-import com.fittrack.model.WeightHistory;
 import com.fittrack.model.WorkoutLog;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.KeyedObservableList;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -28,10 +33,12 @@ import javafx.scene.control.cell.PropertyValueFactory;
  * DashboardController - Controller for the Dashboard.fxml view
  * Displays the main dashboard with navigation options
  */
-public class DashboardController {
+public class DashboardController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
     private static final double CM_TO_METERS = 100.0;
+    // Exercises listed under Personal Records (most recent record first)
+    private static final int RECORDS_SHOWN = 5;
 
     @FXML
     private Label userLabel;
@@ -58,8 +65,10 @@ public class DashboardController {
     private TableColumn<WorkoutLog, Double> weightColumn;
 
     private User currentUser;
-    private final DatabaseManager dbManager = new DatabaseManager();
-    private final ObservableList<WorkoutLog> todayWorkouts = FXCollections.observableArrayList();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
+    private final KeyedObservableList<WorkoutLog> todayWorkouts = new KeyedObservableList<>(WorkoutLog::getId,
+        KeyedObservableList.sameFields(WorkoutLog::getWorkoutName, WorkoutLog::getSets, WorkoutLog::getReps,
+            WorkoutLog::getWeightUsed));
 
     /**
      * Initialize method called when the FXML is loaded
@@ -70,16 +79,8 @@ public class DashboardController {
         currentUser = SessionManager.getInstance().getLoggedInUser();
 
         if (currentUser != null) {
-            // Reload user data from database to get latest profile updates
-            User refreshedUser = dbManager.getUserById(currentUser.getUserId());
-            if (refreshedUser != null) {
-                currentUser = refreshedUser;
-                SessionManager.getInstance().setLoggedInUser(currentUser);
-            }
-            
             userLabel.setText("Welcome, " + currentUser.getUsername() + "!");
-            updateStatsDisplay();
-            loadTodayWorkouts();
+            refresh();
         } else {
             userLabel.setText("Welcome!");
             logger.warn("⚠ Warning: No user logged in");
@@ -95,14 +96,50 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Reload the user's stats and today's workouts (called again each time the cached view is shown)
+     */
+    @Override
+    public void refresh() {
+        if (currentUser == null) return;
+
+        // Reload user data from database to get latest profile updates (off the FX thread)
+        asyncDb.getUserById(currentUser.getUserId())
+            .thenAcceptAsync(refreshedUser -> {
+                if (refreshedUser != null) {
+                    currentUser = refreshedUser;
+                    SessionManager.getInstance().setLoggedInUser(currentUser);
+                }
+                updateStatsDisplay();
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error refreshing user data", ex);
+                return null;
+            });
+        loadTodayWorkouts();
+    }
+
     private void updateStatsDisplay() {
+        // Goals from the database, history and records from memory, all off the FX thread
+        int userId = currentUser.getUserId();
+        asyncDb.read(db -> {
+                TimeSeriesStore store = TimeSeriesStore.getInstance();
+                return buildStatsText(store.getWeights(userId), store.getFood(userId), store.getNutritionIndex(userId),
+                    store.getWorkouts(userId), store.getTrainingLoad(userId), PersonalRecords.getInstance().getAll(userId),
+                    db.getGoals(userId));
+            })
+            .thenAcceptAsync(statsLabel::setText, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading dashboard stats", ex);
+                return null;
+            });
+    }
+
+    private String buildStatsText(DaySeries weights, DaySeries food, NutritionIndex nutrition, DaySeries workouts,
+                                  TrainingLoad training, List<PersonalRecords.Exercise> records, List<Goal> goals) {
         StringBuilder stats = new StringBuilder();
         boolean hasAnyData = false;
         
-        // Reload ALL data from database for fresh stats
-        List<WeightHistory> weightHistory = dbManager.getWeightHistory(currentUser.getUserId());
-        List<Goal> goals = dbManager.getGoals(currentUser.getUserId());
-        
         // Personal Information Section
         stats.append("━━━ Personal Info ━━━\n");
         
@@ -117,7 +154,7 @@ public class DashboardController {
         }
         
         // Body Measurements Section
-        if (currentUser.getHeight() != null || currentUser.getWeight() != null || !weightHistory.isEmpty()) {
+        if (currentUser.getHeight() != null || currentUser.getWeight() != null || !weights.isEmpty()) {
             stats.append("\n━━━ Body Measurements ━━━\n");
         }
         
@@ -127,11 +164,10 @@ public class DashboardController {
         }
         
         // Show latest weight from weight history if available, otherwise show profile weight
-        if (!weightHistory.isEmpty()) {
-            // Weight history is sorted newest first
-            WeightHistory latestWeight = weightHistory.get(0);
-            stats.append("Current Weight: ").append(latestWeight.getWeight()).append(" kg");
-            stats.append(" (").append(latestWeight.getDate()).append(")\n");
+        if (!weights.isEmpty()) {
+            // Series is sorted oldest first
+            stats.append("Current Weight: ").append(weights.last(TimeSeriesStore.WEIGHT)).append(" kg");
+            stats.append(" (").append(weights.date(weights.size() - 1)).append(")\n");
             hasAnyData = true;
         } else if (currentUser.getWeight() != null) {
             stats.append("Weight: ").append(currentUser.getWeight()).append(" kg\n");
@@ -140,8 +176,8 @@ public class DashboardController {
 
         // BMI Calculation and Category (only if both height and weight are available)
         Double weightForBMI = null;
-        if (!weightHistory.isEmpty()) {
-            weightForBMI = weightHistory.get(0).getWeight();
+        if (!weights.isEmpty()) {
+            weightForBMI = weights.last(TimeSeriesStore.WEIGHT);
         } else if (currentUser.getWeight() != null) {
             weightForBMI = currentUser.getWeight();
         }
@@ -155,6 +191,54 @@ public class DashboardController {
             hasAnyData = true;
         }
 
+        // Last 7 days, from prefix sums over the time series (no per-row objects)
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(6);
+        int foodEntries = food.count(weekStart, today);
+        int workoutEntries = workouts.count(weekStart, today);
+        if (foodEntries > 0 || workoutEntries > 0) {
+            stats.append("\n━━━ Last 7 Days ━━━\n");
+            if (foodEntries > 0) {
+                // Same per-logged-day average as the food log screen's 7-day window
+                stats.append(String.format("Calories: %.0f kcal per logged day (%d of 7 days logged)\n",
+                    nutrition.rollingAverage(NutritionIndex.CALORIES, today, 7), nutrition.loggedDays(weekStart, today)));
+            }
+            if (workoutEntries > 0) {
+                stats.append(String.format("Training: %.0f sets, %.0f kg volume\n",
+                    workouts.sum(TimeSeriesStore.SETS, weekStart, today),
+                    workouts.sum(TimeSeriesStore.VOLUME, weekStart, today)));
+            }
+            hasAnyData = true;
+        }
+
+        // Training Load (EWMA acute:chronic workload ratio, monotony and strain)
+        double acwr = training.acwr(today);
+        if (!Double.isNaN(acwr)) {
+            stats.append("\n━━━ Training Load ━━━\n");
+            stats.append(String.format("Acute:Chronic Ratio: %.2f (%s)\n", acwr, getWorkloadZone(acwr)));
+            double monotony = training.monotony(today);
+            if (!Double.isNaN(monotony)) {
+                stats.append(String.format("Monotony: %.2f, Strain: %.0f\n", monotony, training.strain(today)));
+            }
+            hasAnyData = true;
+        }
+
+        // Personal Records, maintained incrementally by PersonalRecords
+        if (!records.isEmpty()) {
+            stats.append("\n━━━ Personal Records ━━━\n");
+            for (PersonalRecords.Exercise exercise : records.subList(0, Math.min(RECORDS_SHOWN, records.size()))) {
+                stats.append(exercise.name).append(": ");
+                if (exercise.heaviest != null) {
+                    stats.append(String.format("%.1f kg x %d", exercise.heaviest.value, exercise.heaviest.reps));
+                }
+                if (exercise.oneRepMax != null) {
+                    stats.append(String.format(", est. 1RM %.1f kg", exercise.oneRepMax.value));
+                }
+                stats.append("\n");
+            }
+            hasAnyData = true;
+        }
+
         // Fitness Level Section
         if (currentUser.getFitnessLevel() != null && !currentUser.getFitnessLevel().isEmpty()) {
             stats.append("\n━━━ Fitness Level ━━━\n");
@@ -174,11 +258,9 @@ public class DashboardController {
 
         // Display stats or prompt to complete profile
         if (hasAnyData) {
-            statsLabel.setText(stats.toString());
-        } else {
-            String defaultText = "━━━ Get Started ━━━\n\nComplete your profile to see your fitness stats!\n\nClick 'My Profile' to add:\n• Age & Gender\n• Height & Weight\n• Fitness Level";
-            statsLabel.setText(defaultText);
+            return stats.toString();
         }
+        return "━━━ Get Started ━━━\n\nComplete your profile to see your fitness stats!\n\nClick 'My Profile' to add:\n• Age & Gender\n• Height & Weight\n• Fitness Level";
     }
 
     /**
@@ -199,6 +281,21 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Describe an acute:chronic workload ratio using the commonly cited injury-risk zones.
+     */
+    private String getWorkloadZone(double acwr) {
+        if (acwr < 0.8) {
+            return "Undertraining";
+        } else if (acwr <= 1.3) {
+            return "Sweet spot";
+        } else if (acwr <= 1.5) {
+            return "Caution";
+        } else {
+            return "High risk";
+        }
+    }
+
     /**
      * Load today's workout exercises from the database
      */
@@ -207,20 +304,16 @@ public class DashboardController {
             return;
         }
 
-        // Get all workout logs for the user
-        List<WorkoutLog> allWorkouts = dbManager.getWorkoutLogs(currentUser.getUserId());
-        
-        // Filter for today's workouts
-        LocalDate today = LocalDate.now();
-        todayWorkouts.clear();
-        
-        for (WorkoutLog workout : allWorkouts) {
-            if (workout.getDate() != null && workout.getDate().equals(today)) {
-                todayWorkouts.add(workout);
-            }
-        }
-
-        System.out.println("✓ Loaded " + todayWorkouts.size() + " workouts for today");
+        // Only today's rows are fetched, not the user's whole history
+        asyncDb.getWorkoutLogs(currentUser.getUserId(), LocalDate.now())
+            .thenAcceptAsync(workouts -> {
+                todayWorkouts.sync(workouts);
+                logger.info("✓ Loaded {} workouts for today", workouts.size());
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading today's workouts", ex);
+                return null;
+            });
     }
 
     // Navigation Handlers
@@ -2,24 +2,46 @@ package com.fittrack.controller;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fittrack.command.AddFoodLogCommand;
+import com.fittrack.command.DeleteFoodLogCommand;
+import com.fittrack.command.FoodLogViewCommand;
+import com.fittrack.command.MacroCommand;
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.model.DailyNutrition;
 import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.FoodItem;
+import com.fittrack.model.FoodLibrary;
 import com.fittrack.model.FoodLog;
+import com.fittrack.model.NutritionIndex;
 import com.fittrack.model.User;
+import com.fittrack.util.Command;
+import com.fittrack.util.CommandHistory;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.KeyedObservableList;
+import com.fittrack.util.OptimisticCommand;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
+import com.fittrack.util.TablePager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
@@ -30,7 +52,7 @@ import javafx.scene.layout.Region; // <-- 1. IMPORT ADDED
  * FoodLogController - Controller for the FoodLog.fxml view
  * Tracks daily food intake and calculates nutrition totals
  */
-public class FoodLogController {
+public class FoodLogController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(FoodLogController.class);
 
@@ -52,10 +74,25 @@ public class FoodLogController {
     @FXML private DatePicker datePicker;
     @FXML private Label messageLabel;
     @FXML private Label dailyTotalsLabel;
+    @FXML private Label rollingAveragesLabel;
 
     private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
     private User currentUser;
-    private final ObservableList<FoodLog> foodLogList = FXCollections.observableArrayList();
+    private final KeyedObservableList<FoodLog> foodLogList = new KeyedObservableList<>(FoodLog::getId);
+    private TablePager<FoodLog> foodLogPager;
+
+    // Type-ahead under foodNameField; selectedFood is the suggestion the form was filled from
+    private final ContextMenu suggestionsMenu = new ContextMenu();
+    private FoodItem selectedFood;
+    private boolean fillingForm;
+
+    // Rows fetched per page as the table scrolls
+    private static final int PAGE_SIZE = 200;
+    // Suggestions listed under the food name field
+    private static final int SUGGESTIONS_SHOWN = 8;
+    // Rolling average windows shown under the daily totals, in days
+    private static final int[] ROLLING_WINDOWS = {7, 30, 90};
 
     @FXML
     public void initialize() {
@@ -69,6 +106,8 @@ public class FoodLogController {
             userLabel.setText("Welcome, " + currentUser.getUsername() + "!");
             logger.info("✓ FoodLog screen loaded for: {}", currentUser.getUsername());
             setupTableColumns();
+            bindHistoryToTable();
+            setupFoodSuggestions();
             loadFoodLog();
             updateDailyTotals();
         } else {
@@ -84,11 +123,13 @@ public class FoodLogController {
                 updateDailyTotals();
             }
         });
-        
-        // Listen for changes in the food log list to update totals
-        foodLogList.addListener((javafx.collections.ListChangeListener.Change<? extends FoodLog> change) -> {
-            updateDailyTotals();
-        });
+    }
+
+    @Override
+    public void refresh() {
+        bindHistoryToTable();
+        loadFoodLog();
+        updateDailyTotals();
     }
 
     private void setupTableColumns() {
@@ -99,42 +140,168 @@ public class FoodLogController {
         fatsColumn.setCellValueFactory(new PropertyValueFactory<>("fats"));
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
         foodLogTable.setItems(foodLogList);
+
+        // Newest entries first; older pages load as the user scrolls down
+        int userId = currentUser.getUserId();
+        foodLogPager = new TablePager<>(foodLogTable, foodLogList, PAGE_SIZE, (last, limit) -> last == null
+            ? asyncDb.getFoodLogPage(userId, null, 0, limit)
+            : asyncDb.getFoodLogPage(userId, last.getDate(), last.getId(), limit));
     }
 
-    private void loadFoodLog() {
-        if (currentUser == null) return;
+    private void setupFoodSuggestions() {
+        int userId = currentUser.getUserId();
+        asyncDb.warmFoodLibrary(userId).exceptionally(ex -> {
+            logger.error("✗ Error loading food library", ex);
+            return null;
+        });
+
+        foodNameField.textProperty().addListener((obs, oldText, text) -> {
+            if (fillingForm) return;
+            selectedFood = null; // typed by hand, so the macros may no longer match the library
+            showSuggestions(text);
+        });
+        foodNameField.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) suggestionsMenu.hide();
+        });
+    }
+
+    /**
+     * Suggest library foods for the typed text: from memory at once, then from FTS5
+     * when the library is too large to be fully in memory
+     */
+    private void showSuggestions(String text) {
+        if (text == null || text.isBlank()) {
+            suggestionsMenu.hide();
+            return;
+        }
+        int userId = currentUser.getUserId();
+        FoodLibrary library = FoodLibrary.getInstance();
+        List<FoodItem> cached = library.suggestIfLoaded(userId, text, SUGGESTIONS_SHOWN);
+        if (cached != null) populateSuggestions(cached);
+        if (cached != null && (cached.size() == SUGGESTIONS_SHOWN || library.isComplete(userId))) return;
+
+        asyncDb.searchFoodLibrary(userId, text, SUGGESTIONS_SHOWN)
+            .thenAcceptAsync(found -> {
+                if (!text.equals(foodNameField.getText())) return; // the user kept typing
+                Map<Integer, FoodItem> merged = new LinkedHashMap<>();
+                if (cached != null) cached.forEach(item -> merged.put(item.getFoodId(), item));
+                found.forEach(item -> merged.putIfAbsent(item.getFoodId(), item));
+                populateSuggestions(merged.values().stream().limit(SUGGESTIONS_SHOWN).toList());
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error searching food library", ex);
+                return null;
+            });
+    }
+
+    private void populateSuggestions(List<FoodItem> items) {
+        if (items.isEmpty() || !foodNameField.isFocused()) {
+            suggestionsMenu.hide();
+            return;
+        }
+        List<MenuItem> entries = new ArrayList<>(items.size());
+        for (FoodItem item : items) {
+            MenuItem entry = new MenuItem(String.format("%s  (%.0f kcal | P %.1f g | C %.1f g | F %.1f g)",
+                item.getFoodName(), item.getCalories(), item.getProtein(), item.getCarbs(), item.getFats()));
+            entry.setOnAction(event -> fillFromLibrary(item));
+            entries.add(entry);
+        }
+        suggestionsMenu.getItems().setAll(entries);
+        if (!suggestionsMenu.isShowing()) {
+            suggestionsMenu.show(foodNameField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void fillFromLibrary(FoodItem item) {
+        fillingForm = true;
+        try {
+            foodNameField.setText(item.getFoodName());
+            foodNameField.positionCaret(item.getFoodName().length());
+            caloriesField.setText(String.valueOf(Math.round(item.getCalories())));
+            proteinField.setText(formatAmount(item.getProtein()));
+            carbsField.setText(formatAmount(item.getCarbs()));
+            fatsField.setText(formatAmount(item.getFats()));
+        } finally {
+            fillingForm = false;
+        }
+        selectedFood = item;
+        suggestionsMenu.hide();
+    }
+
+    private static String formatAmount(double grams) {
+        return grams == Math.rint(grams) ? String.valueOf((long) grams) : String.format("%.1f", grams);
+    }
+
+    /**
+     * True if the entry is exactly the library food it was filled from (nothing to learn)
+     */
+    private boolean isFromLibrary(FoodLog entry) {
+        return selectedFood != null
+            && selectedFood.getFoodName().equalsIgnoreCase(entry.getFoodName())
+            && Math.round(selectedFood.getCalories()) == entry.getCalories()
+            && Math.abs(selectedFood.getProtein() - entry.getProtein()) < 0.05
+            && Math.abs(selectedFood.getCarbs() - entry.getCarbs()) < 0.05
+            && Math.abs(selectedFood.getFats() - entry.getFats()) < 0.05;
+    }
 
-        foodLogList.clear();
-        var logs = dbManager.getFoodLog(currentUser.getUserId(), null);
-        foodLogList.addAll(logs);
+    /**
+     * Make undo and redo of earlier commands (including ones restored from the journal) update this table
+     */
+    private void bindHistoryToTable() {
+        for (Command command : CommandHistory.getInstance().getCommands()) {
+            if (command instanceof FoodLogViewCommand) ((FoodLogViewCommand) command).bindView(foodLogList);
+        }
+    }
 
-        logger.info("✓ Loaded {} food log entries from database", logs.size());
+    private void loadFoodLog() {
+        if (currentUser == null) return;
+        foodLogPager.reload();
     }
 
     private void updateDailyTotals() {
-        LocalDate selectedDate = datePicker.getValue();
-        if (selectedDate == null) selectedDate = LocalDate.now();
-
-        int totalCalories = 0;
-        double totalProtein = 0;
-        double totalCarbs = 0;
-        double totalFats = 0;
-
-        for (FoodLog food : foodLogList) {
-            if (food.getDate().equals(selectedDate)) {
-                totalCalories += food.getCalories();
-                totalProtein += food.getProtein();
-                totalCarbs += food.getCarbs();
-                totalFats += food.getFats();
+        if (currentUser == null) return;
+        LocalDate selectedDate = datePicker.getValue() != null ? datePicker.getValue() : LocalDate.now();
+
+        // Summed by SQLite; the table's loaded pages are never scanned
+        asyncDb.getDailyNutrition(currentUser.getUserId(), selectedDate)
+            .thenAcceptAsync(this::showDailyTotals, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading daily totals", ex);
+                return null;
+            });
+
+        // Rolling windows come from the in-memory index (no query once it is loaded)
+        asyncDb.getNutritionIndex(currentUser.getUserId())
+            .thenAcceptAsync(index -> showRollingAverages(index, selectedDate), FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading rolling averages", ex);
+                return null;
+            });
+    }
+
+    private void showRollingAverages(NutritionIndex index, LocalDate end) {
+        StringBuilder averages = new StringBuilder("Average per logged day:");
+        for (int days : ROLLING_WINDOWS) {
+            int logged = index.loggedDays(end.minusDays(days - 1), end);
+            averages.append(String.format("%n%d days: ", days));
+            if (logged == 0) {
+                averages.append("no entries");
+            } else {
+                averages.append(String.format("%.0f kcal | %.1f g protein (%d of %d days logged)",
+                    index.rollingAverage(NutritionIndex.CALORIES, end, days),
+                    index.rollingAverage(NutritionIndex.PROTEIN, end, days), logged, days));
             }
         }
+        rollingAveragesLabel.setText(averages.toString());
+    }
 
+    private void showDailyTotals(DailyNutrition day) {
         // Build totals text with proper line breaks
         StringBuilder totals = new StringBuilder();
-        totals.append(String.format("Daily Totals for %s:%n", selectedDate));
-        totals.append(String.format("Calories: %d kcal%n", totalCalories));
+        totals.append(String.format("Daily Totals for %s:%n", day.getDate()));
+        totals.append(String.format("Calories: %d kcal%n", day.getCalories()));
         totals.append(String.format("Protein: %.1f g | Carbs: %.1f g | Fats: %.1f g",
-                totalProtein, totalCarbs, totalFats));
+                day.getProtein(), day.getCarbs(), day.getFats()));
 
         String totalsText = totals.toString();
         dailyTotalsLabel.setText(totalsText);
@@ -182,15 +349,16 @@ public class FoodLogController {
             date
         );
 
-        boolean success = dbManager.saveFoodLog(newFood);
-        if (success) {
-            loadFoodLog();
-            updateDailyTotals();
-            clearForm();
-            showSuccess("Food logged successfully!");
-        } else {
-            showError("Failed to save food entry. Please try again.");
-        }
+        // New foods and changed macros go to the library so the next entry can be picked from it
+        boolean learn = !isFromLibrary(newFood);
+
+        // The row shows at once; it is removed again if saving fails
+        clearForm();
+        runCommand(new AddFoodLogCommand(dbManager, newFood, foodLogList),
+            "Food logged successfully!", "Failed to save food entry. Please try again.")
+            .thenAccept(saved -> {
+                if (saved && learn) asyncDb.saveFoodItem(FoodItem.of(newFood));
+            });
     }
 
     private double parseDoubleOrDefault(String input) {
@@ -218,15 +386,109 @@ public class FoodLogController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = dbManager.deleteFoodLog(selectedFood.getId());
-                if (success) {
-                    loadFoodLog();
-                    updateDailyTotals();
-                    showSuccess("Food entry deleted successfully!");
-                } else {
-                    showError("Failed to delete food entry. Please try again.");
+                runCommand(new DeleteFoodLogCommand(dbManager, selectedFood, foodLogList),
+                    "Food entry deleted successfully!", "Failed to delete food entry. Please try again.");
+            }
+        });
+    }
+
+    /**
+     * Delete every entry on the selected date as one undoable step (one transaction)
+     */
+    @FXML
+    private void handleDeleteDayButtonAction() {
+        LocalDate date = datePicker.getValue();
+        if (date == null) { showError("Please select a date"); return; }
+
+        int userId = currentUser.getUserId();
+        asyncDb.getFoodLog(userId, date)
+            .thenAcceptAsync(entries -> confirmDeleteDay(
+                MacroCommand.deleteFoodForDay(dbManager, userId, date, entries, foodLogList), date),
+                FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading food log for {}", date, ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to load entries for " + date));
+                return null;
+            });
+    }
+
+    private void confirmDeleteDay(MacroCommand deleteDay, LocalDate date) {
+        if (deleteDay.isEmpty()) {
+            showError("No food logged on " + date);
+            return;
+        }
+
+        Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmAlert.setTitle("Confirm Delete");
+        confirmAlert.setHeaderText("Delete All Food on " + date + "?");
+        confirmAlert.setContentText("Delete " + deleteDay.size() + " entries? You can undo this.");
+
+        confirmAlert.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                runCommand(deleteDay, "Deleted " + deleteDay.size() + " entries", "Failed to delete entries. Nothing was changed.");
+            }
+        });
+    }
+
+    /**
+     * Log the previous day's entries again on the selected date as one undoable step
+     */
+    @FXML
+    private void handleCopyPreviousDayButtonAction() {
+        LocalDate date = datePicker.getValue();
+        if (date == null) { showError("Please select a date"); return; }
+
+        int userId = currentUser.getUserId();
+        LocalDate previous = date.minusDays(1);
+        asyncDb.getFoodLog(userId, previous)
+            .thenAcceptAsync(entries -> {
+                MacroCommand copy = MacroCommand.copyFood(dbManager, userId, previous, date, entries, foodLogList);
+                if (copy.isEmpty()) {
+                    showError("No food logged on " + previous);
+                    return;
                 }
+                runCommand(copy, "Copied " + copy.size() + " entries from " + previous, "Failed to copy entries. Nothing was changed.");
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading food log for {}", previous, ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to load entries for " + previous));
+                return null;
+            });
+    }
+
+    @FXML
+    private void handleUndoButtonAction() {
+        CommandHistory history = CommandHistory.getInstance();
+        if (!history.canUndo()) {
+            showError("Nothing to undo");
+            return;
+        }
+        String description = history.getUndoDescription();
+        whenSaved(history.undoAsync(), "Undone: " + description, "Failed to undo: " + description);
+    }
+
+    /**
+     * Apply a command to the table now and save it in the background
+     */
+    private CompletableFuture<Boolean> runCommand(OptimisticCommand command, String successMessage, String failureMessage) {
+        CompletableFuture<Boolean> saved = CommandHistory.getInstance().executeAsync(command);
+        whenSaved(saved, successMessage, failureMessage);
+        return saved;
+    }
+
+    private void whenSaved(CompletableFuture<Boolean> saved, String successMessage, String failureMessage) {
+        saved.thenAcceptAsync(success -> {
+            if (success) {
+                showSuccess(successMessage);
+                updateDailyTotals();
+            } else {
+                showError(failureMessage);
             }
+        }, FxThreadMonitor.executor())
+        .exceptionally(ex -> {
+            logger.warn("⚠ Command not run: {}", ex.getMessage());
+            FxThreadMonitor.runLater(() -> showError("Still saving earlier changes, please try again."));
+            return null;
         });
     }
 
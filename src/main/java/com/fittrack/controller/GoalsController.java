@@ -6,14 +6,16 @@ import java.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.AsyncDatabaseManager;
 import com.fittrack.model.Goal;
 import com.fittrack.model.User;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.KeyedObservableList;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -30,7 +32,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
  * GoalsController - Controller for the Goals.fxml view
  * Manages user fitness goals with database integration
  */
-public class GoalsController {
+public class GoalsController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(GoalsController.class);
 
@@ -49,9 +51,12 @@ public class GoalsController {
     @FXML private DatePicker targetDatePicker;
     @FXML private Label messageLabel;
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
     private User currentUser;
-    private final ObservableList<Goal> goalsList = FXCollections.observableArrayList();
+    // Reloads are diffed by ID so only changed rows are redrawn
+    private final KeyedObservableList<Goal> goalsList = new KeyedObservableList<>(Goal::getGoalId,
+        KeyedObservableList.sameFields(Goal::getGoalType, Goal::getTargetValue, Goal::getTargetUnit,
+            Goal::getTargetDate, Goal::getStatus));
 
     /**
      * Initialize method called when the FXML is loaded
@@ -60,11 +65,11 @@ public class GoalsController {
     public void initialize() {
         currentUser = SessionManager.getInstance().getLoggedInUser();
 
-        // Test database connection
-        if (!dbManager.testConnection()) {
-            showError("Database connection failed!");
-            return;
-        }
+        // Test database connection off the FX thread
+        asyncDb.testConnection()
+            .thenAcceptAsync(connected -> {
+                if (!connected) showError("Database connection failed!");
+            }, FxThreadMonitor.executor());
 
         if (currentUser != null) {
             welcomeLabel.setText(currentUser.getUsername() + "'s Fitness Goals");
@@ -114,15 +119,23 @@ public class GoalsController {
         ));
     }
 
+    @Override
+    public void refresh() {
+        loadGoals();
+    }
+
     /**
      * Load goals from database
      */
     private void loadGoals() {
         if (currentUser == null) return;
 
-        goalsList.clear();
-        var goals = dbManager.getGoals(currentUser.getUserId());
-        goalsList.addAll(goals);
+        asyncDb.getGoals(currentUser.getUserId())
+            .thenAcceptAsync(goalsList::sync, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading goals", ex);
+                return null;
+            });
     }
 
     /**
@@ -173,19 +186,27 @@ public class GoalsController {
         goal.targetDate = targetDate;
         goal.status = "active";
 
-        if (dbManager.saveGoal(goal)) {
-            logger.info("✓ Goal saved to database with ID: {}", goal.goalId);
-            
-            // Reload from database to get correct goal with ID
-            loadGoals();
-            
-            // Clear form and show success
-            clearForm();
-            showSuccess("Goal added successfully!");
-        } else {
-            logger.error("✗ Failed to save goal to database");
-            showError("Failed to add goal. Please try again.");
-        }
+        asyncDb.saveGoal(goal)
+            .thenAcceptAsync(success -> {
+                if (success) {
+                    logger.info("✓ Goal saved to database with ID: {}", goal.goalId);
+
+                    // Reload from database to get correct goal with ID
+                    loadGoals();
+
+                    // Clear form and show success
+                    clearForm();
+                    showSuccess("Goal added successfully!");
+                } else {
+                    logger.error("✗ Failed to save goal to database");
+                    showError("Failed to add goal. Please try again.");
+                }
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error saving goal", ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to add goal. Please try again."));
+                return null;
+            });
     }
 
     /**
@@ -207,20 +228,26 @@ public class GoalsController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                // Delete from database
-                boolean success = dbManager.deleteGoal(selectedGoal.goalId);
-                
-                if (success) {
-                    logger.info("✓ Goal deleted from database with ID: {}", selectedGoal.goalId);
-                    
-                    // Reload from database to ensure data is current
-                    loadGoals();
-                    
-                    showSuccess("Goal deleted successfully!");
-                } else {
-                    showError("Failed to delete goal. Please try again.");
-                    logger.error("✗ Failed to delete goal from database");
-                }
+                // Delete from database on the writer thread
+                asyncDb.deleteGoal(selectedGoal.goalId)
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            logger.info("✓ Goal deleted from database with ID: {}", selectedGoal.goalId);
+
+                            // Reload from database to ensure data is current
+                            loadGoals();
+
+                            showSuccess("Goal deleted successfully!");
+                        } else {
+                            showError("Failed to delete goal. Please try again.");
+                            logger.error("✗ Failed to delete goal from database");
+                        }
+                    }, FxThreadMonitor.executor())
+                    .exceptionally(ex -> {
+                        logger.error("✗ Error deleting goal", ex);
+                        FxThreadMonitor.runLater(() -> showError("Failed to delete goal. Please try again."));
+                        return null;
+                    });
             }
         });
     }
@@ -1,25 +1,40 @@
 package com.fittrack.controller;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
-import com.fittrack.model.DatabaseManager;
-import com.fittrack.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.command.CommandCodecs;
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.util.CommandHistory;
+import com.fittrack.util.CommandJournal;
+import com.fittrack.util.FxThreadMonitor;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 
 public class LoginController {
 
+    private static final Logger logger = LoggerFactory.getLogger(LoginController.class);
+
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private Label errorLabel;
+    @FXML private Button loginButton;
+    @FXML private ProgressIndicator progressIndicator;
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
 
     @FXML
     private void handleLoginButtonAction(ActionEvent event) {
@@ -31,19 +46,72 @@ public class LoginController {
             return;
         }
 
-        // REAL LOGIC - Uses database
-        User user = dbManager.login(username, password);
+        // REAL LOGIC - Uses database; BCrypt runs on a background thread so the window stays responsive
+        setBusy(true);
+        errorLabel.setText("Signing in...");
+        asyncDb.login(username, password).whenCompleteAsync((user, ex) -> {
+            if (ex != null) {
+                setBusy(false);
+                logger.error("✗ Sign-in failed", ex);
+                errorLabel.setText(isRejected(ex)
+                    ? "Sign-in is busy right now. Please try again."
+                    : "Sign-in failed due to an unexpected error. Please try again.");
+            } else if (user != null) {
+                SessionManager.getInstance().setLoggedInUser(user);
+                // The history must be restored before any screen can add commands to it
+                openUndoJournal(user.getUserId())
+                    .thenRunAsync(() -> showDashboard(event), FxThreadMonitor.executor());
+            } else {
+                setBusy(false);
+                errorLabel.setText("Invalid username or password.");
+            }
+        }, FxThreadMonitor.executor());
+    }
+
+    private void showDashboard(ActionEvent event) {
+        setBusy(false);
+        try {
+            SceneSwitcher.switchScene(event, "Dashboard.fxml");
+            SceneSwitcher.preloadMainViews();
+        } catch (IOException e) {
+            errorLabel.setText("Error: Could not load dashboard. " + e.getMessage());
+        }
+    }
 
-        if (user != null) {
-            SessionManager.getInstance().setLoggedInUser(user);
+    /**
+     * Restore the user's undo/redo history from their journal on the writer thread,
+     * behind any saves still queued there. Completes normally even if the journal
+     * cannot be opened; the user then starts with an empty history.
+     */
+    private CompletableFuture<Void> openUndoJournal(int userId) {
+        return asyncDb.<Void>write(db -> {
             try {
-                SceneSwitcher.switchScene(event, "Dashboard.fxml");
+                CommandHistory.getInstance().openJournal(CommandJournal.forUser(userId, CommandCodecs::decode));
             } catch (IOException e) {
-                errorLabel.setText("Error: Could not load dashboard. " + e.getMessage());
+                logger.error("✗ Could not open undo journal for user ID {}: {}", userId, e.getMessage(), e);
             }
-        } else {
-            errorLabel.setText("Invalid username or password.");
-        }
+            return null;
+        }).exceptionally(ex -> {
+            logger.error("✗ Could not restore undo history for user ID {}", userId, ex);
+            return null;
+        });
+    }
+
+    /**
+     * True if the auth pool turned the request away because it was full
+     */
+    static boolean isRejected(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof RejectedExecutionException;
+    }
+
+    /**
+     * Show the progress indicator and block resubmission while credentials are checked
+     */
+    private void setBusy(boolean busy) {
+        loginButton.setDisable(busy);
+        progressIndicator.setVisible(busy);
+        progressIndicator.setManaged(busy);
     }
 
     // Handles the "Register here" link click
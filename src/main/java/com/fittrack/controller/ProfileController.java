@@ -5,8 +5,10 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.AsyncDatabaseManager;
 import com.fittrack.model.User;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
 
@@ -21,7 +23,7 @@ import javafx.scene.control.TextField;
  * ProfileController - Controller for the Profile.fxml view
  * Handles user profile management with database integration
  */
-public class ProfileController {
+public class ProfileController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(ProfileController.class);
 
@@ -34,8 +36,8 @@ public class ProfileController {
     @FXML private TextField weightField;
     @FXML private ComboBox<String> fitnessLevelComboBox;
 
-    // Database manager
-    private final DatabaseManager dbManager = new DatabaseManager();
+    // Profile saves run on the database writer thread
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
 
     private User currentUser;
 
@@ -68,6 +70,18 @@ public class ProfileController {
         messageLabel.setText("");
     }
 
+    /**
+     * Re-read the session user (the dashboard refreshes it) and reset the form
+     */
+    @Override
+    public void refresh() {
+        User sessionUser = SessionManager.getInstance().getLoggedInUser();
+        if (sessionUser == null) return;
+        currentUser = sessionUser;
+        messageLabel.setText("");
+        loadUserProfile();
+    }
+
     /**
      * Load the current user's profile data into the form fields
      */
@@ -142,15 +156,22 @@ public class ProfileController {
                 currentUser.setWeight(weight);
                 currentUser.setFitnessLevel(fitnessLevel);
                 
-                boolean success = dbManager.updateUserProfile(currentUser);
-                
-                if (success) {
-                    SessionManager.getInstance().setLoggedInUser(currentUser);
-                    showSuccess("Profile saved successfully!");
-                    logger.info("✓ Profile updated in database!");
-                } else {
-                    showError("Failed to save profile. Please try again.");
-                }
+                User savedUser = currentUser;
+                asyncDb.updateUserProfile(savedUser)
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            SessionManager.getInstance().setLoggedInUser(savedUser);
+                            showSuccess("Profile saved successfully!");
+                            logger.info("✓ Profile updated in database!");
+                        } else {
+                            showError("Failed to save profile. Please try again.");
+                        }
+                    }, FxThreadMonitor.executor())
+                    .exceptionally(ex -> {
+                        logger.error("✗ Error saving profile", ex);
+                        FxThreadMonitor.runLater(() -> showError("Failed to save profile. Please try again."));
+                        return null;
+                    });
             } else {
                 showError("No user logged in.");
             }
@@ -6,17 +6,22 @@ import java.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.model.DaySeries;
+import com.fittrack.model.TimeSeriesStore;
 import com.fittrack.model.User;
 import com.fittrack.model.WeightHistory;
+import com.fittrack.util.DownsampledChart;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.KeyedObservableList;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
@@ -26,18 +31,19 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.StringConverter;
 
 /**
  * ProgressController - Controller for the Progress.fxml view
  * Tracks user weight history and displays progress charts
  */
-public class ProgressController {
+public class ProgressController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(ProgressController.class);
 
     @FXML private Label welcomeLabel;
     @FXML private Label userLabel;
-    @FXML private LineChart<String, Number> weightChart;
+    @FXML private LineChart<Number, Number> weightChart;
     @FXML private TableView<WeightHistory> weightHistoryTable;
     @FXML private TableColumn<WeightHistory, LocalDate> dateColumn;
     @FXML private TableColumn<WeightHistory, Double> weightColumn;
@@ -47,9 +53,13 @@ public class ProgressController {
     @FXML private Label messageLabel;
     @FXML private Label statsLabel;
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
     private User currentUser;
-    private final ObservableList<WeightHistory> weightHistoryList = FXCollections.observableArrayList();
+    private final KeyedObservableList<WeightHistory> weightHistoryList = new KeyedObservableList<>(WeightHistory::getId);
+    private DownsampledChart weightChartData;
+
+    // Smallest zoom window on the chart, in days
+    private static final int MIN_CHART_DAYS = 7;
 
     /**
      * Initialize method called when the FXML is loaded
@@ -57,14 +67,13 @@ public class ProgressController {
     @FXML
     public void initialize() {
         currentUser = SessionManager.getInstance().getLoggedInUser();
+        setupChart();
 
         if (currentUser != null) {
             welcomeLabel.setText(currentUser.getUsername() + "'s Progress");
             userLabel.setText("Welcome, " + currentUser.getUsername() + "!");
             setupTableColumns();
             loadWeightHistory();
-            updateChart();
-            updateStats();
         } else {
             welcomeLabel.setText("Progress Tracking");
             logger.warn("⚠ Warning: No user logged in");
@@ -85,54 +94,79 @@ public class ProgressController {
     }
 
     /**
-     * Load weight history (mock data for now)
+     * Setup the weight chart: x is the day (epoch day), labelled as a date
      */
-    private void loadWeightHistory() {
-        if (currentUser == null) return;
+    private void setupChart() {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName("Weight (kg)");
+        weightChart.getData().add(series);
 
-        weightHistoryList.clear();
-        var history = dbManager.getWeightHistory(currentUser.getUserId());
-        weightHistoryList.addAll(history);
-        
-        logger.info("✓ Loaded {} weight history entries from database", history.size());
+        ((NumberAxis) weightChart.getXAxis()).setTickLabelFormatter(new StringConverter<Number>() {
+            @Override
+            public String toString(Number epochDay) {
+                return LocalDate.ofEpochDay(Math.round(epochDay.doubleValue())).toString();
+            }
+
+            @Override
+            public Number fromString(String date) {
+                return LocalDate.parse(date).toEpochDay();
+            }
+        });
+        weightChartData = new DownsampledChart(weightChart, series, MIN_CHART_DAYS);
+    }
+
+    @Override
+    public void refresh() {
+        loadWeightHistory();
     }
 
     /**
-     * Update the weight chart
+     * Load weight history off the FX thread, then refresh the chart and stats
      */
-    private void updateChart() {
-        weightChart.getData().clear();
-
-        // Ensure chart displays chronologically (oldest -> newest) regardless of table order
-        var sortedForChart = weightHistoryList.stream()
-                .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
-                .toList();
+    private void loadWeightHistory() {
+        if (currentUser == null) return;
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Weight (kg)");
+        int userId = currentUser.getUserId();
+        asyncDb.getWeightHistory(userId)
+            .thenAcceptBothAsync(asyncDb.getWeightSeries(userId), (history, series) -> {
+                weightHistoryList.sync(history);
+                updateChart(series);
+                updateStats(series);
+                logger.info("✓ Loaded {} weight history entries from database", history.size());
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading weight history", ex);
+                return null;
+            });
+    }
 
-        for (WeightHistory wh : sortedForChart) {
-            series.getData().add(new XYChart.Data<>(wh.getDate().toString(), wh.getWeight()));
+    /**
+     * Update the weight chart (downsampled; new weigh-ins are appended, not rebuilt)
+     */
+    private void updateChart(DaySeries series) {
+        // The series is already oldest -> newest
+        int count = series.size();
+        double[] days = new double[count];
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = series.day(i);
+            weights[i] = series.value(TimeSeriesStore.WEIGHT, i);
         }
-
-        weightChart.setLegendVisible(true);
-        weightChart.setTitle("Weight Over Time");
-        weightChart.getData().add(series);
+        weightChartData.setData(days, weights);
     }
 
     /**
      * Update statistics
      */
-    private void updateStats() {
-        if (weightHistoryList.isEmpty()) {
+    private void updateStats(DaySeries series) {
+        if (series.isEmpty()) {
             statsLabel.setText("No weight data available");
             return;
         }
 
-        // Database returns entries in DESC order (newest first)
-        // So index 0 = latest, last index = oldest
-        double currentWeight = weightHistoryList.get(0).getWeight();
-        double startWeight = weightHistoryList.get(weightHistoryList.size() - 1).getWeight();
+        // Series is oldest -> newest
+        double currentWeight = series.last(TimeSeriesStore.WEIGHT);
+        double startWeight = series.value(TimeSeriesStore.WEIGHT, 0);
         double change = currentWeight - startWeight;
         double changePercent = (change / startWeight) * 100;
 
@@ -191,29 +225,31 @@ public class ProgressController {
             date
         );
 
-        // Save to database
-        boolean success = dbManager.saveWeightHistory(newEntry);
+        // Save to database on the writer thread
+        asyncDb.saveWeightHistory(newEntry)
+            .thenAcceptAsync(success -> {
+                if (success) {
+                    logger.info("✓ Weight entry saved to database with ID: {}", newEntry.getId());
 
-        if (success) {
-            logger.info("✓ Weight entry saved to database with ID: {}", newEntry.getId());
-            
-            // Reload from database to ensure correct data and IDs
-            loadWeightHistory();
-            
-            // Update UI
-            updateChart();
-            updateStats();
-            
-            // Clear form
-            weightField.clear();
-            datePicker.setValue(LocalDate.now());
-            
-            showSuccess("Weight recorded successfully!");
-            logger.info("✓ Weight entry added: {} kg on {}", weight, date);
-        } else {
-            showError("Failed to save weight entry. Please try again.");
-            logger.error("✗ Failed to save weight history to database");
-        }
+                    // Reload from database to ensure correct data and IDs (updates chart and stats)
+                    loadWeightHistory();
+
+                    // Clear form
+                    weightField.clear();
+                    datePicker.setValue(LocalDate.now());
+
+                    showSuccess("Weight recorded successfully!");
+                    logger.info("✓ Weight entry added: {} kg on {}", weight, date);
+                } else {
+                    showError("Failed to save weight entry. Please try again.");
+                    logger.error("✗ Failed to save weight history to database");
+                }
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error saving weight entry", ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to save weight entry. Please try again."));
+                return null;
+            });
     }
 
     /**
@@ -235,23 +271,25 @@ public class ProgressController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = dbManager.deleteWeightHistory(selectedEntry.getId());
-                
-                if (success) {
-                    logger.info("✓ Weight entry deleted from database with ID: {}", selectedEntry.getId());
-                    
-                    // Reload from database to ensure data is current
-                    loadWeightHistory();
-                    
-                    // Update UI
-                    updateChart();
-                    updateStats();
-                    
-                    showSuccess("Entry deleted successfully!");
-                } else {
-                    showError("Failed to delete weight entry. Please try again.");
-                    logger.error("✗ Failed to delete weight history from database");
-                }
+                asyncDb.deleteWeightHistory(selectedEntry.getId())
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            logger.info("✓ Weight entry deleted from database with ID: {}", selectedEntry.getId());
+
+                            // Reload from database to ensure data is current (updates chart and stats)
+                            loadWeightHistory();
+
+                            showSuccess("Entry deleted successfully!");
+                        } else {
+                            showError("Failed to delete weight entry. Please try again.");
+                            logger.error("✗ Failed to delete weight history from database");
+                        }
+                    }, FxThreadMonitor.executor())
+                    .exceptionally(ex -> {
+                        logger.error("✗ Error deleting weight entry", ex);
+                        FxThreadMonitor.runLater(() -> showError("Failed to delete weight entry. Please try again."));
+                        return null;
+                    });
             }
         });
     }
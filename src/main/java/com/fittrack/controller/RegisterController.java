@@ -2,27 +2,37 @@ package com.fittrack.controller;
 
 import java.io.IOException;
 
-import com.fittrack.model.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.model.AsyncDatabaseManager;
 import com.fittrack.model.User;
+import com.fittrack.util.FxThreadMonitor;
 import com.fittrack.util.SceneSwitcher;
 
 import javafx.animation.PauseTransition;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.util.Duration;
 
 public class RegisterController {
 
+    private static final Logger logger = LoggerFactory.getLogger(RegisterController.class);
+
     @FXML private TextField usernameField;
     @FXML private TextField emailField;
     @FXML private PasswordField passwordField;
     @FXML private PasswordField confirmPasswordField;
     @FXML private Label messageLabel;
+    @FXML private Button registerButton;
+    @FXML private ProgressIndicator progressIndicator;
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
 
     @FXML
     private void handleRegisterButtonAction(ActionEvent event) {
@@ -51,9 +61,24 @@ public class RegisterController {
         // Create user
         User newUser = User.create(username, email);
 
-        // Register in database
-        boolean success = dbManager.register(newUser, password);
+        // Register in database; hashing runs on a background thread so the window stays responsive
+        setBusy(true);
+        messageLabel.setStyle("-fx-text-fill: gray;");
+        messageLabel.setText("Creating account...");
+        asyncDb.register(newUser, password).whenCompleteAsync((success, ex) -> {
+            setBusy(false);
+            if (ex != null) {
+                logger.error("✗ Registration failed", ex);
+                showError(LoginController.isRejected(ex)
+                    ? "Registration is busy right now. Please try again."
+                    : "Registration failed due to an unexpected error. Please try again.");
+            } else {
+                handleRegistrationResult(event, success);
+            }
+        }, FxThreadMonitor.executor());
+    }
 
+    private void handleRegistrationResult(ActionEvent event, boolean success) {
         if (success) {
             showSuccess("Registration successful! Redirecting to login...");
             // Use JavaFX animation timeline for delay instead of Thread.sleep
@@ -80,6 +105,15 @@ public class RegisterController {
         }
     }
 
+    /**
+     * Show the progress indicator and block resubmission while the password is hashed
+     */
+    private void setBusy(boolean busy) {
+        registerButton.setDisable(busy);
+        progressIndicator.setVisible(busy);
+        progressIndicator.setManaged(busy);
+    }
+
     /**
      * Helper method to display error messages
      */
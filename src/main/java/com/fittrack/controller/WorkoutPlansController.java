@@ -6,15 +6,19 @@ import java.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.AsyncDatabaseManager;
 import com.fittrack.model.User;
 import com.fittrack.model.WorkoutLog;
+import com.fittrack.model.WorkoutLogBuffer;
 import com.fittrack.model.WorkoutPlan;
+import com.fittrack.util.FxThreadMonitor;
+import com.fittrack.util.KeyedObservableList;
+import com.fittrack.util.Refreshable;
 import com.fittrack.util.SceneSwitcher;
 import com.fittrack.util.SessionManager;
+import com.fittrack.util.TablePager;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -34,7 +38,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
  * WorkoutPlansController - Unified controller for Workout Plans and Workout Log
  * Manages both workout scheduling and daily exercise logging
  */
-public class WorkoutPlansController {
+public class WorkoutPlansController implements Refreshable {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkoutPlansController.class);
 
@@ -66,10 +70,20 @@ public class WorkoutPlansController {
     // Common
     @FXML private Label messageLabel;
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final AsyncDatabaseManager asyncDb = AsyncDatabaseManager.getInstance();
+    private final WorkoutLogBuffer workoutLogBuffer = WorkoutLogBuffer.getInstance();
     private User currentUser;
-    private final ObservableList<WorkoutPlan> plansList = FXCollections.observableArrayList();
-    private final ObservableList<WorkoutLog> workoutLogList = FXCollections.observableArrayList();
+    // Reloads are diffed by ID so only changed rows are redrawn
+    private final KeyedObservableList<WorkoutPlan> plansList = new KeyedObservableList<>(plan -> plan.planId,
+        KeyedObservableList.sameFields(plan -> plan.planName, plan -> plan.difficulty,
+            plan -> plan.description, plan -> plan.durationWeeks));
+    private final KeyedObservableList<WorkoutLog> workoutLogList = new KeyedObservableList<>(WorkoutLog::getId,
+        KeyedObservableList.sameFields(WorkoutLog::getWorkoutName, WorkoutLog::getSets, WorkoutLog::getReps,
+            WorkoutLog::getWeightUsed, WorkoutLog::getDate));
+    private TablePager<WorkoutLog> workoutLogPager;
+
+    // Rows fetched per page as the workout log table scrolls
+    private static final int PAGE_SIZE = 200;
 
     /**
      * Initialize method called when the FXML is loaded
@@ -97,6 +111,12 @@ public class WorkoutPlansController {
         }
     }
 
+    @Override
+    public void refresh() {
+        loadWorkoutPlans();
+        loadWorkoutLogs();
+    }
+
     /**
      * Setup list view
      */
@@ -144,13 +164,15 @@ public class WorkoutPlansController {
     private void loadWorkoutPlans() {
         if (currentUser == null) return;
 
-        plansList.clear();
-        
-        // ✅ FIX: Use database instead of mock data
-        var plans = dbManager.getWorkoutPlans(currentUser.getUserId());
-        plansList.addAll(plans);
-        
-        logger.info("✓ Loaded {} workout plans from database", plans.size());
+        asyncDb.getWorkoutPlans(currentUser.getUserId())
+            .thenAcceptAsync(plans -> {
+                plansList.sync(plans);
+                logger.info("✓ Loaded {} workout plans from database", plans.size());
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading workout plans", ex);
+                return null;
+            });
     }
 
     /**
@@ -226,26 +248,32 @@ public class WorkoutPlansController {
 
         logger.info("ℹ Saving to database...");
 
-        // Save to database
-        boolean success = dbManager.saveWorkoutPlan(newPlan);
+        // Save to database on the writer thread
+        asyncDb.saveWorkoutPlan(newPlan)
+            .thenAcceptAsync(success -> {
+                if (success) {
+                    logger.info("✓ Workout plan saved to database with ID: {}", newPlan.planId);
 
-        if (success) {
-            logger.info("✓ Workout plan saved to database with ID: {}", newPlan.planId);
-            
-            // Add to UI list
-            plansList.add(newPlan);
-            
-            // Show success message
-            showSuccess("Workout plan added successfully!");
-            
-            // Clear form
-            clearForm();
-            
-            logger.info("✓ Workout plan added to UI: {}", planName);
-        } else {
-            showError("Failed to save workout plan. Please try again.");
-            logger.error("✗ Failed to save workout plan to database");
-        }
+                    // Add to UI list
+                    plansList.add(newPlan);
+
+                    // Show success message
+                    showSuccess("Workout plan added successfully!");
+
+                    // Clear form
+                    clearForm();
+
+                    logger.info("✓ Workout plan added to UI: {}", planName);
+                } else {
+                    showError("Failed to save workout plan. Please try again.");
+                    logger.error("✗ Failed to save workout plan to database");
+                }
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error saving workout plan", ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to save workout plan. Please try again."));
+                return null;
+            });
     }
 
     /**
@@ -267,17 +295,23 @@ public class WorkoutPlansController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = dbManager.deleteWorkoutPlan(selectedPlan.planId);
-                
-                if (success) {
-                    plansList.remove(selectedPlan);
-                    planDetailsArea.clear();
-                    showSuccess("Workout plan deleted successfully!");
-                    logger.info("✓ Workout plan deleted from database with ID: {}", selectedPlan.planId);
-                } else {
-                    showError("Failed to delete workout plan. Please try again.");
-                    logger.error("✗ Failed to delete workout plan from database");
-                }
+                asyncDb.deleteWorkoutPlan(selectedPlan.planId)
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            plansList.remove(selectedPlan);
+                            planDetailsArea.clear();
+                            showSuccess("Workout plan deleted successfully!");
+                            logger.info("✓ Workout plan deleted from database with ID: {}", selectedPlan.planId);
+                        } else {
+                            showError("Failed to delete workout plan. Please try again.");
+                            logger.error("✗ Failed to delete workout plan from database");
+                        }
+                    }, FxThreadMonitor.executor())
+                    .exceptionally(ex -> {
+                        logger.error("✗ Error deleting workout plan", ex);
+                        FxThreadMonitor.runLater(() -> showError("Failed to delete workout plan. Please try again."));
+                        return null;
+                    });
             }
         });
     }
@@ -377,6 +411,12 @@ public class WorkoutPlansController {
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
         
         workoutLogTable.setItems(workoutLogList);
+
+        // Newest entries first; older pages load as the user scrolls down
+        int userId = currentUser.getUserId();
+        workoutLogPager = new TablePager<>(workoutLogTable, workoutLogList, PAGE_SIZE, (last, limit) -> last == null
+            ? asyncDb.getWorkoutLogPage(userId, null, 0, limit)
+            : asyncDb.getWorkoutLogPage(userId, last.getDate(), last.getId(), limit));
         
         logger.info("✓ Workout log table configured");
     }
@@ -387,12 +427,7 @@ public class WorkoutPlansController {
     private void loadWorkoutLogs() {
         if (currentUser == null) return;
 
-        workoutLogList.clear();
-        
-        var logs = dbManager.getWorkoutLogs(currentUser.getUserId());
-        workoutLogList.addAll(logs);
-        
-        logger.info("✓ Loaded {} workout logs from database", logs.size());
+        workoutLogPager.reload();
     }
 
     /**
@@ -484,26 +519,32 @@ public class WorkoutPlansController {
 
         logger.info("ℹ Saving to database...");
 
-        // Save to database
-        boolean success = dbManager.saveWorkoutLog(newLog);
+        // Queued by the write-behind buffer (or written now in SYNC mode) on the writer thread
+        asyncDb.bufferWorkoutLog(newLog)
+            .thenAcceptAsync(success -> {
+                if (success) {
+                    logger.info("✓ Workout log accepted ({} mode)", workoutLogBuffer.getDurability());
 
-        if (success) {
-            logger.info("✓ Workout log saved to database with ID: {}", newLog.getId());
-            
-            // Add to UI list
-            workoutLogList.add(newLog);
-            
-            // Show success message
-            showSuccess("Workout logged successfully!");
-            
-            // Clear form
-            handleClear();
-            
-            logger.info("✓ Workout log added to UI: {}", workoutName);
-        } else {
-            showError("Failed to save workout log. Please try again.");
-            logger.error("✗ Failed to save workout log to database");
-        }
+                    // Add to the top of the UI list (newest first, like the loaded pages)
+                    workoutLogList.add(0, newLog);
+
+                    // Show success message
+                    showSuccess("Workout logged successfully!");
+
+                    // Clear form
+                    handleClear();
+
+                    logger.info("✓ Workout log added to UI: {}", workoutName);
+                } else {
+                    showError("Failed to save workout log. Please try again.");
+                    logger.error("✗ Failed to save workout log to database");
+                }
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error saving workout log", ex);
+                FxThreadMonitor.runLater(() -> showError("Failed to save workout log. Please try again."));
+                return null;
+            });
     }
 
     /**
@@ -525,16 +566,22 @@ public class WorkoutPlansController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = dbManager.deleteWorkoutLog(selectedLog.getId());
-                
-                if (success) {
-                    workoutLogList.remove(selectedLog);
-                    showSuccess("Workout log deleted successfully!");
-                    logger.info("✓ Workout log deleted from database with ID: {}", selectedLog.getId());
-                } else {
-                    showError("Failed to delete workout log. Please try again.");
-                    logger.error("✗ Failed to delete workout log from database");
-                }
+                asyncDb.unbufferWorkoutLog(selectedLog)
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            workoutLogList.remove(selectedLog);
+                            showSuccess("Workout log deleted successfully!");
+                            logger.info("✓ Workout log deleted from database with ID: {}", selectedLog.getId());
+                        } else {
+                            showError("Failed to delete workout log. Please try again.");
+                            logger.error("✗ Failed to delete workout log from database");
+                        }
+                    }, FxThreadMonitor.executor())
+                    .exceptionally(ex -> {
+                        logger.error("✗ Error deleting workout log", ex);
+                        FxThreadMonitor.runLater(() -> showError("Failed to delete workout log. Please try again."));
+                        return null;
+                    });
             }
         });
     }
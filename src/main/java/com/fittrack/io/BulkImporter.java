@@ -0,0 +1,314 @@
+package com.fittrack.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.FoodLibrary;
+import com.fittrack.model.PersonalRecords;
+import com.fittrack.model.TimeSeriesStore;
+
+/**
+ * BulkImporter - Loads historical food, weight and workout entries in batches
+ *
+ * Records are streamed from a RecordReader, validated with the same rules as
+ * the entry forms, and inserted with addBatch/executeBatch. Every CHUNK_SIZE
+ * rows are committed as one transaction, and the writer connection is released
+ * between chunks so the app can still write during a long import. Invalid rows
+ * are skipped and counted; a database error rolls back the current chunk and
+ * stops the import (earlier chunks stay committed).
+ *
+ * Expected fields (CSV header or JSON keys):
+ *   food:    food_name, calories, protein, carbs, fats, date
+ *   weight:  weight, date
+ *   workout: workout_name, sets, reps, weight_used, date
+ * Dates are ISO-8601 (yyyy-MM-dd).
+ *
+ * The rows bypass DatabaseManager's save methods, so each run invalidates the
+ * user's TimeSeriesStore, PersonalRecords and (for food) FoodLibrary caches.
+ * Those caches live in the app's JVM: only importAsync() (or an importer built
+ * on the app's DatabaseManager) refreshes them. The command line runs in its
+ * own JVM, so a running app shows CLI-imported history after it is restarted.
+ *
+ * Simple usage:
+ *   BulkImporter.importAsync("food", userId, Path.of("history.csv"))
+ *       .thenAcceptAsync(result -> showSuccess("Imported " + result.imported + " rows"), FxThreadMonitor.executor());
+ *
+ * Command line (app closed):
+ *   mvn exec:java -Dexec.mainClass="com.fittrack.io.BulkImporter" -Dexec.args="food 1 history.csv"
+ */
+public class BulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+
+    // Rows per executeBatch() and per transaction
+    public static final int CHUNK_SIZE = 5000;
+    // Rejected rows kept in ImportResult.errors
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final String FOOD_SQL = "INSERT INTO food_log(user_id, food_name, calories, protein, carbs, fats, date) "
+        + "VALUES(?, ?, ?, ?, ?, ?, ?)";
+    private static final String WEIGHT_SQL = "INSERT INTO weight_history(user_id, weight, date) VALUES(?, ?, ?)";
+    private static final String WORKOUT_SQL = "INSERT INTO workout_log(user_id, exercise_id, workout_name, sets, reps, weight_used, date) "
+        + "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Validates one record and binds it to the insert statement.
+     * Throws IllegalArgumentException with a user-facing message for invalid rows.
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement pstmt, int userId, Map<String, String> record) throws SQLException;
+    }
+
+    private final DatabaseManager dbManager;
+
+    public BulkImporter() {
+        this(new DatabaseManager());
+    }
+
+    public BulkImporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Open a CSV or JSON reader depending on the file extension (.json, .ndjson, .jsonl or CSV)
+     */
+    public static RecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return new JsonRecordReader(reader);
+        }
+        return new CsvRecordReader(reader);
+    }
+
+    /**
+     * Import a CSV or JSON file of one kind ("food", "weight" or "workout")
+     */
+    public ImportResult importFile(String kind, int userId, Path file) throws IOException, SQLException {
+        try (RecordReader records = open(file)) {
+            return switch (kind.toLowerCase(Locale.ROOT)) {
+                case "food" -> importFoodLog(userId, records);
+                case "weight" -> importWeightHistory(userId, records);
+                case "workout" -> importWorkoutLog(userId, records);
+                default -> throw new IllegalArgumentException("Unknown import type: " + kind);
+            };
+        }
+    }
+
+    /**
+     * Import a file from inside the app, on a background thread, with the app's
+     * DatabaseManager so its caches are invalidated. Each chunk takes the writer
+     * connection on its own, so the import does not hold up the writer thread's queue.
+     * @return future with the result; fails with the IOException or SQLException that stopped the import
+     */
+    public static CompletableFuture<ImportResult> importAsync(String kind, int userId, Path file) {
+        return AsyncDatabaseManager.getInstance().read(db -> {
+            try {
+                return new BulkImporter(db).importFile(kind, userId, file);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public ImportResult importFoodLog(int userId, RecordReader records) throws IOException, SQLException {
+        return run("food", userId, records, FOOD_SQL, BulkImporter::bindFood);
+    }
+
+    public ImportResult importWeightHistory(int userId, RecordReader records) throws IOException, SQLException {
+        return run("weight", userId, records, WEIGHT_SQL, BulkImporter::bindWeight);
+    }
+
+    public ImportResult importWorkoutLog(int userId, RecordReader records) throws IOException, SQLException {
+        return run("workout", userId, records, WORKOUT_SQL, BulkImporter::bindWorkout);
+    }
+
+    private ImportResult run(String kind, int userId, RecordReader records, String sql, RowBinder binder)
+            throws IOException, SQLException {
+        dbManager.getSchema(); // tables, migrations and rollup triggers must exist first
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        long recordNumber = 0;
+        List<String> errors = new ArrayList<>();
+
+        Map<String, String> record = records.next();
+        while (record != null) {
+            // One chunk: one writer lease, one transaction, one executeBatch
+            try (Connection conn = dbManager.connect()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    int pending = 0;
+                    while (record != null && pending < CHUNK_SIZE) {
+                        recordNumber++;
+                        try {
+                            binder.bind(pstmt, userId, record);
+                            pstmt.addBatch();
+                            pending++;
+                        } catch (IllegalArgumentException e) {
+                            pstmt.clearParameters();
+                            rejected++;
+                            if (errors.size() < MAX_REPORTED_ERRORS) {
+                                errors.add("Record " + recordNumber + ": " + e.getMessage());
+                            }
+                        }
+                        record = records.next();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                    imported += pending;
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    invalidateCaches(kind, userId); // earlier chunks are committed
+                    logger.error("✗ {} import stopped at record {}: {}", kind, recordNumber, e.getMessage());
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+            logger.debug("{} import: {} rows committed", kind, imported);
+        }
+
+        // Rows went in without DatabaseManager's save methods, so reload the series on next use
+        invalidateCaches(kind, userId);
+
+        ImportResult result = new ImportResult(imported, rejected, (System.nanoTime() - start) / 1_000_000_000.0, errors);
+        logger.info("✓ {} import finished: {}", kind, result);
+        return result;
+    }
+
+    private static void invalidateCaches(String kind, int userId) {
+        TimeSeriesStore.getInstance().invalidate(userId);
+        PersonalRecords.getInstance().invalidate(userId);
+        if ("food".equals(kind)) {
+            FoodLibrary.getInstance().invalidate(userId); // type-ahead ranks by times logged
+        }
+    }
+
+    // ==================== VALIDATION (mirrors the entry forms) ====================
+
+    private static void bindFood(PreparedStatement pstmt, int userId, Map<String, String> record) throws SQLException {
+        String foodName = required(record, "food_name", "Please enter food name");
+        int calories = parseInt(required(record, "calories", "Please enter calories"),
+            "Calories must be a valid positive number");
+        if (calories < 0) throw new IllegalArgumentException("Calories must be a valid positive number");
+
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, foodName);
+        pstmt.setInt(3, calories);
+        pstmt.setDouble(4, parseDoubleOrDefault(record.get("protein")));
+        pstmt.setDouble(5, parseDoubleOrDefault(record.get("carbs")));
+        pstmt.setDouble(6, parseDoubleOrDefault(record.get("fats")));
+        pstmt.setObject(7, parseDate(record));
+    }
+
+    private static void bindWeight(PreparedStatement pstmt, int userId, Map<String, String> record) throws SQLException {
+        double weight = parseDouble(required(record, "weight", "Please enter your weight"), "Weight must be a number");
+        if (weight <= 0 || weight > 500) throw new IllegalArgumentException("Please enter a valid weight");
+
+        pstmt.setInt(1, userId);
+        pstmt.setDouble(2, weight);
+        pstmt.setObject(3, parseDate(record));
+    }
+
+    private static void bindWorkout(PreparedStatement pstmt, int userId, Map<String, String> record) throws SQLException {
+        String workoutName = required(record, "workout_name", "Please enter workout name");
+        int sets = parseInt(required(record, "sets", "Please enter number of sets"), "Sets must be a valid number");
+        if (sets < 1 || sets > 100) throw new IllegalArgumentException("Sets must be between 1 and 100");
+        int reps = parseInt(required(record, "reps", "Please enter number of reps"), "Reps must be a valid number");
+        if (reps < 1 || reps > 1000) throw new IllegalArgumentException("Reps must be between 1 and 1000");
+        double weight = parseDouble(required(record, "weight_used", "Please enter weight used"),
+            "Weight must be a valid number");
+        if (weight < 0 || weight > 1000) throw new IllegalArgumentException("Weight must be between 0 and 1000 kg");
+
+        pstmt.setInt(1, userId);
+        pstmt.setInt(2, 1); // Default exercise_id for compatibility
+        pstmt.setString(3, workoutName);
+        pstmt.setInt(4, sets);
+        pstmt.setInt(5, reps);
+        pstmt.setDouble(6, weight);
+        pstmt.setObject(7, parseDate(record));
+    }
+
+    private static String required(Map<String, String> record, String field, String message) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(message);
+        return value.trim();
+    }
+
+    private static LocalDate parseDate(Map<String, String> record) {
+        String value = required(record, "date", "Please select a date");
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be yyyy-MM-dd");
+        }
+    }
+
+    private static int parseInt(String value, String message) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static double parseDouble(String value, String message) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    // Same rule as FoodLogController: missing, invalid or negative macros count as 0
+    private static double parseDoubleOrDefault(String value) {
+        if (value == null || value.isEmpty()) return 0;
+        try {
+            double val = Double.parseDouble(value);
+            return val >= 0 ? val : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: BulkImporter <food|weight|workout> <userId> <file.csv|file.json>");
+            System.exit(2);
+        }
+        int userId = Integer.parseInt(args[1]);
+        Path file = Path.of(args[2]);
+
+        ImportResult result;
+        try {
+            result = new BulkImporter().importFile(args[0], userId, file);
+        } finally {
+            DatabaseManager.shutdown();
+        }
+
+        System.out.println("Imported " + file + ": " + result);
+        for (String error : result.errors) {
+            System.out.println("   " + error);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.fittrack.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CsvRecordReader - Streaming RFC 4180 CSV reader
+ *
+ * The first row is the header. Fields may be quoted ("a, b"), with "" for a
+ * literal quote and line breaks allowed inside quotes. Empty fields are
+ * treated as missing. Blank lines are skipped.
+ */
+public class CsvRecordReader implements RecordReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private List<String> header;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            List<String> names = readRow();
+            if (names == null) return null;
+            header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) return null;
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        if (row.size() > header.size()) {
+            throw new IOException("Line " + lineNumber + ": " + row.size() + " fields but header has " + header.size());
+        }
+        Map<String, String> record = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < row.size(); i++) {
+            String value = row.get(i).trim();
+            if (!value.isEmpty()) {
+                record.put(header.get(i), value);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Read one row of fields, or null at end of input
+     */
+    private List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("Line " + lineNumber + ": unterminated quoted field");
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
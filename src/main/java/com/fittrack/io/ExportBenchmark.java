@@ -0,0 +1,115 @@
+package com.fittrack.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import com.fittrack.model.ConnectionPool;
+import com.fittrack.model.PerformanceProfile;
+
+/**
+ * Measures HistoryExporter throughput and heap use on a scratch database
+ * Runs against a throw-away database file, never against fittrack.db
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.fittrack.io.ExportBenchmark" [-Dexec.args="rows"]
+ */
+public class ExportBenchmark {
+
+    private static final int USER_ID = 1;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+        System.out.println("==============================================");
+        System.out.println("   FitTrack Export Benchmark (" + rows + " food rows)");
+        System.out.println("==============================================\n");
+
+        Path dir = Files.createTempDirectory("fittrack-export-bench");
+        PerformanceProfile profile = PerformanceProfile.tuned();
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("bench.db"), 1,
+            profile.writerPragmas(), profile.readerPragmas());
+        try {
+            populate(pool, rows);
+
+            for (HistoryExporter.Format format : HistoryExporter.Format.values()) {
+                for (boolean gzip : new boolean[] {false, true}) {
+                    Path out = dir.resolve(format + (gzip ? "-gz" : ""));
+                    long heapBefore = usedHeapAfterGc();
+                    long start = System.nanoTime();
+                    long exported;
+                    try (Connection conn = pool.acquireReader()) {
+                        exported = HistoryExporter.export(conn, USER_ID, out, format, gzip);
+                    }
+                    double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1_000_000_000.0);
+                    long bytes = directorySize(out);
+
+                    System.out.printf("%-7s %-5s %,10.0f rows/s   %7.1f MB/s   %8.1f MB   heap delta %+.1f MB%n",
+                        format, gzip ? "gzip" : "plain", exported / seconds, bytes / seconds / 1e6,
+                        bytes / 1e6, (usedHeapAfterGc() - heapBefore) / 1e6);
+                }
+            }
+        } finally {
+            pool.close();
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void populate(ConnectionPool pool, int rows) throws SQLException {
+        try (Connection conn = pool.acquireWriter(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE food_log (food_log_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "user_id INTEGER NOT NULL, food_name TEXT NOT NULL, calories INTEGER NOT NULL, "
+                + "protein REAL, carbs REAL, fats REAL, date DATE NOT NULL)");
+            stmt.execute("CREATE TABLE workout_log (log_id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, "
+                + "workout_name TEXT, sets INTEGER, reps INTEGER, weight_used REAL, date DATE NOT NULL)");
+            stmt.execute("CREATE TABLE weight_history (history_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "user_id INTEGER NOT NULL, weight REAL NOT NULL, date DATE NOT NULL)");
+            stmt.execute("CREATE TABLE goals (goal_id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, "
+                + "goal_type TEXT, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE INDEX idx_food_log_user_date ON food_log(user_id, date)");
+
+            conn.setAutoCommit(false);
+            String sql = "INSERT INTO food_log(user_id, food_name, calories, protein, carbs, fats, date) VALUES(?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < rows; i++) {
+                    pstmt.setInt(1, USER_ID);
+                    pstmt.setString(2, i % 10 == 0 ? "Rice, \"white\"" : "Food " + i);
+                    pstmt.setInt(3, 100 + i % 700);
+                    pstmt.setDouble(4, i % 30);
+                    pstmt.setDouble(5, i % 50);
+                    pstmt.setDouble(6, i % 20);
+                    pstmt.setObject(7, LocalDate.of(2015, 1, 1).plusDays(i / 20));
+                    pstmt.addBatch();
+                    if (i % 10_000 == 9_999) pstmt.executeBatch();
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            long total = 0;
+            for (Path file : files.toList()) total += Files.size(file);
+            return total;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.fittrack.io;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.model.DatabaseManager;
+
+/**
+ * HistoryExporter - Streams a user's full history to CSV or NDJSON files
+ *
+ * Each table is read with a forward-only cursor and every row is written
+ * straight to a buffered FileChannel (optionally gzipped) before the next one
+ * is fetched, so heap use does not grow with the number of rows. All tables are
+ * read inside one read transaction, so the files form a consistent snapshot.
+ * Output is one file per table: food_log.csv, workout_log.csv, ... (.gz if gzipped).
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.fittrack.io.HistoryExporter" -Dexec.args="1 export-dir ndjson gzip"
+ */
+public class HistoryExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryExporter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FETCH_SIZE = 1000;
+
+    public enum Format {
+        CSV("csv"), NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    // Table and the per-user query that walks it in index order
+    private static final String[][] TABLES = {
+        {"food_log", "SELECT * FROM food_log WHERE user_id = ? ORDER BY date, food_log_id"},
+        {"workout_log", "SELECT * FROM workout_log WHERE user_id = ? ORDER BY date, log_id"},
+        {"weight_history", "SELECT * FROM weight_history WHERE user_id = ? ORDER BY date, history_id"},
+        {"goals", "SELECT * FROM goals WHERE user_id = ? ORDER BY created_at, goal_id"}
+    };
+
+    private final DatabaseManager dbManager;
+
+    public HistoryExporter() {
+        this(new DatabaseManager());
+    }
+
+    public HistoryExporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Export every history table for a user into a directory
+     * @return total rows written
+     */
+    public long export(int userId, Path directory, Format format, boolean gzip) throws IOException, SQLException {
+        dbManager.getSchema();
+        try (Connection conn = dbManager.connectReadOnly()) {
+            return export(conn, userId, directory, format, gzip);
+        }
+    }
+
+    /**
+     * Export using the given connection (lets the benchmark run against a scratch database)
+     * @return total rows written
+     */
+    public static long export(Connection conn, int userId, Path directory, Format format, boolean gzip)
+            throws IOException, SQLException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        long total = 0;
+        List<String> summary = new ArrayList<>();
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false); // one snapshot for all tables
+        try {
+            for (String[] table : TABLES) {
+                Path file = directory.resolve(table[0] + "." + format.extension + (gzip ? ".gz" : ""));
+                long rows = exportTable(conn, table[1], userId, file, format, gzip);
+                total += rows;
+                summary.add(table[0] + "=" + rows);
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        logger.info("✓ Exported {} rows for user ID {} to {} in {} s ({})", total, userId, directory,
+            String.format("%.2f", seconds), String.join(", ", summary));
+        return total;
+    }
+
+    private static long exportTable(Connection conn, String sql, int userId, Path file, Format format, boolean gzip)
+            throws IOException, SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery(); Writer out = openWriter(file, gzip)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                String[] names = new String[columns];
+                for (int i = 0; i < columns; i++) {
+                    names[i] = meta.getColumnLabel(i + 1);
+                }
+
+                if (format == Format.CSV) {
+                    for (int i = 0; i < columns; i++) {
+                        if (i > 0) out.write(',');
+                        writeCsvField(out, names[i]);
+                    }
+                    out.write('\n');
+                }
+
+                long rows = 0;
+                while (rs.next()) {
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, rs, columns);
+                    } else {
+                        writeJsonRow(out, rs, names);
+                    }
+                    rows++;
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Buffered writer over a FileChannel, with an optional gzip stage
+     */
+    private static Writer openWriter(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void writeCsvRow(Writer out, ResultSet rs, int columns) throws IOException, SQLException {
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) out.write(',');
+            String value = rs.getString(i);
+            if (value != null) writeCsvField(out, value);
+        }
+        out.write('\n');
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static void writeJsonRow(Writer out, ResultSet rs, String[] names) throws IOException, SQLException {
+        out.write('{');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) out.write(',');
+            writeJsonString(out, names[i]);
+            out.write(':');
+            Object value = rs.getObject(i + 1);
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(value.toString());
+            } else {
+                writeJsonString(out, value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: HistoryExporter <userId> <directory> [csv|ndjson] [gzip]");
+            System.exit(2);
+        }
+        int userId = Integer.parseInt(args[0]);
+        Path directory = Path.of(args[1]);
+        Format format = args.length > 2 ? Format.valueOf(args[2].toUpperCase(Locale.ROOT)) : Format.CSV;
+        boolean gzip = args.length > 3 && args[3].equalsIgnoreCase("gzip");
+
+        try {
+            long rows = new HistoryExporter().export(userId, directory, format, gzip);
+            System.out.println("Exported " + rows + " rows to " + directory);
+        } finally {
+            DatabaseManager.shutdown();
+        }
+    }
+}
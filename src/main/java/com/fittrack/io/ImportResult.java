@@ -0,0 +1,34 @@
+package com.fittrack.io;
+
+import java.util.List;
+
+/**
+ * ImportResult - Outcome of one bulk import run
+ */
+public class ImportResult {
+    public final long imported;
+    public final long rejected;
+    public final double seconds;
+    // First few rejected rows, e.g. "Record 12: Calories must be a valid positive number"
+    public final List<String> errors;
+
+    ImportResult(long imported, long rejected, double seconds, List<String> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.seconds = seconds;
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * Imported rows per second of wall-clock time
+     */
+    public double rowsPerSecond() {
+        return seconds > 0 ? imported / seconds : imported;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("imported=%,d, rejected=%,d, %.2f s, %,.0f rows/s",
+            imported, rejected, seconds, rowsPerSecond());
+    }
+}
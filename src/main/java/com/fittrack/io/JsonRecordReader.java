@@ -0,0 +1,179 @@
+package com.fittrack.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JsonRecordReader - Streaming reader for JSON arrays of flat objects, or NDJSON
+ *
+ * Accepts either [ {...}, {...} ] or one object per line. Each object must be
+ * flat: string, number, boolean or null values only. Numbers and booleans are
+ * returned as their JSON text; null values are treated as missing.
+ * Objects are parsed one at a time, so the file is never loaded whole.
+ */
+public class JsonRecordReader implements RecordReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int peeked = -2;
+    private long lineNumber = 1;
+    private boolean insideArray;
+    private boolean finished;
+
+    public JsonRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (finished) return null;
+
+        int c = skipWhitespace();
+        if (c == '[' && !insideArray) {
+            insideArray = true;
+            read();
+            c = skipWhitespace();
+        }
+        if (c == ',') {
+            read();
+            c = skipWhitespace();
+        }
+        if (c == ']' && insideArray) {
+            read();
+            finished = true;
+            if (skipWhitespace() != -1) throw error("unexpected content after ']'");
+            return null;
+        }
+        if (c == -1) {
+            if (insideArray) throw error("unterminated array");
+            finished = true;
+            return null;
+        }
+        if (c != '{') throw error("expected '{' but found '" + (char) c + "'");
+        return readObject();
+    }
+
+    private Map<String, String> readObject() throws IOException {
+        read(); // '{'
+        Map<String, String> record = new HashMap<>();
+        int c = skipWhitespace();
+        if (c == '}') {
+            read();
+            return record;
+        }
+        while (true) {
+            if (skipWhitespace() != '"') throw error("expected field name");
+            String name = readString().toLowerCase(Locale.ROOT);
+            if (skipWhitespace() != ':') throw error("expected ':' after \"" + name + "\"");
+            read();
+            String value = readValue();
+            if (value != null) {
+                record.put(name, value);
+            }
+
+            c = skipWhitespace();
+            read();
+            if (c == '}') return record;
+            if (c != ',') throw error("expected ',' or '}' in object");
+        }
+    }
+
+    private String readValue() throws IOException {
+        int c = skipWhitespace();
+        if (c == '"') return readString();
+        if (c == '{' || c == '[') throw error("nested objects and arrays are not supported");
+
+        StringBuilder literal = new StringBuilder();
+        while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            literal.append((char) read());
+            c = peek();
+        }
+        String text = literal.toString();
+        if (text.isEmpty()) throw error("expected a value");
+        return text.equals("null") ? null : text;
+    }
+
+    private String readString() throws IOException {
+        read(); // opening quote
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n') throw error("unterminated string");
+            if (c == '"') return value.toString();
+            if (c != '\\') {
+                value.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append((char) escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) throw error("invalid \\u escape");
+                        code = code * 16 + digit;
+                    }
+                    value.append((char) code);
+                }
+                default -> throw error("invalid escape");
+            }
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c != -1 && Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = readRaw();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c == '\n') lineNumber++;
+        return c;
+    }
+
+    private int readRaw() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,20 @@
+package com.fittrack.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * RecordReader - Streams flat records (field name to text value) from an import file
+ * Implementations parse incrementally, so only one record is held in memory at a time.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Read the next record
+     * @return field values keyed by lower-case field name (missing/null values are absent),
+     *         or null at end of input
+     * @throws IOException if the input is malformed or cannot be read
+     */
+    Map<String, String> next() throws IOException;
+}
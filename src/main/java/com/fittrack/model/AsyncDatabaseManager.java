@@ -0,0 +1,319 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AsyncDatabaseManager - CompletableFuture facade over DatabaseManager
+ *
+ * Reads run on virtual threads (the connection pool bounds how many hit SQLite
+ * at once); writes run one at a time on a single writer thread, in submission
+ * order. Password hashing runs on a small bounded pool so a burst of login
+ * attempts cannot pile up unbounded CPU work; when that pool is saturated the
+ * returned future fails with RejectedExecutionException.
+ * Futures complete on those background threads, so UI code should
+ * continue with thenAcceptAsync(..., FxThreadMonitor.executor()).
+ *
+ * Simple usage:
+ *   AsyncDatabaseManager.getInstance().getFoodLog(userId, LocalDate.now())
+ *       .thenAcceptAsync(foodLogList::setAll, FxThreadMonitor.executor());
+ */
+public class AsyncDatabaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDatabaseManager.class);
+    private static AsyncDatabaseManager instance;
+
+    private final DatabaseManager dbManager;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService authExecutor;
+
+    // BCrypt is CPU-bound: at most this many hashes run at once, with a short queue behind them
+    private static final int AUTH_THREADS = 2;
+    private static final int AUTH_QUEUE_CAPACITY = 8;
+
+    private AsyncDatabaseManager(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        this.readExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fittrack-db-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger authThreadCount = new AtomicInteger();
+        ThreadPoolExecutor authPool = new ThreadPoolExecutor(AUTH_THREADS, AUTH_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(AUTH_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "fittrack-auth-" + authThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        authPool.allowCoreThreadTimeOut(true);
+        this.authExecutor = authPool;
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized AsyncDatabaseManager getInstance() {
+        if (instance == null) {
+            instance = new AsyncDatabaseManager(new DatabaseManager());
+        }
+        return instance;
+    }
+
+    /**
+     * Run any read-only DatabaseManager call on a virtual thread
+     */
+    public <T> CompletableFuture<T> read(Function<DatabaseManager, T> query) {
+        return CompletableFuture.supplyAsync(() -> query.apply(dbManager), readExecutor);
+    }
+
+    /**
+     * Run any DatabaseManager call that writes on the serialized writer thread
+     */
+    public <T> CompletableFuture<T> write(Function<DatabaseManager, T> update) {
+        return CompletableFuture.supplyAsync(() -> update.apply(dbManager), writeExecutor);
+    }
+
+    // ==================== AUTHENTICATION ====================
+
+    /**
+     * Check credentials on the bounded auth pool (BCrypt verify, plus rehash if the cost was raised)
+     * @return future with the User, or null for invalid credentials
+     */
+    public CompletableFuture<User> login(String username, String password) {
+        return onAuthPool(() -> dbManager.login(username, password));
+    }
+
+    /**
+     * Hash the password on the auth pool, then insert the user on the writer thread
+     */
+    public CompletableFuture<Boolean> register(User user, String password) {
+        return onAuthPool(() -> PasswordHasher.hash(password))
+            .thenApplyAsync(hash -> dbManager.registerWithHash(user, hash), writeExecutor);
+    }
+
+    /**
+     * Calibrate the BCrypt cost for this host on the auth pool
+     * @return future with the chosen log-rounds
+     */
+    public CompletableFuture<Integer> calibratePasswordHashing(long targetMillis) {
+        return onAuthPool(() -> PasswordHasher.calibrate(targetMillis));
+    }
+
+    /**
+     * Queue work on the auth pool; when its queue is full the future fails with
+     * RejectedExecutionException instead of the call throwing
+     */
+    private <T> CompletableFuture<T> onAuthPool(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, authExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // ==================== READS ====================
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return read(db -> db.getUserById(userId));
+    }
+
+    public CompletableFuture<List<Goal>> getGoals(int userId) {
+        return read(db -> db.getGoals(userId));
+    }
+
+    public CompletableFuture<List<WorkoutLog>> getWorkoutLogs(int userId) {
+        return read(db -> db.getWorkoutLogs(userId));
+    }
+
+    public CompletableFuture<List<WorkoutLog>> getWorkoutLogs(int userId, LocalDate date) {
+        return read(db -> db.getWorkoutLogs(userId, date));
+    }
+
+    public CompletableFuture<List<WorkoutLog>> getWorkoutLogPage(int userId, LocalDate beforeDate, int beforeId, int limit) {
+        return read(db -> db.getWorkoutLogPage(userId, beforeDate, beforeId, limit));
+    }
+
+    public CompletableFuture<List<WorkoutPlan>> getWorkoutPlans(int userId) {
+        return read(db -> db.getWorkoutPlans(userId));
+    }
+
+    public CompletableFuture<List<WeightHistory>> getWeightHistory(int userId) {
+        return read(db -> db.getWeightHistory(userId));
+    }
+
+    public CompletableFuture<List<FoodLog>> getFoodLog(int userId, LocalDate date) {
+        return read(db -> db.getFoodLog(userId, date));
+    }
+
+    public CompletableFuture<List<FoodLog>> getFoodLogPage(int userId, LocalDate beforeDate, int beforeId, int limit) {
+        return read(db -> db.getFoodLogPage(userId, beforeDate, beforeId, limit));
+    }
+
+    public CompletableFuture<DailyNutrition> getDailyNutrition(int userId, LocalDate date) {
+        return read(db -> db.getDailyNutrition(userId, date));
+    }
+
+    public CompletableFuture<List<DailyNutrition>> getDailyNutrition(int userId, LocalDate from, LocalDate to) {
+        return read(db -> db.getDailyNutrition(userId, from, to));
+    }
+
+    public CompletableFuture<List<DailySummary>> getDailySummaries(int userId, LocalDate from, LocalDate to) {
+        return read(db -> db.getDailySummaries(userId, from, to));
+    }
+
+    // Loaded from the database on first use, then served from memory (see TimeSeriesStore)
+    public CompletableFuture<DaySeries> getWeightSeries(int userId) {
+        return read(db -> TimeSeriesStore.getInstance().getWeights(userId));
+    }
+
+    public CompletableFuture<DaySeries> getFoodSeries(int userId) {
+        return read(db -> TimeSeriesStore.getInstance().getFood(userId));
+    }
+
+    public CompletableFuture<DaySeries> getWorkoutSeries(int userId) {
+        return read(db -> TimeSeriesStore.getInstance().getWorkouts(userId));
+    }
+
+    public CompletableFuture<NutritionIndex> getNutritionIndex(int userId) {
+        return read(db -> TimeSeriesStore.getInstance().getNutritionIndex(userId));
+    }
+
+    public CompletableFuture<TrainingLoad> getTrainingLoad(int userId) {
+        return read(db -> TimeSeriesStore.getInstance().getTrainingLoad(userId));
+    }
+
+    public CompletableFuture<List<PersonalRecords.Exercise>> getPersonalRecords(int userId) {
+        return read(db -> PersonalRecords.getInstance().getAll(userId));
+    }
+
+    /**
+     * Load the user's type-ahead warm set (see FoodLibrary) so keystrokes never wait for it
+     */
+    public CompletableFuture<Void> warmFoodLibrary(int userId) {
+        return read(db -> {
+            FoodLibrary.getInstance().warm(userId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<FoodItem>> searchFoodLibrary(int userId, String query, int limit) {
+        return read(db -> db.searchFoodLibrary(userId, query, limit));
+    }
+
+    /**
+     * Check that the database can be opened (e.g. before a screen shows its data)
+     */
+    public CompletableFuture<Boolean> testConnection() {
+        return read(DatabaseManager::testConnection);
+    }
+
+    // ==================== WRITES ====================
+
+    public CompletableFuture<Boolean> updateUserProfile(User user) {
+        return write(db -> db.updateUserProfile(user));
+    }
+
+    public CompletableFuture<Boolean> saveGoal(Goal goal) {
+        return write(db -> db.saveGoal(goal));
+    }
+
+    public CompletableFuture<Boolean> deleteGoal(int goalId) {
+        return write(db -> db.deleteGoal(goalId));
+    }
+
+    public CompletableFuture<Boolean> saveWorkoutPlan(WorkoutPlan plan) {
+        return write(db -> db.saveWorkoutPlan(plan));
+    }
+
+    public CompletableFuture<Boolean> deleteWorkoutPlan(int planId) {
+        return write(db -> db.deleteWorkoutPlan(planId));
+    }
+
+    public CompletableFuture<Boolean> saveWorkoutLog(WorkoutLog log) {
+        return write(db -> db.saveWorkoutLog(log));
+    }
+
+    public CompletableFuture<Boolean> deleteWorkoutLog(int logId) {
+        return write(db -> db.deleteWorkoutLog(logId));
+    }
+
+    public CompletableFuture<Boolean> saveWeightHistory(WeightHistory entry) {
+        return write(db -> db.saveWeightHistory(entry));
+    }
+
+    public CompletableFuture<Boolean> deleteWeightHistory(int historyId) {
+        return write(db -> db.deleteWeightHistory(historyId));
+    }
+
+    public CompletableFuture<Boolean> saveFoodLog(FoodLog log) {
+        return write(db -> db.saveFoodLog(log));
+    }
+
+    public CompletableFuture<Boolean> deleteFoodLog(int foodLogId) {
+        return write(db -> db.deleteFoodLog(foodLogId));
+    }
+
+    public CompletableFuture<Boolean> saveFoodItem(FoodItem item) {
+        return write(db -> db.saveFoodItem(item));
+    }
+
+    /**
+     * Hand a workout set to WorkoutLogBuffer on the writer thread
+     * (SYNC mode commits it there; BUFFERED mode only queues it)
+     */
+    public CompletableFuture<Boolean> bufferWorkoutLog(WorkoutLog log) {
+        return write(db -> WorkoutLogBuffer.getInstance().add(log));
+    }
+
+    /**
+     * Delete a workout set through WorkoutLogBuffer on the writer thread, so a
+     * set still queued or mid-flush never blocks the caller
+     */
+    public CompletableFuture<Boolean> unbufferWorkoutLog(WorkoutLog log) {
+        return write(db -> WorkoutLogBuffer.getInstance().delete(log));
+    }
+
+    /**
+     * Write the workout sets WorkoutLogBuffer still holds, behind any queued writes
+     * @return future with the number of sets written
+     */
+    public CompletableFuture<Integer> flushWorkoutLogs() {
+        return write(db -> WorkoutLogBuffer.getInstance().flush());
+    }
+
+    public CompletableFuture<Integer> rebuildDailySummary() {
+        return write(DatabaseManager::rebuildDailySummary);
+    }
+
+    /**
+     * Stop accepting work and wait briefly for queued writes to finish
+     */
+    public void shutdown() {
+        authExecutor.shutdownNow();
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+        try {
+            if (!writeExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("⚠ Pending database writes did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
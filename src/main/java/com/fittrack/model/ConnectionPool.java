@@ -0,0 +1,338 @@
+package com.fittrack.model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ConnectionPool - Bounded pool of long-lived SQLite connections
+ *
+ * SQLite allows only one writer at a time, so the pool keeps a single writer
+ * connection plus up to N reader connections. Physical connections are opened
+ * lazily, configured once, and handed out as leases: calling close() on a lease
+ * returns the connection to the pool instead of closing it.
+ *
+ * The writer is reentrant per thread, so a method that already holds the writer
+ * (e.g. inside a transaction) can call other DAO methods without deadlocking.
+ * Reads issued by the thread that holds the writer are routed to the writer so
+ * they see its uncommitted changes.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final long ACQUIRE_TIMEOUT_MS = 30_000;
+
+    private final String url;
+    private final int maxReaders;
+    private final List<String> writerPragmas;
+    private final List<String> readerPragmas;
+
+    // Writer: one physical connection guarded by a fair, reentrant lock
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private Connection writer;
+
+    // Readers: opened on demand up to maxReaders, parked in idleReaders between leases
+    private final BlockingQueue<Connection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+
+    // Metrics
+    private final AtomicInteger activeLeases = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param url JDBC URL of the database
+     * @param maxReaders maximum number of reader connections
+     * @param writerPragmas PRAGMA statements run once on the writer connection
+     * @param readerPragmas PRAGMA statements run once on each reader connection
+     */
+    public ConnectionPool(String url, int maxReaders, List<String> writerPragmas, List<String> readerPragmas) {
+        if (maxReaders < 1) throw new IllegalArgumentException("maxReaders must be at least 1");
+        this.url = url;
+        this.maxReaders = maxReaders;
+        this.writerPragmas = List.copyOf(writerPragmas);
+        this.readerPragmas = List.copyOf(readerPragmas);
+        this.idleReaders = new ArrayBlockingQueue<>(maxReaders);
+    }
+
+    /**
+     * Lease the writer connection, waiting if another thread holds it.
+     * @return a lease that must be closed by the same thread
+     * @throws SQLException if the connection cannot be opened or the wait times out
+     */
+    public Connection acquireWriter() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+
+        try {
+            if (writer == null || writer.isClosed()) {
+                writer = open(writerPragmas);
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+
+        recordWait(start);
+        return lease(writer, true);
+    }
+
+    /**
+     * Lease a reader connection, opening a new one if the pool is not full.
+     * If the calling thread already holds the writer, the writer is returned instead.
+     * @return a lease that must be closed when the caller is done
+     * @throws SQLException if the connection cannot be opened or the wait times out
+     */
+    public Connection acquireReader() throws SQLException {
+        if (writerLock.isHeldByCurrentThread()) {
+            return acquireWriter();
+        }
+        ensureOpen();
+        long start = System.nanoTime();
+
+        Connection conn = idleReaders.poll();
+        if (conn == null && reserveReaderSlot()) {
+            try {
+                conn = open(readerPragmas);
+            } catch (SQLException e) {
+                openReaders.decrementAndGet();
+                throw e;
+            }
+        }
+        if (conn == null) {
+            try {
+                conn = idleReaders.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection", e);
+            }
+            if (conn == null) {
+                throw new SQLTimeoutException("Timed out waiting for a reader connection");
+            }
+        }
+
+        recordWait(start);
+        return lease(conn, false);
+    }
+
+    /**
+     * Close every physical connection. Leases still in use are closed when returned.
+     */
+    public void close() {
+        closed = true;
+        List<Connection> readers = new ArrayList<>();
+        idleReaders.drainTo(readers);
+        readers.forEach(this::closeQuietly);
+
+        try {
+            if (writerLock.tryLock(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                try {
+                    if (writer != null) {
+                        closeQuietly(writer);
+                        writer = null;
+                    }
+                } finally {
+                    writerLock.unlock();
+                }
+            } else {
+                logger.warn("⚠ Writer connection still in use, not closed on shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("✓ Connection pool closed ({})", getStats());
+    }
+
+    /**
+     * Get a snapshot of the pool metrics
+     */
+    public Stats getStats() {
+        long count = acquisitions.get();
+        double avgWaitMs = count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000.0;
+        return new Stats(
+            activeLeases.get(),
+            idleReaders.size(),
+            openReaders.get(),
+            count,
+            avgWaitMs,
+            maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    // ==================== INTERNALS ====================
+
+    private Connection open(List<String> pragmas) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        logger.info("✓ Database connection opened: {}", url);
+        return conn;
+    }
+
+    private boolean reserveReaderSlot() {
+        while (true) {
+            int current = openReaders.get();
+            if (current >= maxReaders) return false;
+            if (openReaders.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    private Connection lease(Connection physical, boolean writerLease) {
+        activeLeases.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        release(physical, writerLease);
+                    }
+                    return null;
+                case "isClosed":
+                    if (released.get()) return true;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (writerLease ? "writer" : "reader") + "]";
+                default:
+                    if (released.get()) {
+                        throw new SQLException("Connection lease has already been returned to the pool");
+                    }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    private void release(Connection physical, boolean writerLease) {
+        activeLeases.decrementAndGet();
+        if (writerLease) {
+            try {
+                // Only the outermost lease resets state; nested leases share the transaction
+                if (writerLock.getHoldCount() == 1 && !resetState(physical)) {
+                    writer = null;
+                }
+            } finally {
+                writerLock.unlock();
+            }
+            return;
+        }
+
+        if (closed || !resetState(physical)) {
+            closeQuietly(physical);
+            openReaders.decrementAndGet();
+        } else {
+            idleReaders.offer(physical);
+        }
+    }
+
+    /**
+     * Roll back anything left open and restore auto-commit.
+     * @return false if the connection is broken and should be discarded
+     */
+    private boolean resetState(Connection conn) {
+        try {
+            if (conn.isClosed()) return false;
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                logger.warn("⚠ Connection returned with an open transaction, rolled back");
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.error("✗ Discarding broken connection: {}", e.getMessage(), e);
+            closeQuietly(conn);
+            return false;
+        }
+    }
+
+    private void recordWait(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+    }
+
+    private void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.warn("⚠ Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stats - Point-in-time snapshot of pool metrics
+     */
+    public static class Stats {
+        public final int activeLeases;
+        public final int idleReaders;
+        public final int openReaders;
+        public final long acquisitions;
+        public final double avgWaitMillis;
+        public final double maxWaitMillis;
+
+        Stats(int activeLeases, int idleReaders, int openReaders, long acquisitions,
+              double avgWaitMillis, double maxWaitMillis) {
+            this.activeLeases = activeLeases;
+            this.idleReaders = idleReaders;
+            this.openReaders = openReaders;
+            this.acquisitions = acquisitions;
+            this.avgWaitMillis = avgWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, readers=%d, acquisitions=%d, avgWait=%.3f ms, maxWait=%.3f ms",
+                activeLeases, idleReaders, openReaders, acquisitions, avgWaitMillis, maxWaitMillis);
+        }
+    }
+}
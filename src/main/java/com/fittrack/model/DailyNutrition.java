@@ -0,0 +1,64 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * DailyNutrition - Calorie and macro totals for one user on one day
+ * Computed by SQL aggregation over food_log, never persisted directly
+ */
+public class DailyNutrition {
+    private final LocalDate date;
+    private final int calories;
+    private final double protein;
+    private final double carbs;
+    private final double fats;
+    private final int entries;
+
+    public DailyNutrition(LocalDate date, int calories, double protein, double carbs, double fats, int entries) {
+        this.date = date;
+        this.calories = calories;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.fats = fats;
+        this.entries = entries;
+    }
+
+    /**
+     * Totals for a day with nothing logged
+     */
+    public static DailyNutrition empty(LocalDate date) {
+        return new DailyNutrition(date, 0, 0, 0, 0, 0);
+    }
+
+    public LocalDate getDate() { return date; }
+    public int getCalories() { return calories; }
+    public double getProtein() { return protein; }
+    public double getCarbs() { return carbs; }
+    public double getFats() { return fats; }
+    public int getEntries() { return entries; }
+
+    @Override
+    public String toString() {
+        return "DailyNutrition{date=" + date + ", calories=" + calories + ", protein=" + protein +
+               ", carbs=" + carbs + ", fats=" + fats + ", entries=" + entries + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyNutrition)) return false;
+        DailyNutrition that = (DailyNutrition) o;
+        return calories == that.calories &&
+               entries == that.entries &&
+               Double.compare(that.protein, protein) == 0 &&
+               Double.compare(that.carbs, carbs) == 0 &&
+               Double.compare(that.fats, fats) == 0 &&
+               Objects.equals(date, that.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, calories, protein, carbs, fats, entries);
+    }
+}
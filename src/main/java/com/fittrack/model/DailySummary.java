@@ -0,0 +1,40 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+
+/**
+ * DailySummary - One row of the daily_summary rollup
+ * Nutrition and training totals for one user on one day, kept up to date by
+ * triggers on food_log and workout_log (see SchemaMigrator migration 4)
+ */
+public class DailySummary {
+    private final int userId;
+    private final LocalDate date;
+    private final DailyNutrition nutrition;
+    private final int sets;
+    private final double volumeKg;
+    private final int workoutEntries;
+
+    public DailySummary(int userId, LocalDate date, DailyNutrition nutrition, int sets, double volumeKg, int workoutEntries) {
+        this.userId = userId;
+        this.date = date;
+        this.nutrition = nutrition;
+        this.sets = sets;
+        this.volumeKg = volumeKg;
+        this.workoutEntries = workoutEntries;
+    }
+
+    public int getUserId() { return userId; }
+    public LocalDate getDate() { return date; }
+    public DailyNutrition getNutrition() { return nutrition; }
+    public int getSets() { return sets; }
+    /** Training volume: sum of sets x reps x weight_used */
+    public double getVolumeKg() { return volumeKg; }
+    public int getWorkoutEntries() { return workoutEntries; }
+
+    @Override
+    public String toString() {
+        return "DailySummary{userId=" + userId + ", date=" + date + ", calories=" + nutrition.getCalories() +
+               ", sets=" + sets + ", volumeKg=" + volumeKg + ", workoutEntries=" + workoutEntries + '}';
+    }
+}
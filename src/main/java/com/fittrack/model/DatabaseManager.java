@@ -7,8 +7,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.List;
 
-import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,16 +29,46 @@ public class DatabaseManager {
         }
     }
     
+    // Reader connections in the pool (the single writer is always separate)
+    private static final int READER_POOL_SIZE = 4;
+
+    // PRAGMAs applied once when a physical connection is opened (see PerformanceProfile)
+    private static final PerformanceProfile profile = PerformanceProfile.fromSystemProperty();
+
+    // Shared by every DatabaseManager instance so controllers reuse warm connections
+    private static final ConnectionPool pool =
+        new ConnectionPool(DB_URL, READER_POOL_SIZE, profile.writerPragmas(), profile.readerPragmas());
+
+    private static final WalCheckpointer checkpointer =
+        new WalCheckpointer(pool, profile.isWal() ? profile.checkpointIntervalSeconds : 0);
+
+    // Schema snapshot taken after migrations; consulted instead of PRAGMA probes
+    private static volatile SchemaInfo schema;
+
+    // Cache notifications waiting for the inTransaction() running on this thread to commit
+    private static final ThreadLocal<java.util.List<Runnable>> pendingNotifications = new ThreadLocal<>();
+    
     /**
-     * Establishes a connection to the SQLite database.
+     * Leases the pooled writer connection to the SQLite database.
      * Database file is stored in the project folder: fittrack.db
+     * Closing the returned connection hands it back to the pool.
      */
     public Connection connect() {
         try {
-            // Connect to SQLite database in project folder
-            Connection conn = DriverManager.getConnection(DB_URL);
-            logger.info("✓ Database connected: {}", DB_FILE);
-            return conn;
+            return pool.acquireWriter();
+        } catch (SQLException e) {
+            logger.error("✗ Database connection failed: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Leases a pooled read-only connection for queries.
+     * Closing the returned connection hands it back to the pool.
+     */
+    public Connection connectReadOnly() {
+        try {
+            return pool.acquireReader();
         } catch (SQLException e) {
             logger.error("✗ Database connection failed: {}", e.getMessage(), e);
             return null;
@@ -46,7 +76,98 @@ public class DatabaseManager {
     }
 
     /**
-     * Creates all necessary tables if they do not already exist.
+     * Get the SQLite performance profile in use
+     */
+    public PerformanceProfile getPerformanceProfile() {
+        return profile;
+    }
+
+    /**
+     * Get connection pool metrics (wait time, active/idle connections)
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Runs several writes as ONE transaction (one commit instead of one per row).
+     * DAO methods called by work on this thread share the transaction, because the
+     * writer connection is reentrant. Their cache notifications (TimeSeriesStore,
+     * PersonalRecords, FoodLibrary) are held back and delivered only after the commit,
+     * so no cache sees a row that is later rolled back. If work returns false or
+     * throws, every write is rolled back and the user's cached data is dropped as a
+     * precaution. Called inside another transaction, work joins it and the outer
+     * caller decides whether to commit.
+     * @param userId user whose cached data the writes touch
+     * @param work the writes; returns false to roll back
+     * @return true if work succeeded and was committed
+     */
+    public boolean inTransaction(int userId, java.util.function.BooleanSupplier work) {
+        try (Connection conn = connect()) {
+            if (conn == null) return false;
+            if (!conn.getAutoCommit()) {
+                return work.getAsBoolean();
+            }
+
+            conn.setAutoCommit(false);
+            java.util.List<Runnable> notifications = new java.util.ArrayList<>();
+            pendingNotifications.set(notifications);
+            boolean committed = false;
+            try {
+                if (work.getAsBoolean()) {
+                    conn.commit();
+                    committed = true;
+                }
+            } catch (RuntimeException e) {
+                logger.error("✗ Transaction failed: {}", e.getMessage(), e);
+            } finally {
+                pendingNotifications.remove();
+                if (!committed) {
+                    conn.rollback();
+                    invalidateCaches(userId);
+                    logger.warn("⚠ Transaction rolled back");
+                }
+                conn.setAutoCommit(true);
+            }
+            if (committed) notifications.forEach(Runnable::run);
+            return committed;
+        } catch (SQLException e) {
+            logger.error("✗ Transaction error: {}", e.getMessage(), e);
+            invalidateCaches(userId);
+            return false;
+        }
+    }
+
+    /**
+     * Tells the in-memory caches about a write: at once, or after the enclosing
+     * inTransaction() on this thread commits
+     */
+    private static void notifyCaches(Runnable notification) {
+        java.util.List<Runnable> pending = pendingNotifications.get();
+        if (pending != null) {
+            pending.add(notification);
+        } else {
+            notification.run();
+        }
+    }
+
+    private static void invalidateCaches(int userId) {
+        TimeSeriesStore.getInstance().invalidate(userId);
+        PersonalRecords.getInstance().invalidate(userId);
+        FoodLibrary.getInstance().invalidate(userId);
+    }
+
+    /**
+     * Closes all pooled connections. Call once on application exit.
+     */
+    public static void shutdown() {
+        checkpointer.stop();
+        pool.close();
+    }
+
+    /**
+     * Creates all necessary tables if they do not already exist,
+     * then applies any pending schema migrations (see SchemaMigrator).
      * SQLite uses AUTOINCREMENT instead of AUTO_INCREMENT
      */
     public void createTables() {
@@ -117,6 +238,7 @@ public class DatabaseManager {
             + "    log_id INTEGER PRIMARY KEY AUTOINCREMENT,\n"
             + "    user_id INTEGER NOT NULL,\n"
             + "    exercise_id INTEGER NOT NULL,\n"
+            + "    workout_name TEXT,\n"
             + "    sets INTEGER,\n"
             + "    reps INTEGER,\n"
             + "    weight_used REAL,\n"
@@ -170,27 +292,77 @@ public class DatabaseManager {
             for (String sql : tablesSQL) {
                 stmt.execute(sql);
             }
-            logger.info("✓ All tables are ready!");
+            int version = new SchemaMigrator().migrate(conn);
+            schema = SchemaInfo.load(conn);
+            logger.info("✓ All tables are ready! (schema version {})", version);
+            checkpointer.start();
         } catch (SQLException e) {
             logger.error("✗ Error creating tables: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Get the cached schema snapshot, creating and migrating tables on first use.
+     */
+    public SchemaInfo getSchema() {
+        if (schema == null) {
+            synchronized (DatabaseManager.class) {
+                if (schema == null) {
+                    createTables();
+                }
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Binds the parameters of a prepared INSERT
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    /**
+     * Runs a single-row INSERT and returns the generated key in the same statement
+     * execution (INSERT ... RETURNING), instead of a second last_insert_rowid() query.
+     * @param insertSql INSERT statement without a RETURNING clause
+     * @param idColumn primary key column to return
+     * @return the new row's id, or -1 if no row was inserted
+     */
+    private int insertReturningId(Connection conn, String insertSql, String idColumn, ParameterBinder binder)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSql + " RETURNING " + idColumn)) {
+            binder.bind(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
     /**
      * Registers a new user with a hashed password.
+     * Hashing is deliberately slow; call this off the FX thread.
      */
     public boolean register(User user, String password) {
+        return registerWithHash(user, PasswordHasher.hash(password));
+    }
+
+    /**
+     * Registers a new user whose password has already been hashed.
+     * Lets callers hash on a separate executor and keep the insert on the writer.
+     */
+    public boolean registerWithHash(User user, String hashedPassword) {
         String sql = "INSERT INTO users(username, email, password_hash) VALUES(?,?,?)";
-        String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, user.username);
-            pstmt.setString(2, user.email);
-            pstmt.setString(3, hashedPassword);
-            pstmt.executeUpdate();
+        try (Connection conn = connect()) {
+            user.userId = insertReturningId(conn, sql, "user_id", pstmt -> {
+                pstmt.setString(1, user.username);
+                pstmt.setString(2, user.email);
+                pstmt.setString(3, hashedPassword);
+            });
             logger.info("✓ User registered: {}", user.username);
-            return true;
+            return user.userId > 0;
         } catch (SQLException e) {
             logger.error("✗ Registration error: {}", e.getMessage(), e);
             return false;
@@ -199,56 +371,86 @@ public class DatabaseManager {
 
     /**
      * Authenticates a user by checking their password.
+     * If the stored hash uses a lower BCrypt cost than the calibrated one,
+     * it is transparently rehashed after a successful login.
+     * Hashing is deliberately slow; call this off the FX thread.
      */
     public User login(String username, String password) {
         // Use BINARY comparison to ensure case-sensitive username matching
         String sql = "SELECT * FROM users WHERE username = ? COLLATE BINARY";
-        try (Connection conn = connect();
+        User user = null;
+        String storedHash = null;
+
+        // Read the row and release the connection before the slow hash check
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
+                storedHash = rs.getString("password_hash");
+                user = new User();
+                user.userId = rs.getInt("user_id");
+                user.username = rs.getString("username");
+                user.email = rs.getString("email");
                 
-                // BCrypt.checkpw() is ALWAYS case-sensitive
-                if (BCrypt.checkpw(password, storedHash)) {
-                    // Password is correct, create User object
-                    User user = new User();
-                    user.userId = rs.getInt("user_id");
-                    user.username = rs.getString("username");
-                    user.email = rs.getString("email");
-                    
-                    // Handle potentially NULL values from SQLite
-                    Integer ageValue = rs.getObject("age") != null ? rs.getInt("age") : null;
-                    user.age = ageValue;
-                    
-                    user.gender = rs.getString("gender");
-                    
-                    Double heightValue = rs.getObject("height") != null ? rs.getDouble("height") : null;
-                    user.height = heightValue;
-                    
-                    Double weightValue = rs.getObject("weight") != null ? rs.getDouble("weight") : null;
-                    user.weight = weightValue;
-                    
-                    user.fitnessLevel = rs.getString("fitness_level");
-                    
-                    logger.info("✓ Login successful: {}", username);
-                    return user;
-                } else {
-                    logger.warn("✗ Password verification failed for user: {}", username);
-                }
+                // Handle potentially NULL values from SQLite
+                Integer ageValue = rs.getObject("age") != null ? rs.getInt("age") : null;
+                user.age = ageValue;
+                
+                user.gender = rs.getString("gender");
+                
+                Double heightValue = rs.getObject("height") != null ? rs.getDouble("height") : null;
+                user.height = heightValue;
+                
+                Double weightValue = rs.getObject("weight") != null ? rs.getDouble("weight") : null;
+                user.weight = weightValue;
+                
+                user.fitnessLevel = rs.getString("fitness_level");
             } else {
                 logger.warn("✗ User not found: {}", username);
             }
         } catch (SQLException e) {
             logger.error("✗ Login error: {}", e.getMessage(), e);
+            user = null;
+        }
+
+        if (user != null) {
+            // BCrypt.checkpw() is ALWAYS case-sensitive
+            if (PasswordHasher.verify(password, storedHash)) {
+                if (PasswordHasher.needsRehash(storedHash)) {
+                    updatePasswordHash(user.userId, PasswordHasher.hash(password));
+                }
+                logger.info("✓ Login successful: {}", username);
+                return user;
+            }
+            logger.warn("✗ Password verification failed for user: {}", username);
         }
         logger.warn("✗ Login failed: Invalid credentials");
         return null;
     }
 
+    /**
+     * Replaces a user's stored password hash (used to upgrade the BCrypt cost).
+     */
+    private boolean updatePasswordHash(int userId, String newHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ?";
+
+        try (Connection conn = connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, newHash);
+            pstmt.setInt(2, userId);
+            int rowsAffected = pstmt.executeUpdate();
+            logger.info("✓ Password hash upgraded to {} log-rounds for user ID: {}",
+                PasswordHasher.getLogRounds(), userId);
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            logger.error("✗ Password rehash error: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
     /**
      * Retrieves a user by their ID from the database.
      * Used to refresh user data after profile updates.
@@ -257,7 +459,7 @@ public class DatabaseManager {
      */
     public User getUserById(int userId) {
         String sql = "SELECT * FROM users WHERE user_id = ?";
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
@@ -343,42 +545,31 @@ public class DatabaseManager {
         String sql = "INSERT INTO goals(user_id, goal_type, target_value, target_unit, target_date, status) "
             + "VALUES(?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, goal.userId);
-            pstmt.setString(2, goal.goalType);
-            
-            // Handle NULL values properly
-            if (goal.targetValue != null) {
-                pstmt.setDouble(3, goal.targetValue);
-            } else {
-                pstmt.setNull(3, java.sql.Types.DOUBLE);
-            }
-            
-            pstmt.setString(4, goal.targetUnit);
-            
-            if (goal.targetDate != null) {
-                pstmt.setObject(5, goal.targetDate);
-            } else {
-                pstmt.setNull(5, java.sql.Types.DATE);
-            }
-            
-            pstmt.setString(6, goal.status);
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            // SQLite: Get last insert ID using last_insert_rowid()
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        goal.goalId = rs.getInt(1);
-                    }
+        try (Connection conn = connect()) {
+            goal.goalId = insertReturningId(conn, sql, "goal_id", pstmt -> {
+                pstmt.setInt(1, goal.userId);
+                pstmt.setString(2, goal.goalType);
+
+                // Handle NULL values properly
+                if (goal.targetValue != null) {
+                    pstmt.setDouble(3, goal.targetValue);
+                } else {
+                    pstmt.setNull(3, java.sql.Types.DOUBLE);
                 }
-            }
-            
+
+                pstmt.setString(4, goal.targetUnit);
+
+                if (goal.targetDate != null) {
+                    pstmt.setObject(5, goal.targetDate);
+                } else {
+                    pstmt.setNull(5, java.sql.Types.DATE);
+                }
+
+                pstmt.setString(6, goal.status);
+            });
+
             logger.info("✓ Goal saved for user ID: {} with goal ID: {}", goal.userId, goal.goalId);
-            return rowsAffected > 0;
+            return goal.goalId > 0;
         } catch (SQLException e) {
             logger.error("✗ Save goal error: {}", e.getMessage(), e);
             return false;
@@ -392,7 +583,7 @@ public class DatabaseManager {
         java.util.List<Goal> goals = new java.util.ArrayList<>();
         String sql = "SELECT * FROM goals WHERE user_id = ? ORDER BY created_at DESC";
 
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -426,31 +617,29 @@ public class DatabaseManager {
      * Retrieves all workout logs for a specific user.
      */
     public java.util.List<WorkoutLog> getWorkoutLogs(int userId) {
+        return getWorkoutLogs(userId, null);
+    }
+
+    /**
+     * Retrieves workout logs for a specific user, optionally for a single date.
+     */
+    public java.util.List<WorkoutLog> getWorkoutLogs(int userId, LocalDate date) {
         java.util.List<WorkoutLog> logs = new java.util.ArrayList<>();
-        String sql = "SELECT * FROM workout_log WHERE user_id = ? ORDER BY date DESC";
+        String sql = date == null
+            ? "SELECT * FROM workout_log WHERE user_id = ? ORDER BY date DESC, log_id DESC"
+            : "SELECT * FROM workout_log WHERE user_id = ? AND date = ? ORDER BY log_id DESC";
+        boolean hasWorkoutName = hasWorkoutNameColumn();
 
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
+            if (date != null) {
+                pstmt.setObject(2, date);
+            }
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                WorkoutLog log = new WorkoutLog();
-                log.setId(rs.getInt("log_id"));
-                log.setUserId(rs.getInt("user_id"));
-                
-                // Try to get workout_name first, fallback to exercise_id
-                String workoutName = rs.getString("workout_name");
-                if (workoutName == null || workoutName.isEmpty()) {
-                    workoutName = "Exercise #" + rs.getInt("exercise_id");
-                }
-                log.setWorkoutName(workoutName);
-                
-                log.setSets(rs.getInt("sets"));
-                log.setReps(rs.getInt("reps"));
-                log.setWeightUsed(rs.getDouble("weight_used"));
-                log.setDate(rs.getObject("date", LocalDate.class));
-                logs.add(log);
+                logs.add(mapWorkoutLog(rs, hasWorkoutName));
             }
             logger.info("✓ Retrieved {} workout logs for user ID: {}", logs.size(), userId);
         } catch (SQLException e) {
@@ -459,6 +648,97 @@ public class DatabaseManager {
         return logs;
     }
 
+    /**
+     * Retrieves one page of workout logs, newest first (keyset pagination).
+     * Pass beforeDate = null for the first page; for the next page pass the
+     * date and id of the last row already loaded.
+     */
+    public java.util.List<WorkoutLog> getWorkoutLogPage(int userId, LocalDate beforeDate, int beforeId, int limit) {
+        java.util.List<WorkoutLog> logs = new java.util.ArrayList<>(limit);
+        // (date, log_id) row-value comparison walks idx_workout_log_user_date, so a page
+        // costs the same no matter how deep into the history it starts
+        String sql = beforeDate == null
+            ? "SELECT * FROM workout_log WHERE user_id = ? ORDER BY date DESC, log_id DESC LIMIT ?"
+            : "SELECT * FROM workout_log WHERE user_id = ? AND (date, log_id) < (?, ?) "
+                + "ORDER BY date DESC, log_id DESC LIMIT ?";
+        boolean hasWorkoutName = hasWorkoutNameColumn();
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            pstmt.setInt(i++, userId);
+            if (beforeDate != null) {
+                pstmt.setObject(i++, beforeDate);
+                pstmt.setInt(i++, beforeId);
+            }
+            pstmt.setInt(i, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                logs.add(mapWorkoutLog(rs, hasWorkoutName));
+            }
+            logger.debug("Retrieved page of {} workout logs for user ID: {}", logs.size(), userId);
+        } catch (SQLException e) {
+            logger.error("✗ Get workout log page error: {}", e.getMessage(), e);
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves a user's named workout logs, oldest first (used by PersonalRecords).
+     * @param workoutName only this exercise (case-insensitive, walks idx_workout_log_user_name), or null for all
+     * @param excludeLogId a log to leave out, e.g. one that is being deleted (0 for none)
+     */
+    public java.util.List<WorkoutLog> getExerciseHistory(int userId, String workoutName, int excludeLogId) {
+        java.util.List<WorkoutLog> logs = new java.util.ArrayList<>();
+        String sql = "SELECT * FROM workout_log WHERE user_id = ? AND workout_name IS NOT NULL AND workout_name <> '' "
+            + "AND log_id <> ?" + (workoutName != null ? " AND workout_name = ? COLLATE NOCASE" : "")
+            + " ORDER BY date, log_id";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, excludeLogId);
+            if (workoutName != null) {
+                pstmt.setString(3, workoutName);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                logs.add(mapWorkoutLog(rs, true));
+            }
+            logger.debug("Retrieved {} logs of {} for user ID: {}", logs.size(),
+                workoutName != null ? workoutName : "all exercises", userId);
+        } catch (SQLException e) {
+            logger.error("✗ Get exercise history error: {}", e.getMessage(), e);
+        }
+        return logs;
+    }
+
+    private boolean hasWorkoutNameColumn() {
+        SchemaInfo schemaInfo = getSchema();
+        return schemaInfo == null || schemaInfo.hasColumn("workout_log", "workout_name");
+    }
+
+    private WorkoutLog mapWorkoutLog(ResultSet rs, boolean hasWorkoutName) throws SQLException {
+        WorkoutLog log = new WorkoutLog();
+        log.setId(rs.getInt("log_id"));
+        log.setUserId(rs.getInt("user_id"));
+
+        // Try to get workout_name first, fallback to exercise_id
+        String workoutName = hasWorkoutName ? rs.getString("workout_name") : null;
+        if (workoutName == null || workoutName.isEmpty()) {
+            workoutName = "Exercise #" + rs.getInt("exercise_id");
+        }
+        log.setWorkoutName(workoutName);
+
+        log.setSets(rs.getInt("sets"));
+        log.setReps(rs.getInt("reps"));
+        log.setWeightUsed(rs.getDouble("weight_used"));
+        log.setDate(rs.getObject("date", LocalDate.class));
+        return log;
+    }
+
     /**
      * Retrieves all workout plans for a specific user.
      */
@@ -466,7 +746,7 @@ public class DatabaseManager {
         java.util.List<WorkoutPlan> plans = new java.util.ArrayList<>();
         String sql = "SELECT * FROM workout_plans WHERE user_id = ? ORDER BY created_at DESC";
 
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -495,28 +775,17 @@ public class DatabaseManager {
         String sql = "INSERT INTO workout_plans(user_id, plan_name, description, difficulty, duration_weeks) "
             + "VALUES(?, ?, ?, ?, ?)";
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, plan.userId);
-            pstmt.setString(2, plan.planName);
-            pstmt.setString(3, plan.description);
-            pstmt.setString(4, plan.difficulty);
-            pstmt.setInt(5, plan.durationWeeks);
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            // SQLite: Get last insert ID using last_insert_rowid()
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        plan.planId = rs.getInt(1);
-                    }
-                }
-            }
-            
+        try (Connection conn = connect()) {
+            plan.planId = insertReturningId(conn, sql, "plan_id", pstmt -> {
+                pstmt.setInt(1, plan.userId);
+                pstmt.setString(2, plan.planName);
+                pstmt.setString(3, plan.description);
+                pstmt.setString(4, plan.difficulty);
+                pstmt.setInt(5, plan.durationWeeks);
+            });
+
             logger.info("✓ Workout plan saved with ID: {}", plan.planId);
-            return rowsAffected > 0;
+            return plan.planId > 0;
         } catch (SQLException e) {
             logger.error("✗ Save workout plan error: {}", e.getMessage(), e);
             return false;
@@ -547,9 +816,9 @@ public class DatabaseManager {
      */
     public java.util.List<WeightHistory> getWeightHistory(int userId) {
         java.util.List<WeightHistory> history = new java.util.ArrayList<>();
-        String sql = "SELECT * FROM weight_history WHERE user_id = ? ORDER BY date DESC";
+        String sql = "SELECT * FROM weight_history WHERE user_id = ? ORDER BY date DESC, history_id DESC";
 
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -576,26 +845,17 @@ public class DatabaseManager {
     public boolean saveWeightHistory(WeightHistory entry) {
         String sql = "INSERT INTO weight_history(user_id, weight, date) VALUES(?, ?, ?)";
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, entry.getUserId());
-            pstmt.setDouble(2, entry.getWeight());
-            pstmt.setObject(3, entry.getDate());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            // SQLite: Get last insert ID using last_insert_rowid()
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        entry.setId(rs.getInt(1));
-                    }
-                }
-            }
-            
+        try (Connection conn = connect()) {
+            int id = insertReturningId(conn, sql, "history_id", pstmt -> {
+                pstmt.setInt(1, entry.getUserId());
+                pstmt.setDouble(2, entry.getWeight());
+                pstmt.setObject(3, entry.getDate());
+            });
+            entry.setId(id);
+            if (id > 0) notifyCaches(() -> TimeSeriesStore.getInstance().weightSaved(entry));
+
             logger.info("✓ Weight history saved with ID: {}", entry.getId());
-            return rowsAffected > 0;
+            return id > 0;
         } catch (SQLException e) {
             logger.error("✗ Save weight history error: {}", e.getMessage(), e);
             return false;
@@ -613,6 +873,7 @@ public class DatabaseManager {
             pstmt.setInt(1, historyId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) notifyCaches(() -> TimeSeriesStore.getInstance().weightDeleted(historyId));
             logger.info("✓ Weight history deleted with ID: {}", historyId);
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -630,7 +891,7 @@ public class DatabaseManager {
             ? "SELECT * FROM food_log WHERE user_id = ? ORDER BY date DESC, food_log_id DESC"
             : "SELECT * FROM food_log WHERE user_id = ? AND date = ? ORDER BY food_log_id DESC";
 
-        try (Connection conn = connect();
+        try (Connection conn = connectReadOnly();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             if (date != null) {
@@ -640,23 +901,144 @@ public class DatabaseManager {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                FoodLog log = new FoodLog(
-                    rs.getInt("food_log_id"),
-                    rs.getInt("user_id"),
-                    rs.getString("food_name"),
+                logs.add(mapFoodLog(rs));
+            }
+            logger.info("✓ Retrieved {} food log entries", logs.size());
+        } catch (SQLException e) {
+            logger.error("✗ Get food log error: {}", e.getMessage(), e);
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves one page of food log entries, newest first (keyset pagination).
+     * Pass beforeDate = null for the first page; for the next page pass the
+     * date and id of the last row already loaded.
+     */
+    public java.util.List<FoodLog> getFoodLogPage(int userId, LocalDate beforeDate, int beforeId, int limit) {
+        java.util.List<FoodLog> logs = new java.util.ArrayList<>(limit);
+        String sql = beforeDate == null
+            ? "SELECT * FROM food_log WHERE user_id = ? ORDER BY date DESC, food_log_id DESC LIMIT ?"
+            : "SELECT * FROM food_log WHERE user_id = ? AND (date, food_log_id) < (?, ?) "
+                + "ORDER BY date DESC, food_log_id DESC LIMIT ?";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            pstmt.setInt(i++, userId);
+            if (beforeDate != null) {
+                pstmt.setObject(i++, beforeDate);
+                pstmt.setInt(i++, beforeId);
+            }
+            pstmt.setInt(i, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                logs.add(mapFoodLog(rs));
+            }
+            logger.debug("Retrieved page of {} food log entries for user ID: {}", logs.size(), userId);
+        } catch (SQLException e) {
+            logger.error("✗ Get food log page error: {}", e.getMessage(), e);
+        }
+        return logs;
+    }
+
+    private FoodLog mapFoodLog(ResultSet rs) throws SQLException {
+        return new FoodLog(
+            rs.getInt("food_log_id"),
+            rs.getInt("user_id"),
+            rs.getString("food_name"),
+            rs.getInt("calories"),
+            rs.getDouble("protein"),
+            rs.getDouble("carbs"),
+            rs.getDouble("fats"),
+            rs.getObject("date", LocalDate.class)
+        );
+    }
+
+    /**
+     * Calorie and macro totals for one day (zeros if nothing was logged).
+     */
+    public DailyNutrition getDailyNutrition(int userId, LocalDate date) {
+        java.util.List<DailyNutrition> days = getDailyNutrition(userId, date, date);
+        return days.isEmpty() ? DailyNutrition.empty(date) : days.get(0);
+    }
+
+    /**
+     * Per-day calorie and macro totals for an inclusive date range, oldest first.
+     * Days with nothing logged are omitted.
+     */
+    public java.util.List<DailyNutrition> getDailyNutrition(int userId, LocalDate from, LocalDate to) {
+        java.util.List<DailyNutrition> days = new java.util.ArrayList<>();
+        for (DailySummary summary : getDailySummaries(userId, from, to)) {
+            if (summary.getNutrition().getEntries() > 0) {
+                days.add(summary.getNutrition());
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Rollup rows for an inclusive date range, oldest first (one row per day with any activity).
+     * Reads daily_summary, so a year costs at most 366 rows regardless of how much was logged.
+     */
+    public java.util.List<DailySummary> getDailySummaries(int userId, LocalDate from, LocalDate to) {
+        java.util.List<DailySummary> days = new java.util.ArrayList<>();
+        getSchema(); // daily_summary is created by migration 4
+        String sql = "SELECT * FROM daily_summary WHERE user_id = ? AND date BETWEEN ? AND ? ORDER BY date";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setObject(2, from);
+            pstmt.setObject(3, to);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                LocalDate date = rs.getObject("date", LocalDate.class);
+                DailyNutrition nutrition = new DailyNutrition(
+                    date,
                     rs.getInt("calories"),
                     rs.getDouble("protein"),
                     rs.getDouble("carbs"),
                     rs.getDouble("fats"),
-                    rs.getObject("date", LocalDate.class)
+                    rs.getInt("food_entries")
                 );
-                logs.add(log);
+                days.add(new DailySummary(userId, date, nutrition,
+                    rs.getInt("sets"), rs.getDouble("volume_kg"), rs.getInt("workout_entries")));
             }
-            logger.info("✓ Retrieved {} food log entries", logs.size());
+            logger.debug("Read {} daily summaries for user ID: {}", days.size(), userId);
         } catch (SQLException e) {
-            logger.error("✗ Get food log error: {}", e.getMessage(), e);
+            logger.error("✗ Get daily summaries error: {}", e.getMessage(), e);
+        }
+        return days;
+    }
+
+    /**
+     * Recompute the whole daily_summary rollup from food_log and workout_log.
+     * Use this to repair the rollup if rows were changed with the triggers disabled.
+     * @return number of summary rows written, or -1 on failure
+     */
+    public int rebuildDailySummary() {
+        getSchema();
+        try (Connection conn = connect(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            try {
+                stmt.executeUpdate("DELETE FROM daily_summary");
+                int rows = stmt.executeUpdate(SchemaMigrator.REBUILD_DAILY_SUMMARY_SQL);
+                conn.commit();
+                logger.info("✓ Rebuilt daily_summary: {} rows", rows);
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("✗ Rebuild daily summary error: {}", e.getMessage(), e);
+            return -1;
         }
-        return logs;
     }
 
     /**
@@ -666,30 +1048,26 @@ public class DatabaseManager {
         String sql = "INSERT INTO food_log(user_id, food_name, calories, protein, carbs, fats, date) "
             + "VALUES(?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, log.getUserId());
-            pstmt.setString(2, log.getFoodName());
-            pstmt.setInt(3, log.getCalories());
-            pstmt.setDouble(4, log.getProtein());
-            pstmt.setDouble(5, log.getCarbs());
-            pstmt.setDouble(6, log.getFats());
-            pstmt.setObject(7, log.getDate());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            // SQLite: Get last insert ID using last_insert_rowid()
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        log.setId(rs.getInt(1));
-                    }
-                }
+        try (Connection conn = connect()) {
+            int id = insertReturningId(conn, sql, "food_log_id", pstmt -> {
+                pstmt.setInt(1, log.getUserId());
+                pstmt.setString(2, log.getFoodName());
+                pstmt.setInt(3, log.getCalories());
+                pstmt.setDouble(4, log.getProtein());
+                pstmt.setDouble(5, log.getCarbs());
+                pstmt.setDouble(6, log.getFats());
+                pstmt.setObject(7, log.getDate());
+            });
+            log.setId(id);
+            if (id > 0) {
+                notifyCaches(() -> {
+                    TimeSeriesStore.getInstance().foodSaved(log);
+                    FoodLibrary.getInstance().foodLogged(log);
+                });
             }
-            
+
             logger.info("✓ Food log saved with ID: {}", log.getId());
-            return rowsAffected > 0;
+            return id > 0;
         } catch (SQLException e) {
             logger.error("✗ Save food log error: {}", e.getMessage(), e);
             return false;
@@ -707,6 +1085,7 @@ public class DatabaseManager {
             pstmt.setInt(1, foodLogId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) notifyCaches(() -> TimeSeriesStore.getInstance().foodDeleted(foodLogId));
             logger.info("✓ Food log deleted with ID: {}", foodLogId);
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -716,39 +1095,247 @@ public class DatabaseManager {
     }
 
     /**
-     * Saves a new workout log.
+     * Saves a food to the user's library. A food with the same name (case-insensitive)
+     * is updated instead, so the library keeps one entry per name with the latest macros;
+     * a serving size of 0 (unknown) keeps the stored one. Sets the item's ID.
      */
-    public boolean saveWorkoutLog(WorkoutLog log) {
-        // First, ensure workout_name column exists
-        ensureWorkoutNameColumn();
-        
-        String sql = "INSERT INTO workout_log(user_id, exercise_id, workout_name, sets, reps, weight_used, date) "
+    public boolean saveFoodItem(FoodItem item) {
+        String findSql = "SELECT food_id FROM food_library "
+            + "WHERE created_by_user_id = ? AND food_name = ? COLLATE NOCASE LIMIT 1";
+        String updateSql = "UPDATE food_library SET food_name = ?, serving_size_g = COALESCE(?, serving_size_g), "
+            + "calories = ?, protein = ?, carbs = ?, fats = ? WHERE food_id = ?";
+
+        try (Connection conn = connect()) {
+            int id = 0;
+            try (PreparedStatement find = conn.prepareStatement(findSql)) {
+                find.setInt(1, item.getCreatedByUserId());
+                find.setString(2, item.getFoodName());
+                try (ResultSet rs = find.executeQuery()) {
+                    if (rs.next()) id = rs.getInt(1);
+                }
+            }
+
+            if (id > 0) {
+                try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    update.setString(1, item.getFoodName());
+                    update.setObject(2, item.getServingSizeG() > 0 ? item.getServingSizeG() : null);
+                    update.setDouble(3, item.getCalories());
+                    update.setDouble(4, item.getProtein());
+                    update.setDouble(5, item.getCarbs());
+                    update.setDouble(6, item.getFats());
+                    update.setInt(7, id);
+                    update.executeUpdate();
+                }
+            } else {
+                id = insertFoodItem(conn, item);
+            }
+            item.setFoodId(id);
+            if (id > 0) notifyCaches(() -> FoodLibrary.getInstance().itemSaved(item));
+
+            logger.info("✓ Food library item saved with ID: {}", id);
+            return id > 0;
+        } catch (SQLException e) {
+            logger.error("✗ Save food library item error: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Inserts many library foods in one transaction (e.g. importing a nutrition database).
+     * Unlike saveFoodItem() names are not de-duplicated. Either all rows are saved and
+     * get their IDs, or none are.
+     */
+    public boolean saveFoodItems(java.util.List<FoodItem> items) {
+        if (items.isEmpty()) return true;
+        int[] ids = new int[items.size()];
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < items.size(); i++) {
+                    ids[i] = insertFoodItem(conn, items.get(i));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("✗ Save food library items error: {}", e.getMessage(), e);
+            return false;
+        }
+
+        java.util.Set<Integer> users = new java.util.HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setFoodId(ids[i]);
+            users.add(items.get(i).getCreatedByUserId());
+        }
+        // Reloaded on next use rather than patched item by item
+        users.forEach(FoodLibrary.getInstance()::invalidate);
+        logger.info("✓ Saved {} food library items in one transaction", items.size());
+        return true;
+    }
+
+    private int insertFoodItem(Connection conn, FoodItem item) throws SQLException {
+        String sql = "INSERT INTO food_library(food_name, serving_size_g, calories, protein, carbs, fats, created_by_user_id) "
             + "VALUES(?, ?, ?, ?, ?, ?, ?)";
+        return insertReturningId(conn, sql, "food_id", pstmt -> {
+            pstmt.setString(1, item.getFoodName());
+            pstmt.setObject(2, item.getServingSizeG() > 0 ? item.getServingSizeG() : null);
+            pstmt.setDouble(3, item.getCalories());
+            pstmt.setDouble(4, item.getProtein());
+            pstmt.setDouble(5, item.getCarbs());
+            pstmt.setDouble(6, item.getFats());
+            pstmt.setInt(7, item.getCreatedByUserId());
+        });
+    }
+
+    /**
+     * Deletes a food from the library. Food log entries made from it keep their own copy.
+     */
+    public boolean deleteFoodItem(int foodId) {
+        String sql = "DELETE FROM food_library WHERE food_id = ?";
 
         try (Connection conn = connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, log.getUserId());
-            pstmt.setInt(2, 1); // Default exercise_id for compatibility
-            pstmt.setString(3, log.getWorkoutName());
-            pstmt.setInt(4, log.getSets());
-            pstmt.setInt(5, log.getReps());
-            pstmt.setDouble(6, log.getWeightUsed());
-            pstmt.setObject(7, log.getDate());
-            
+            pstmt.setInt(1, foodId);
+
             int rowsAffected = pstmt.executeUpdate();
-            
-            // SQLite: Get last insert ID using last_insert_rowid()
-            if (rowsAffected > 0) {
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        log.setId(rs.getInt(1));
-                    }
-                }
+            if (rowsAffected > 0) notifyCaches(() -> FoodLibrary.getInstance().itemDeleted(foodId));
+            logger.info("✓ Food library item deleted with ID: {}", foodId);
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            logger.error("✗ Delete food library item error: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Full-text search of the user's food library (FTS5), best match first.
+     * Every word of the query matches as a word prefix, in any order:
+     * "chick bre" finds "Grilled Chicken Breast".
+     */
+    public java.util.List<FoodItem> searchFoodLibrary(int userId, String query, int limit) {
+        java.util.List<FoodItem> items = new java.util.ArrayList<>();
+        String match = toFtsPrefixQuery(query);
+        if (match.isEmpty()) return items;
+        String sql = "SELECT l.* FROM food_library_fts f JOIN food_library l ON l.food_id = f.rowid "
+            + "WHERE food_library_fts MATCH ? AND l.created_by_user_id = ? "
+            + "ORDER BY f.rank, length(l.food_name) LIMIT ?";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, match);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                items.add(mapFoodItem(rs));
             }
-            
+        } catch (SQLException e) {
+            logger.error("✗ Search food library error: {}", e.getMessage(), e);
+        }
+        return items;
+    }
+
+    /**
+     * The user's library foods that appear in their food log, most logged first,
+     * with getTimesLogged() filled in. Names are matched case-insensitively.
+     */
+    public java.util.List<FoodItem> getFrequentFoodItems(int userId, int limit) {
+        java.util.List<FoodItem> items = new java.util.ArrayList<>();
+        // Aggregate the (small) log first, then probe idx_food_library_user_name per name
+        String sql = "SELECT l.*, u.uses FROM ("
+            + "    SELECT food_name, COUNT(*) AS uses FROM food_log WHERE user_id = ? GROUP BY food_name COLLATE NOCASE"
+            + ") u JOIN food_library l ON l.created_by_user_id = ? AND l.food_name = u.food_name COLLATE NOCASE "
+            + "ORDER BY u.uses DESC, l.food_id DESC LIMIT ?";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                FoodItem item = mapFoodItem(rs);
+                item.setTimesLogged(rs.getInt("uses"));
+                items.add(item);
+            }
+        } catch (SQLException e) {
+            logger.error("✗ Get frequent food items error: {}", e.getMessage(), e);
+        }
+        return items;
+    }
+
+    /**
+     * The user's most recently added library foods, newest first.
+     */
+    public java.util.List<FoodItem> getFoodItems(int userId, int limit) {
+        java.util.List<FoodItem> items = new java.util.ArrayList<>();
+        String sql = "SELECT * FROM food_library WHERE created_by_user_id = ? ORDER BY food_id DESC LIMIT ?";
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                items.add(mapFoodItem(rs));
+            }
+        } catch (SQLException e) {
+            logger.error("✗ Get food items error: {}", e.getMessage(), e);
+        }
+        return items;
+    }
+
+    private FoodItem mapFoodItem(ResultSet rs) throws SQLException {
+        return new FoodItem(
+            rs.getInt("food_id"),
+            rs.getInt("created_by_user_id"),
+            rs.getString("food_name"),
+            rs.getDouble("serving_size_g"),
+            rs.getDouble("calories"),
+            rs.getDouble("protein"),
+            rs.getDouble("carbs"),
+            rs.getDouble("fats")
+        );
+    }
+
+    /**
+     * Turn typed text into an FTS5 query where every word is a quoted prefix term
+     * (so characters such as '-' or '"' cannot break the query syntax)
+     */
+    static String toFtsPrefixQuery(String text) {
+        StringBuilder match = new StringBuilder();
+        for (String word : FoodLibrary.normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
+
+    /**
+     * Saves a new workout log.
+     */
+    public boolean saveWorkoutLog(WorkoutLog log) {
+        try (Connection conn = connect()) {
+            int id = insertWorkoutLog(conn, log);
+            log.setId(id);
+            if (id > 0) {
+                notifyCaches(() -> {
+                    TimeSeriesStore.getInstance().workoutSaved(log);
+                    PersonalRecords.getInstance().workoutSaved(log);
+                });
+            }
+
             logger.info("✓ Workout log saved with ID: {}", log.getId());
-            return rowsAffected > 0;
+            return id > 0;
         } catch (SQLException e) {
             logger.error("✗ Save workout log error: {}", e.getMessage(), e);
             return false;
@@ -756,31 +1343,54 @@ public class DatabaseManager {
     }
 
     /**
-     * Ensures workout_name column exists in workout_log table
+     * Saves several workout logs in one transaction (one commit instead of one per set).
+     * Either all rows are saved and get their IDs, or none are.
      */
-    private void ensureWorkoutNameColumn() {
-        String checkColumnSql = "PRAGMA table_info(workout_log)";
-        String alterTableSql = "ALTER TABLE workout_log ADD COLUMN workout_name TEXT";
-        
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(checkColumnSql)) {
-            
-            boolean hasWorkoutName = false;
-            while (rs.next()) {
-                if ("workout_name".equals(rs.getString("name"))) {
-                    hasWorkoutName = true;
-                    break;
+    public boolean saveWorkoutLogs(java.util.List<WorkoutLog> logs) {
+        if (logs.isEmpty()) return true;
+        int[] ids = new int[logs.size()];
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < logs.size(); i++) {
+                    ids[i] = insertWorkoutLog(conn, logs.get(i));
                 }
-            }
-            
-            if (!hasWorkoutName) {
-                stmt.executeUpdate(alterTableSql);
-                logger.info("✓ Added workout_name column to workout_log table");
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            logger.error("✗ Error ensuring workout_name column: {}", e.getMessage(), e);
+            logger.error("✗ Save workout logs error: {}", e.getMessage(), e);
+            return false;
+        }
+
+        // Only hand out IDs once the transaction has committed
+        for (int i = 0; i < logs.size(); i++) {
+            logs.get(i).setId(ids[i]);
+            TimeSeriesStore.getInstance().workoutSaved(logs.get(i));
+            PersonalRecords.getInstance().workoutSaved(logs.get(i));
         }
+        logger.info("✓ Saved {} workout logs in one transaction", logs.size());
+        return true;
+    }
+
+    private int insertWorkoutLog(Connection conn, WorkoutLog log) throws SQLException {
+        // workout_name column is guaranteed by migration 3 (see SchemaMigrator)
+        String sql = "INSERT INTO workout_log(user_id, exercise_id, workout_name, sets, reps, weight_used, date) "
+            + "VALUES(?, ?, ?, ?, ?, ?, ?)";
+        return insertReturningId(conn, sql, "log_id", pstmt -> {
+            pstmt.setInt(1, log.getUserId());
+            pstmt.setInt(2, 1); // Default exercise_id for compatibility
+            pstmt.setString(3, log.getWorkoutName());
+            pstmt.setInt(4, log.getSets());
+            pstmt.setInt(5, log.getReps());
+            pstmt.setDouble(6, log.getWeightUsed());
+            pstmt.setObject(7, log.getDate());
+        });
     }
 
     /**
@@ -813,6 +1423,12 @@ public class DatabaseManager {
             pstmt.setInt(1, workoutId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                notifyCaches(() -> {
+                    TimeSeriesStore.getInstance().workoutDeleted(workoutId);
+                    PersonalRecords.getInstance().workoutDeleted(workoutId);
+                });
+            }
             logger.info("✓ Workout log deleted with ID: {}", workoutId);
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -821,11 +1437,80 @@ public class DatabaseManager {
         }
     }
 
+    // ==================== TIME SERIES (see TimeSeriesStore) ====================
+
+    // Epoch day straight from the ISO date text, so no LocalDate per row
+    private static final String EPOCH_DAY_SQL = "CAST(julianday(date) - 2440587.5 AS INTEGER)";
+
+    /**
+     * Loads a user's weight history as a DaySeries (column: WEIGHT)
+     */
+    public DaySeries loadWeightSeries(int userId) {
+        return loadDaySeries("SELECT history_id, " + EPOCH_DAY_SQL + ", weight FROM weight_history "
+            + "WHERE user_id = ? ORDER BY date, history_id", userId, 1);
+    }
+
+    /**
+     * Loads a user's food log as a DaySeries (columns: CALORIES, PROTEIN, CARBS, FATS)
+     */
+    public DaySeries loadFoodSeries(int userId) {
+        return loadDaySeries("SELECT food_log_id, " + EPOCH_DAY_SQL + ", calories, COALESCE(protein, 0), "
+            + "COALESCE(carbs, 0), COALESCE(fats, 0) FROM food_log WHERE user_id = ? ORDER BY date, food_log_id",
+            userId, 4);
+    }
+
+    /**
+     * Loads a user's workout log as a DaySeries (columns: SETS, REPS, LOAD, VOLUME)
+     */
+    public DaySeries loadWorkoutSeries(int userId) {
+        return loadDaySeries("SELECT log_id, " + EPOCH_DAY_SQL + ", COALESCE(sets, 0), COALESCE(reps, 0), "
+            + "COALESCE(weight_used, 0), COALESCE(sets, 0) * COALESCE(reps, 0) * COALESCE(weight_used, 0) "
+            + "FROM workout_log WHERE user_id = ? ORDER BY date, log_id", userId, 4);
+    }
+
+    /**
+     * Reads (id, epoch day, value columns...) rows straight into growing primitive arrays
+     */
+    private DaySeries loadDaySeries(String sql, int userId, int columnCount) {
+        int capacity = 256;
+        int size = 0;
+        int[] days = new int[capacity];
+        int[] ids = new int[capacity];
+        double[][] columns = new double[columnCount][capacity];
+
+        try (Connection conn = connectReadOnly();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (size == capacity) {
+                        capacity *= 2;
+                        days = java.util.Arrays.copyOf(days, capacity);
+                        ids = java.util.Arrays.copyOf(ids, capacity);
+                        for (int c = 0; c < columnCount; c++) {
+                            columns[c] = java.util.Arrays.copyOf(columns[c], capacity);
+                        }
+                    }
+                    ids[size] = rs.getInt(1);
+                    days[size] = rs.getInt(2);
+                    for (int c = 0; c < columnCount; c++) {
+                        columns[c][size] = rs.getDouble(c + 3);
+                    }
+                    size++;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("✗ Load time series error: {}", e.getMessage(), e);
+            return DaySeries.empty(columnCount);
+        }
+        return DaySeries.of(size, days, ids, columns);
+    }
+
     /**
      * Test database connection
      */
     public boolean testConnection() {
-        try (Connection conn = connect()) {
+        try (Connection conn = connectReadOnly()) {
             if (conn != null && !conn.isClosed()) {
                 logger.info("✓ Database connection test: SUCCESS");
                 return true;
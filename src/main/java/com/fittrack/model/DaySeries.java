@@ -0,0 +1,235 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * DaySeries - Immutable columnar time series of day-stamped rows
+ *
+ * Rows are sorted by (epoch day, id) and stored column by column in primitive
+ * arrays, with a running sum per column, so range lookups are binary searches
+ * (O(log n)) and range sums are two array reads (O(1)) with no boxing and no
+ * allocation. Writes return a new DaySeries (copy-on-write), so readers on any
+ * thread always see a consistent snapshot without locking.
+ *
+ * Simple usage:
+ *   DaySeries food = TimeSeriesStore.getInstance().getFood(userId);
+ *   double kcalThisWeek = food.sum(TimeSeriesStore.CALORIES, today.minusDays(6), today);
+ */
+public final class DaySeries {
+
+    private final int size;
+    private final int[] days;
+    private final int[] ids;
+    private final double[][] columns;
+    // prefix[c][i] = sum of columns[c][0 .. i-1]; length size + 1
+    private final double[][] prefix;
+
+    private DaySeries(int size, int[] days, int[] ids, double[][] columns) {
+        this.size = size;
+        this.days = days;
+        this.ids = ids;
+        this.columns = columns;
+        this.prefix = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            double[] sums = new double[size + 1];
+            for (int i = 0; i < size; i++) {
+                sums[i + 1] = sums[i] + columns[c][i];
+            }
+            prefix[c] = sums;
+        }
+    }
+
+    /**
+     * Series with no rows
+     */
+    public static DaySeries empty(int columnCount) {
+        return new DaySeries(0, new int[0], new int[0], new double[columnCount][0]);
+    }
+
+    /**
+     * Wrap arrays filled by a loader; rows must already be sorted by (day, id).
+     * Arrays may be longer than size and are not copied, so the caller must not touch them again.
+     */
+    static DaySeries of(int size, int[] days, int[] ids, double[][] columns) {
+        return new DaySeries(size, days, ids, columns);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Epoch day of row i
+     */
+    public int day(int i) {
+        checkIndex(i);
+        return days[i];
+    }
+
+    public LocalDate date(int i) {
+        return LocalDate.ofEpochDay(day(i));
+    }
+
+    /**
+     * Database ID of row i
+     */
+    public int id(int i) {
+        checkIndex(i);
+        return ids[i];
+    }
+
+    public double value(int column, int i) {
+        checkIndex(i);
+        return columns[column][i];
+    }
+
+    /**
+     * Value of the newest row (largest day, then largest id)
+     */
+    public double last(int column) {
+        return value(column, size - 1);
+    }
+
+    /**
+     * Index of the first row on or after the given epoch day (size if none)
+     */
+    public int firstIndexOnOrAfter(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Index just past the last row on or before the given epoch day
+     */
+    public int endIndexOnOrBefore(int epochDay) {
+        return epochDay == Integer.MAX_VALUE ? size : firstIndexOnOrAfter(epochDay + 1);
+    }
+
+    /**
+     * Sum of a column over rows [from, to)
+     */
+    public double sumIndexRange(int column, int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + size);
+        }
+        return prefix[column][to] - prefix[column][from];
+    }
+
+    /**
+     * Sum of a column over the days from..to (both inclusive)
+     */
+    public double sum(int column, int fromDay, int toDay) {
+        int from = firstIndexOnOrAfter(fromDay);
+        int to = endIndexOnOrBefore(toDay);
+        return from < to ? prefix[column][to] - prefix[column][from] : 0;
+    }
+
+    public double sum(int column, LocalDate from, LocalDate to) {
+        return sum(column, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Number of rows on the days from..to (both inclusive)
+     */
+    public int count(int fromDay, int toDay) {
+        return Math.max(0, endIndexOnOrBefore(toDay) - firstIndexOnOrAfter(fromDay));
+    }
+
+    public int count(LocalDate from, LocalDate to) {
+        return count((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Copy with one more row, kept in (day, id) order. Returns this if the ID is already present.
+     */
+    DaySeries with(int id, int day, double... values) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+        }
+        int at = firstIndexOnOrAfter(day);
+        while (at < size && days[at] == day && ids[at] < id) at++;
+        if (at < size && days[at] == day && ids[at] == id) return this;
+
+        int[] newDays = insert(days, at, day);
+        int[] newIds = insert(ids, at, id);
+        double[][] newColumns = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            double[] column = new double[size + 1];
+            System.arraycopy(columns[c], 0, column, 0, at);
+            column[at] = values[c];
+            System.arraycopy(columns[c], at, column, at + 1, size - at);
+            newColumns[c] = column;
+        }
+        return new DaySeries(size + 1, newDays, newIds, newColumns);
+    }
+
+    /**
+     * Index of the row with this ID, or -1 (linear scan; rows are ordered by day)
+     */
+    int indexOfId(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Copy without the row with this ID. Returns this if there is no such row.
+     */
+    DaySeries without(int id) {
+        int at = indexOfId(id);
+        if (at < 0) return this;
+
+        double[][] newColumns = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            newColumns[c] = remove(columns[c], size, at);
+        }
+        return new DaySeries(size - 1, remove(days, size, at), remove(ids, size, at), newColumns);
+    }
+
+    private int[] insert(int[] array, int at, int value) {
+        int[] copy = new int[size + 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, size - at);
+        return copy;
+    }
+
+    private static int[] remove(int[] array, int length, int at) {
+        int[] copy = Arrays.copyOf(array, length - 1);
+        System.arraycopy(array, at + 1, copy, at, length - at - 1);
+        return copy;
+    }
+
+    private static double[] remove(double[] array, int length, int at) {
+        double[] copy = Arrays.copyOf(array, length - 1);
+        System.arraycopy(array, at + 1, copy, at, length - at - 1);
+        return copy;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DaySeries{rows=" + size + ", columns=" + columns.length
+            + (size > 0 ? ", from=" + date(0) + ", to=" + date(size - 1) : "") + '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.fittrack.model;
+
+import java.util.Objects;
+
+/**
+ * FoodItem - A food saved in the user's food library, with its macros per serving
+ */
+public class FoodItem {
+    private int foodId;
+    private String foodName;
+    private double servingSizeG;
+    private double calories;
+    private double protein;
+    private double carbs;
+    private double fats;
+    private int createdByUserId;
+    private int timesLogged; // filled by DatabaseManager.getFrequentFoodItems(), 0 otherwise
+
+    public FoodItem() {}
+
+    public FoodItem(int createdByUserId, String foodName, double servingSizeG,
+                    double calories, double protein, double carbs, double fats) {
+        if (foodName == null || foodName.isBlank()) throw new IllegalArgumentException("foodName must not be blank");
+        if (servingSizeG < 0 || calories < 0) throw new IllegalArgumentException("serving size and calories must be non-negative");
+        if (protein < 0 || carbs < 0 || fats < 0) throw new IllegalArgumentException("macros must be non-negative");
+
+        this.createdByUserId = createdByUserId;
+        this.foodName = foodName;
+        this.servingSizeG = servingSizeG;
+        this.calories = calories;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.fats = fats;
+    }
+
+    public FoodItem(int foodId, int createdByUserId, String foodName, double servingSizeG,
+                    double calories, double protein, double carbs, double fats) {
+        this(createdByUserId, foodName, servingSizeG, calories, protein, carbs, fats);
+        this.foodId = foodId;
+    }
+
+    /**
+     * Library entry for a food as it was just logged (one serving = one log entry)
+     */
+    public static FoodItem of(FoodLog log) {
+        return new FoodItem(log.getUserId(), log.getFoodName(), 0,
+            log.getCalories(), log.getProtein(), log.getCarbs(), log.getFats());
+    }
+
+    public int getFoodId() { return foodId; }
+    public void setFoodId(int foodId) { this.foodId = foodId; }
+
+    public String getFoodName() { return foodName; }
+    public double getServingSizeG() { return servingSizeG; }
+    public double getCalories() { return calories; }
+    public double getProtein() { return protein; }
+    public double getCarbs() { return carbs; }
+    public double getFats() { return fats; }
+    public int getCreatedByUserId() { return createdByUserId; }
+
+    public int getTimesLogged() { return timesLogged; }
+    public void setTimesLogged(int timesLogged) { this.timesLogged = timesLogged; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FoodItem)) return false;
+        FoodItem item = (FoodItem) o;
+        return foodId == item.foodId &&
+               createdByUserId == item.createdByUserId &&
+               Double.compare(item.servingSizeG, servingSizeG) == 0 &&
+               Double.compare(item.calories, calories) == 0 &&
+               Double.compare(item.protein, protein) == 0 &&
+               Double.compare(item.carbs, carbs) == 0 &&
+               Double.compare(item.fats, fats) == 0 &&
+               Objects.equals(foodName, item.foodName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(foodId, createdByUserId, foodName, servingSizeG, calories, protein, carbs, fats);
+    }
+
+    @Override
+    public String toString() {
+        return "FoodItem{foodId=" + foodId + ", foodName='" + foodName + '\'' + ", calories=" + calories +
+               ", protein=" + protein + ", carbs=" + carbs + ", fats=" + fats + '}';
+    }
+}
@@ -0,0 +1,251 @@
+package com.fittrack.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.util.PrefixTrie;
+
+/**
+ * FoodLibrary - In-memory type-ahead over each user's food library
+ *
+ * On first use a user's most logged foods plus their newest library entries (up to
+ * WARM_ITEMS) are loaded into a PrefixTrie, keyed by every word of the name, so
+ * "chi" finds "Grilled Chicken" and suggestions come back best first in well under a
+ * millisecond with no query. Foods logged more often rank higher. When the library
+ * is larger than the warm set, isComplete() is false and callers should also run
+ * DatabaseManager.searchFoodLibrary() (FTS5) off the FX thread.
+ *
+ * DatabaseManager reports library saves and deletes and every food log save here,
+ * like TimeSeriesStore. Times logged are counted up on save and are re-read from the
+ * database on the next load, so deletes and undos only catch up then.
+ *
+ * suggestIfLoaded() never touches the database or waits for a load, so it is safe
+ * to call on every keystroke on the FX thread; warm() the user's library first.
+ *
+ * Simple usage:
+ *   asyncDb.warmFoodLibrary(userId);
+ *   List<FoodItem> matches = FoodLibrary.getInstance().suggestIfLoaded(userId, "chick", 8);
+ */
+public class FoodLibrary {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodLibrary.class);
+
+    private static FoodLibrary instance;
+
+    // Foods kept in memory per user; larger libraries fall back to FTS5 for the rest
+    static final int WARM_ITEMS = 50_000;
+    // Suggestions cached per trie node, so the most any lookup can return
+    public static final int MAX_SUGGESTIONS = 10;
+
+    // Separates the searchable text from the food ID in trie keys
+    private static final char ID_SEPARATOR = '\u0001';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /**
+     * UserLibrary - One user's warm set; guarded by its own monitor
+     */
+    private static final class UserLibrary {
+        final PrefixTrie<FoodItem> trie = new PrefixTrie<>(MAX_SUGGESTIONS);
+        final Map<Integer, FoodItem> byId = new HashMap<>();
+        final Map<String, FoodItem> byName = new HashMap<>(); // normalized name -> item
+        final boolean complete;
+
+        UserLibrary(boolean complete) {
+            this.complete = complete;
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    // Read without the FoodLibrary lock so lookups never wait behind a load
+    private final Map<Integer, UserLibrary> users = new ConcurrentHashMap<>();
+
+    FoodLibrary(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized FoodLibrary getInstance() {
+        if (instance == null) {
+            instance = new FoodLibrary(new DatabaseManager());
+        }
+        return instance;
+    }
+
+    /**
+     * Load a user's warm set if it is not loaded yet (hits the database; call off the FX thread)
+     */
+    public void warm(int userId) {
+        load(userId);
+    }
+
+    /**
+     * Best library foods whose name has a word starting with prefix, best first.
+     * Loads the user's warm set on first use, so call off the FX thread.
+     */
+    public List<FoodItem> suggest(int userId, String prefix, int limit) {
+        return lookup(load(userId), prefix, limit);
+    }
+
+    /**
+     * Like suggest(), but only from memory: null if the user's warm set is not loaded yet
+     */
+    public List<FoodItem> suggestIfLoaded(int userId, String prefix, int limit) {
+        UserLibrary library = users.get(userId);
+        return library == null ? null : lookup(library, prefix, limit);
+    }
+
+    /**
+     * True if the user's whole library is in memory, so FTS5 would find nothing more
+     */
+    public boolean isComplete(int userId) {
+        UserLibrary library = users.get(userId);
+        return library != null && library.complete;
+    }
+
+    /**
+     * Forget a user's warm set; it is reloaded on next use (e.g. after an import)
+     */
+    public synchronized void invalidate(int userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Forget every loaded user (e.g. on logout)
+     */
+    public synchronized void clear() {
+        users.clear();
+    }
+
+    /**
+     * Text form used for matching: lower case, accents and extra spaces removed
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return SPACES.matcher(plain).replaceAll(" ").trim();
+    }
+
+    // ==================== NOTIFICATIONS (from DatabaseManager) ====================
+
+    synchronized void itemSaved(FoodItem item) {
+        UserLibrary library = users.get(item.getCreatedByUserId());
+        if (library == null) return;
+        synchronized (library) {
+            FoodItem previous = library.byId.get(item.getFoodId());
+            if (previous != null) {
+                item.setTimesLogged(previous.getTimesLogged());
+                remove(library, previous);
+            }
+            add(library, item);
+        }
+    }
+
+    synchronized void itemDeleted(int foodId) {
+        for (UserLibrary library : users.values()) {
+            synchronized (library) {
+                FoodItem item = library.byId.get(foodId);
+                if (item != null) remove(library, item);
+            }
+        }
+    }
+
+    synchronized void foodLogged(FoodLog log) {
+        UserLibrary library = users.get(log.getUserId());
+        if (library == null) return;
+        synchronized (library) {
+            FoodItem item = library.byName.get(normalize(log.getFoodName()));
+            if (item == null) return;
+            remove(library, item);
+            item.setTimesLogged(item.getTimesLogged() + 1);
+            add(library, item);
+        }
+    }
+
+    // ==================== LOADING ====================
+
+    private UserLibrary load(int userId) {
+        UserLibrary library = users.get(userId);
+        if (library != null) return library;
+        synchronized (this) {
+            library = users.get(userId);
+            if (library != null) return library;
+
+            long start = System.nanoTime();
+            List<FoodItem> frequent = dbManager.getFrequentFoodItems(userId, WARM_ITEMS);
+            List<FoodItem> newest = dbManager.getFoodItems(userId, WARM_ITEMS);
+
+            // Fewer newest rows than asked for means that is the whole library
+            library = new UserLibrary(newest.size() < WARM_ITEMS);
+            for (FoodItem item : frequent) {
+                add(library, item);
+            }
+            for (FoodItem item : newest) {
+                if (library.byId.size() >= WARM_ITEMS) break;
+                if (!library.byId.containsKey(item.getFoodId())) add(library, item);
+            }
+            users.put(userId, library);
+            logger.info("✓ Loaded {} foods for type-ahead in {} ms{}", library.byId.size(),
+                (System.nanoTime() - start) / 1_000_000, library.complete ? "" : " (partial, FTS5 covers the rest)");
+            return library;
+        }
+    }
+
+    // ==================== TRIE ====================
+
+    private static List<FoodItem> lookup(UserLibrary library, String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) return List.of();
+        Set<FoodItem> matches = new LinkedHashSet<>();
+        synchronized (library) {
+            // One food can match through two of its words; keep its best position only
+            matches.addAll(library.trie.complete(key, MAX_SUGGESTIONS));
+        }
+        List<FoodItem> best = new ArrayList<>(matches);
+        return best.subList(0, Math.min(limit, best.size()));
+    }
+
+    private static void add(UserLibrary library, FoodItem item) {
+        library.byId.put(item.getFoodId(), item);
+        library.byName.put(normalize(item.getFoodName()), item);
+        for (String key : keys(item)) {
+            library.trie.put(key, item, item.getTimesLogged());
+        }
+    }
+
+    private static void remove(UserLibrary library, FoodItem item) {
+        library.byId.remove(item.getFoodId());
+        library.byName.remove(normalize(item.getFoodName()), item);
+        for (String key : keys(item)) {
+            library.trie.remove(key);
+        }
+    }
+
+    /**
+     * One key per word ("chicken-breast" has two): the name from that word on, plus the ID to keep keys unique
+     */
+    private static List<String> keys(FoodItem item) {
+        String name = normalize(item.getFoodName());
+        String suffix = ID_SEPARATOR + Integer.toString(item.getFoodId());
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < name.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+            if (wordStart || (i == 0 && keys.isEmpty())) keys.add(name.substring(i) + suffix);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,184 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+
+/**
+ * NutritionIndex - Range sums and averages of daily calories and macros
+ *
+ * One Fenwick (binary indexed) tree per nutrient over per-day totals, plus one
+ * over "days with at least one entry". Adding or removing a food entry is a
+ * point update and any window (last 7/30/90 days, a month, ...) is answered
+ * with two prefix queries, both O(log days). Averages are per logged day, so
+ * days the user did not log anything do not count as 0 kcal.
+ * Kept up to date by TimeSeriesStore; all methods are thread safe.
+ *
+ * Simple usage:
+ *   NutritionIndex index = TimeSeriesStore.getInstance().getNutritionIndex(userId);
+ *   double avgKcal = index.average(NutritionIndex.CALORIES, today.minusDays(29), today);
+ */
+public class NutritionIndex {
+
+    public static final int CALORIES = TimeSeriesStore.CALORIES;
+    public static final int PROTEIN = TimeSeriesStore.PROTEIN;
+    public static final int CARBS = TimeSeriesStore.CARBS;
+    public static final int FATS = TimeSeriesStore.FATS;
+
+    private static final int NUTRIENTS = 4;
+    // Room left for future days before the trees have to grow
+    private static final int MIN_CAPACITY = 512;
+
+    private int baseDay;            // epoch day stored at position 1
+    private int capacity;           // days covered: baseDay .. baseDay + capacity - 1
+    private double[][] trees;       // [nutrient][1..capacity]
+    private int[] loggedTree;       // days with entries, [1..capacity]
+    private int[] entriesPerDay;    // plain counts, [0..capacity)
+
+    /**
+     * Build from a food series (columns CALORIES, PROTEIN, CARBS, FATS) in O(days)
+     */
+    NutritionIndex(DaySeries food) {
+        int today = (int) LocalDate.now().toEpochDay();
+        int first = food.isEmpty() ? today : Math.min(today, food.day(0));
+        int last = food.isEmpty() ? today : Math.max(today, food.day(food.size() - 1));
+        allocate(first, last);
+
+        for (int i = 0; i < food.size(); i++) {
+            int position = food.day(i) - baseDay + 1;
+            for (int n = 0; n < NUTRIENTS; n++) {
+                trees[n][position] += food.value(n, i);
+            }
+            if (entriesPerDay[position - 1]++ == 0) loggedTree[position] = 1;
+        }
+        // Turn the per-day values into Fenwick trees in place (linear-time build)
+        for (int position = 1; position <= capacity; position++) {
+            int parent = position + (position & -position);
+            if (parent <= capacity) {
+                for (int n = 0; n < NUTRIENTS; n++) {
+                    trees[n][parent] += trees[n][position];
+                }
+                loggedTree[parent] += loggedTree[position];
+            }
+        }
+    }
+
+    /**
+     * Total of a nutrient over the days from..to (both inclusive)
+     */
+    public synchronized double sum(int nutrient, LocalDate from, LocalDate to) {
+        int first = firstPosition(from);
+        int last = lastPosition(to);
+        return first > last ? 0 : prefix(trees[nutrient], last) - prefix(trees[nutrient], first - 1);
+    }
+
+    /**
+     * Number of days from..to with at least one food entry
+     */
+    public synchronized int loggedDays(LocalDate from, LocalDate to) {
+        int first = firstPosition(from);
+        int last = lastPosition(to);
+        return first > last ? 0 : prefix(loggedTree, last) - prefix(loggedTree, first - 1);
+    }
+
+    /**
+     * Average of a nutrient per logged day over from..to (0 if nothing was logged)
+     */
+    public synchronized double average(int nutrient, LocalDate from, LocalDate to) {
+        int days = loggedDays(from, to);
+        return days == 0 ? 0 : sum(nutrient, from, to) / days;
+    }
+
+    /**
+     * Average of a nutrient per logged day over the window of the given length ending on a day
+     */
+    public double rollingAverage(int nutrient, LocalDate end, int days) {
+        return average(nutrient, end.minusDays(days - 1), end);
+    }
+
+    // ==================== UPDATES (from TimeSeriesStore) ====================
+
+    synchronized void add(int epochDay, double calories, double protein, double carbs, double fats) {
+        update(epochDay, 1, calories, protein, carbs, fats);
+    }
+
+    synchronized void remove(int epochDay, double calories, double protein, double carbs, double fats) {
+        update(epochDay, -1, -calories, -protein, -carbs, -fats);
+    }
+
+    private void update(int epochDay, int entryDelta, double... deltas) {
+        if (epochDay < baseDay || epochDay >= baseDay + capacity) {
+            grow(epochDay);
+        }
+        int position = epochDay - baseDay + 1;
+        for (int n = 0; n < NUTRIENTS; n++) {
+            add(trees[n], position, deltas[n]);
+        }
+        int before = entriesPerDay[position - 1];
+        int after = Math.max(0, before + entryDelta);
+        entriesPerDay[position - 1] = after;
+        if (before == 0 && after > 0) add(loggedTree, position, 1);
+        if (before > 0 && after == 0) add(loggedTree, position, -1);
+    }
+
+    /**
+     * Re-allocate so the day fits, keeping every per-day total (O(days))
+     */
+    private void grow(int epochDay) {
+        int oldBase = baseDay;
+        int oldCapacity = capacity;
+        double[][] oldTotals = new double[NUTRIENTS][oldCapacity];
+        for (int n = 0; n < NUTRIENTS; n++) {
+            for (int i = 0; i < oldCapacity; i++) {
+                oldTotals[n][i] = prefix(trees[n], i + 1) - prefix(trees[n], i);
+            }
+        }
+        int[] oldEntries = entriesPerDay;
+
+        allocate(Math.min(epochDay, oldBase), Math.max(epochDay, oldBase + oldCapacity - 1));
+        for (int i = 0; i < oldCapacity; i++) {
+            int position = oldBase + i - baseDay + 1;
+            for (int n = 0; n < NUTRIENTS; n++) {
+                if (oldTotals[n][i] != 0) add(trees[n], position, oldTotals[n][i]);
+            }
+            entriesPerDay[position - 1] = oldEntries[i];
+            if (oldEntries[i] > 0) add(loggedTree, position, 1);
+        }
+    }
+
+    private void allocate(int firstDay, int lastDay) {
+        // Leave room for a year before and after, so most new entries never trigger a grow
+        baseDay = firstDay - 366;
+        capacity = Math.max(MIN_CAPACITY, lastDay - baseDay + 1 + 366);
+        trees = new double[NUTRIENTS][capacity + 1];
+        loggedTree = new int[capacity + 1];
+        entriesPerDay = new int[capacity];
+    }
+
+    // Tree positions covered by a date range, clipped to the index
+    private int firstPosition(LocalDate from) {
+        return (int) Math.min(Math.max(from.toEpochDay() - baseDay + 1, 1), capacity + 1L);
+    }
+
+    private int lastPosition(LocalDate to) {
+        return (int) Math.max(Math.min(to.toEpochDay() - baseDay + 1, capacity), 0L);
+    }
+
+    private static double prefix(double[] tree, int position) {
+        double sum = 0;
+        for (int i = position; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private static int prefix(int[] tree, int position) {
+        int sum = 0;
+        for (int i = position; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private static void add(double[] tree, int position, double delta) {
+        for (int i = position; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    private static void add(int[] tree, int position, int delta) {
+        for (int i = position; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+}
@@ -0,0 +1,102 @@
+package com.fittrack.model;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PasswordHasher - BCrypt hashing with a cost calibrated to this machine
+ *
+ * calibrate() times BCrypt on the host and picks the highest log-rounds whose
+ * hash still finishes within the target latency. Until calibration runs the
+ * BCrypt default (10) is used. The cost never drops below the default, so a
+ * slow machine cannot weaken stored hashes.
+ */
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    public static final int MIN_LOG_ROUNDS = 10;   // BCrypt.gensalt() default
+    public static final int MAX_LOG_ROUNDS = 16;
+    public static final long DEFAULT_TARGET_MILLIS = 250;
+
+    private static volatile int logRounds = MIN_LOG_ROUNDS;
+
+    private PasswordHasher() {}
+
+    /**
+     * Pick the log-rounds that hash in about targetMillis on this host.
+     * Takes a few hundred milliseconds; call it off the FX thread.
+     * @return the chosen log-rounds
+     */
+    public static int calibrate(long targetMillis) {
+        String sample = "calibration-sample";
+        // Warm up the JIT so the first timing isn't inflated
+        BCrypt.hashpw(sample, BCrypt.gensalt(4));
+
+        long start = System.nanoTime();
+        BCrypt.hashpw(sample, BCrypt.gensalt(MIN_LOG_ROUNDS));
+        double millisAtMin = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Each extra round doubles the work
+        int rounds = MIN_LOG_ROUNDS;
+        double projected = millisAtMin;
+        while (rounds < MAX_LOG_ROUNDS && projected * 2 <= targetMillis) {
+            rounds++;
+            projected *= 2;
+        }
+
+        logRounds = rounds;
+        logger.info("✓ BCrypt calibrated: {} log-rounds (~{} ms per hash, target {} ms)",
+            rounds, Math.round(projected), targetMillis);
+        return rounds;
+    }
+
+    /**
+     * Get the log-rounds used for new hashes
+     */
+    public static int getLogRounds() {
+        return logRounds;
+    }
+
+    /**
+     * Hash a password with the current cost
+     */
+    public static String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(logRounds));
+    }
+
+    /**
+     * Check a password against a stored hash (always case-sensitive)
+     */
+    public static boolean verify(String password, String storedHash) {
+        try {
+            return BCrypt.checkpw(password, storedHash);
+        } catch (IllegalArgumentException e) {
+            logger.warn("⚠ Stored password hash is malformed");
+            return false;
+        }
+    }
+
+    /**
+     * Check if a stored hash was made with a lower cost than the current one
+     */
+    public static boolean needsRehash(String storedHash) {
+        int storedRounds = parseLogRounds(storedHash);
+        return storedRounds >= 0 && storedRounds < logRounds;
+    }
+
+    /**
+     * Read the cost from a hash like "$2a$10$...", or -1 if it can't be parsed
+     */
+    static int parseLogRounds(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$') return -1;
+        int costStart = storedHash.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > storedHash.length()) return -1;
+        try {
+            return Integer.parseInt(storedHash.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
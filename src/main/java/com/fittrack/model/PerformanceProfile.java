@@ -0,0 +1,106 @@
+package com.fittrack.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PerformanceProfile - SQLite PRAGMA settings applied at connection setup
+ *
+ * Two profiles are built in:
+ *   PerformanceProfile.tuned()          WAL, synchronous=NORMAL, larger cache, mmap, in-memory temp store
+ *   PerformanceProfile.sqliteDefaults() rollback journal with SQLite's stock settings
+ *
+ * The application uses the tuned profile unless started with
+ *   -Dfittrack.db.profile=default
+ */
+public class PerformanceProfile {
+
+    public static final String PROFILE_PROPERTY = "fittrack.db.profile";
+
+    public final String name;
+    public final String journalMode;        // "WAL", "DELETE", ...
+    public final String synchronous;        // "OFF", "NORMAL", "FULL"
+    public final int cacheSizeKib;          // page cache size per connection
+    public final long mmapSizeBytes;        // 0 disables memory-mapped I/O
+    public final boolean tempStoreMemory;   // keep temp tables/indices in memory
+    public final int busyTimeoutMs;
+    public final long checkpointIntervalSeconds; // background WAL checkpoints, 0 = off
+
+    public PerformanceProfile(String name, String journalMode, String synchronous, int cacheSizeKib,
+                              long mmapSizeBytes, boolean tempStoreMemory, int busyTimeoutMs,
+                              long checkpointIntervalSeconds) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStoreMemory = tempStoreMemory;
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    /**
+     * WAL lets readers run while a write is in progress, and synchronous=NORMAL
+     * only fsyncs at checkpoints instead of on every commit.
+     */
+    public static PerformanceProfile tuned() {
+        return new PerformanceProfile("tuned", "WAL", "NORMAL", 16 * 1024, 256L * 1024 * 1024, true, 5000, 30);
+    }
+
+    /**
+     * SQLite's stock settings (rollback journal, fsync on every commit)
+     */
+    public static PerformanceProfile sqliteDefaults() {
+        return new PerformanceProfile("default", "DELETE", "FULL", 2000, 0, false, 5000, 0);
+    }
+
+    /**
+     * Pick the profile named by the fittrack.db.profile system property (tuned if unset)
+     */
+    public static PerformanceProfile fromSystemProperty() {
+        String value = System.getProperty(PROFILE_PROPERTY, "tuned");
+        return "default".equalsIgnoreCase(value) ? sqliteDefaults() : tuned();
+    }
+
+    /**
+     * Check if this profile uses write-ahead logging
+     */
+    public boolean isWal() {
+        return "WAL".equalsIgnoreCase(journalMode);
+    }
+
+    /**
+     * PRAGMAs for the writer connection (journal mode is stored in the file, so it is set here)
+     */
+    public List<String> writerPragmas() {
+        List<String> pragmas = new ArrayList<>();
+        pragmas.add("PRAGMA journal_mode = " + journalMode);
+        pragmas.addAll(connectionPragmas());
+        return pragmas;
+    }
+
+    /**
+     * PRAGMAs for reader connections
+     */
+    public List<String> readerPragmas() {
+        List<String> pragmas = connectionPragmas();
+        pragmas.add("PRAGMA query_only = ON");
+        return pragmas;
+    }
+
+    private List<String> connectionPragmas() {
+        List<String> pragmas = new ArrayList<>();
+        pragmas.add("PRAGMA busy_timeout = " + busyTimeoutMs);
+        pragmas.add("PRAGMA synchronous = " + synchronous);
+        pragmas.add("PRAGMA cache_size = -" + cacheSizeKib);
+        pragmas.add("PRAGMA mmap_size = " + mmapSizeBytes);
+        pragmas.add("PRAGMA temp_store = " + (tempStoreMemory ? "MEMORY" : "DEFAULT"));
+        return pragmas;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (journal=" + journalMode + ", synchronous=" + synchronous
+            + ", cache=" + cacheSizeKib + " KiB, mmap=" + (mmapSizeBytes / (1024 * 1024)) + " MiB)";
+    }
+}
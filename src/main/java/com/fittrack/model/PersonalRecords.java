@@ -0,0 +1,286 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PersonalRecords - Per-exercise bests (heaviest weight, estimated 1RM, volume) per user
+ *
+ * A user's workout_log is read once, on first use, into one Exercise entry per
+ * workout name (case-insensitive). DatabaseManager reports every save and delete
+ * here: a save is compared against the current bests in O(1); a delete only
+ * matters if the row holds one of its exercise's records, and then just that
+ * exercise is re-read through idx_workout_log_user_name. Lookups are plain map
+ * reads. Logs without a workout name (very old rows) are not tracked. Like
+ * TimeSeriesStore, the getters may hit the database on first use, so call them
+ * off the FX thread; the returned Exercise objects are immutable.
+ *
+ * Ties go to the earlier set (by date, then log ID), both incrementally and on recompute.
+ *
+ * Simple usage:
+ *   PersonalRecords.Exercise bench = PersonalRecords.getInstance().get(userId, "Bench Press");
+ *   if (bench != null && bench.oneRepMax != null) show(bench.oneRepMax.value);
+ */
+public class PersonalRecords {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonalRecords.class);
+
+    private static PersonalRecords instance;
+
+    /**
+     * Record - The set holding one record and the record value
+     */
+    public static final class Record {
+        public final int logId;
+        public final LocalDate date;
+        public final int sets;
+        public final int reps;
+        public final double weightUsed;
+        public final double value;
+
+        Record(WorkoutLog log, double value) {
+            this.logId = log.getId();
+            this.date = log.getDate();
+            this.sets = log.getSets();
+            this.reps = log.getReps();
+            this.weightUsed = log.getWeightUsed();
+            this.value = value;
+        }
+
+        /**
+         * True if this beats the other record (higher value, or equal and logged earlier)
+         */
+        boolean beats(Record other) {
+            if (other == null) return value > 0;
+            if (value != other.value) return value > other.value;
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate < 0 : logId < other.logId;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f (%dx%d @ %.1f kg on %s)", value, sets, reps, weightUsed, date);
+        }
+    }
+
+    /**
+     * Exercise - Current records of one exercise; a record is null until a set with a positive value is logged
+     */
+    public static final class Exercise {
+        public final String name;
+        public final Record heaviest;  // value = weight used
+        public final Record oneRepMax; // value = estimated one-rep max
+        public final Record volume;    // value = sets x reps x weight
+
+        Exercise(String name, Record heaviest, Record oneRepMax, Record volume) {
+            this.name = name;
+            this.heaviest = heaviest;
+            this.oneRepMax = oneRepMax;
+            this.volume = volume;
+        }
+
+        /**
+         * Date of the most recent record of any kind (null if there is none)
+         */
+        public LocalDate getLatestRecordDate() {
+            LocalDate latest = null;
+            for (Record record : new Record[] {heaviest, oneRepMax, volume}) {
+                if (record != null && (latest == null || record.date.isAfter(latest))) latest = record.date;
+            }
+            return latest;
+        }
+
+        /**
+         * This exercise with one more set taken into account (this if no record changes)
+         */
+        Exercise with(WorkoutLog log) {
+            Record weight = new Record(log, log.getWeightUsed());
+            Record estimate = new Record(log, estimateOneRepMax(log.getWeightUsed(), log.getReps()));
+            Record total = new Record(log, log.getSets() * log.getReps() * log.getWeightUsed());
+            boolean newWeight = weight.beats(heaviest);
+            boolean newEstimate = estimate.beats(oneRepMax);
+            boolean newVolume = total.beats(volume);
+            if (!newWeight && !newEstimate && !newVolume) return this;
+            return new Exercise(name, newWeight ? weight : heaviest, newEstimate ? estimate : oneRepMax,
+                newVolume ? total : volume);
+        }
+
+        @Override
+        public String toString() {
+            return name + "{heaviest=" + heaviest + ", oneRepMax=" + oneRepMax + ", volume=" + volume + '}';
+        }
+    }
+
+    /**
+     * Records of one user; exercise keys come from key(name)
+     */
+    private static final class UserRecords {
+        final Map<String, Exercise> exercises = new HashMap<>();
+        // Log ID -> exercise key, for the (at most three per exercise) sets that hold a record
+        final Map<Integer, String> holders = new HashMap<>();
+    }
+
+    private final DatabaseManager dbManager;
+    private final Map<Integer, UserRecords> users = new HashMap<>(); // guarded by this
+
+    PersonalRecords(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized PersonalRecords getInstance() {
+        if (instance == null) {
+            instance = new PersonalRecords(new DatabaseManager());
+        }
+        return instance;
+    }
+
+    /**
+     * Estimated one-rep max of a set: Brzycki up to 10 reps (where it fits best), Epley above.
+     * Both give weight x 4/3 at exactly 10 reps, so the estimate has no jump there.
+     */
+    public static double estimateOneRepMax(double weight, int reps) {
+        if (weight <= 0 || reps <= 0) return 0;
+        if (reps == 1) return weight;
+        return reps <= 10 ? brzycki(weight, reps) : epley(weight, reps);
+    }
+
+    public static double epley(double weight, int reps) {
+        return weight * (1 + reps / 30.0);
+    }
+
+    public static double brzycki(double weight, int reps) {
+        return reps >= 37 ? Double.NaN : weight * 36 / (37 - reps);
+    }
+
+    /**
+     * Records of one exercise, or null if it was never logged
+     */
+    public synchronized Exercise get(int userId, String workoutName) {
+        return workoutName == null ? null : load(userId).exercises.get(key(workoutName));
+    }
+
+    /**
+     * Records of every exercise, most recent record first
+     */
+    public synchronized List<Exercise> getAll(int userId) {
+        List<Exercise> all = new ArrayList<>(load(userId).exercises.values());
+        all.removeIf(exercise -> exercise.getLatestRecordDate() == null);
+        all.sort(Comparator.comparing(Exercise::getLatestRecordDate).reversed()
+            .thenComparing(exercise -> exercise.name, String.CASE_INSENSITIVE_ORDER));
+        return all;
+    }
+
+    /**
+     * Forget a user's records; they are rebuilt on next use (e.g. after a bulk import)
+     */
+    public synchronized void invalidate(int userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Forget every loaded user (e.g. on logout)
+     */
+    public synchronized void clear() {
+        users.clear();
+    }
+
+    private UserRecords load(int userId) {
+        UserRecords records = users.get(userId);
+        if (records == null) {
+            long start = System.nanoTime();
+            records = new UserRecords();
+            List<WorkoutLog> logs = dbManager.getExerciseHistory(userId, null, 0);
+            for (WorkoutLog log : logs) {
+                if (isTracked(log)) apply(records, log);
+            }
+            users.put(userId, records);
+            logger.info("✓ Built personal records for user ID {} in {} ms ({} exercises from {} logs)", userId,
+                (System.nanoTime() - start) / 1_000_000, records.exercises.size(), logs.size());
+        }
+        return records;
+    }
+
+    // ==================== WRITE NOTIFICATIONS (from DatabaseManager) ====================
+
+    synchronized void workoutSaved(WorkoutLog log) {
+        UserRecords records = users.get(log.getUserId());
+        if (records == null || !isTracked(log)) return;
+        Exercise before = records.exercises.get(key(log.getWorkoutName()));
+        Exercise after = apply(records, log);
+        if (after != before && before != null) {
+            logger.info("✓ New personal record for {}: {}", after.name, after);
+        }
+    }
+
+    synchronized void workoutDeleted(int logId) {
+        for (Map.Entry<Integer, UserRecords> entry : users.entrySet()) {
+            UserRecords records = entry.getValue();
+            String key = records.holders.get(logId);
+            if (key == null) continue; // not a record holder, nothing changes
+            recompute(entry.getKey(), records, key, logId);
+        }
+    }
+
+    /**
+     * Rebuild one exercise from its own rows (indexed by user and name), leaving out a deleted log
+     */
+    private void recompute(int userId, UserRecords records, String key, int deletedLogId) {
+        Exercise old = records.exercises.remove(key);
+        unregister(records, old);
+        for (WorkoutLog log : dbManager.getExerciseHistory(userId, old.name, deletedLogId)) {
+            if (isTracked(log)) apply(records, log);
+        }
+        logger.debug("Recomputed personal records for {} after deleting log ID {}", old.name, deletedLogId);
+    }
+
+    private Exercise apply(UserRecords records, WorkoutLog log) {
+        String key = key(log.getWorkoutName());
+        Exercise current = records.exercises.get(key);
+        Exercise updated = (current != null ? current : new Exercise(log.getWorkoutName(), null, null, null)).with(log);
+        if (updated != current) {
+            unregister(records, current);
+            records.exercises.put(key, updated);
+            register(records, updated, key);
+        }
+        return updated;
+    }
+
+    private static void register(UserRecords records, Exercise exercise, String key) {
+        for (Record record : new Record[] {exercise.heaviest, exercise.oneRepMax, exercise.volume}) {
+            if (record != null) records.holders.put(record.logId, key);
+        }
+    }
+
+    private static void unregister(UserRecords records, Exercise exercise) {
+        if (exercise == null) return;
+        for (Record record : new Record[] {exercise.heaviest, exercise.oneRepMax, exercise.volume}) {
+            if (record != null) records.holders.remove(record.logId);
+        }
+    }
+
+    private static boolean isTracked(WorkoutLog log) {
+        return log.getWorkoutName() != null && !log.getWorkoutName().isEmpty() && log.getDate() != null;
+    }
+
+    /**
+     * Case-insensitive key matching SQLite's NOCASE collation (ASCII letters only)
+     */
+    static String key(String workoutName) {
+        StringBuilder key = new StringBuilder(workoutName.length());
+        for (int i = 0; i < workoutName.length(); i++) {
+            char c = workoutName.charAt(i);
+            key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.fittrack.model;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SchemaInfo - In-memory snapshot of the database schema
+ *
+ * Loaded once after migrations so DAO methods can check for tables and
+ * columns without running PRAGMA table_info on every call.
+ */
+public class SchemaInfo {
+
+    private final Map<String, Set<String>> columnsByTable;
+
+    private SchemaInfo(Map<String, Set<String>> columnsByTable) {
+        this.columnsByTable = columnsByTable;
+    }
+
+    /**
+     * Read table and column names from the database
+     * @param conn an open connection
+     * @return immutable schema snapshot
+     */
+    public static SchemaInfo load(Connection conn) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+
+        Map<String, Set<String>> columnsByTable = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : tables) {
+                Set<String> columns = new HashSet<>();
+                try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(\"" + table.replace("\"", "\"\"") + "\")")) {
+                    while (rs.next()) {
+                        columns.add(rs.getString("name").toLowerCase());
+                    }
+                }
+                columnsByTable.put(table.toLowerCase(), Collections.unmodifiableSet(columns));
+            }
+        }
+        return new SchemaInfo(Collections.unmodifiableMap(columnsByTable));
+    }
+
+    /**
+     * Check if a table exists
+     */
+    public boolean hasTable(String table) {
+        return columnsByTable.containsKey(table.toLowerCase());
+    }
+
+    /**
+     * Check if a table has the given column
+     */
+    public boolean hasColumn(String table, String column) {
+        Set<String> columns = columnsByTable.get(table.toLowerCase());
+        return columns != null && columns.contains(column.toLowerCase());
+    }
+}
@@ -0,0 +1,292 @@
+package com.fittrack.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SchemaMigrator - Versioned, ordered schema migrations
+ *
+ * The applied version is recorded in the schema_version table. On startup every
+ * migration newer than the recorded version runs in its own transaction, in
+ * ascending order. Steps must be idempotent (IF NOT EXISTS, column checks) so a
+ * database that was patched by hand still migrates cleanly.
+ *
+ * To add a migration, append it to MIGRATIONS with the next version number.
+ * Never renumber or edit a migration that has already shipped.
+ */
+public class SchemaMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    /**
+     * A single schema change
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Migration - Version number, description and the step to run
+     */
+    public static class Migration {
+        public final int version;
+        public final String description;
+        public final MigrationStep step;
+
+        public Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        /**
+         * Create a migration that runs plain SQL statements in order
+         */
+        public static Migration ofSql(int version, String description, String... statements) {
+            return new Migration(version, description, conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : statements) {
+                        stmt.execute(sql);
+                    }
+                }
+            });
+        }
+    }
+
+    // Trigger bodies for the daily_summary rollup (NEW/OLD refer to the food_log or workout_log row)
+    private static final String FOOD_SUMMARY_ADD =
+        "INSERT INTO daily_summary(user_id, date, calories, protein, carbs, fats, food_entries) "
+        + "VALUES(NEW.user_id, NEW.date, NEW.calories, COALESCE(NEW.protein, 0), COALESCE(NEW.carbs, 0), "
+        + "COALESCE(NEW.fats, 0), 1) "
+        + "ON CONFLICT(user_id, date) DO UPDATE SET calories = calories + excluded.calories, "
+        + "protein = protein + excluded.protein, carbs = carbs + excluded.carbs, fats = fats + excluded.fats, "
+        + "food_entries = food_entries + 1;";
+
+    private static final String FOOD_SUMMARY_SUBTRACT =
+        "UPDATE daily_summary SET calories = calories - OLD.calories, "
+        + "protein = protein - COALESCE(OLD.protein, 0), carbs = carbs - COALESCE(OLD.carbs, 0), "
+        + "fats = fats - COALESCE(OLD.fats, 0), food_entries = food_entries - 1 "
+        + "WHERE user_id = OLD.user_id AND date = OLD.date;";
+
+    private static final String WORKOUT_SUMMARY_ADD =
+        "INSERT INTO daily_summary(user_id, date, sets, volume_kg, workout_entries) "
+        + "VALUES(NEW.user_id, NEW.date, COALESCE(NEW.sets, 0), "
+        + "COALESCE(NEW.sets, 0) * COALESCE(NEW.reps, 0) * COALESCE(NEW.weight_used, 0), 1) "
+        + "ON CONFLICT(user_id, date) DO UPDATE SET sets = sets + excluded.sets, "
+        + "volume_kg = volume_kg + excluded.volume_kg, workout_entries = workout_entries + 1;";
+
+    private static final String WORKOUT_SUMMARY_SUBTRACT =
+        "UPDATE daily_summary SET sets = sets - COALESCE(OLD.sets, 0), "
+        + "volume_kg = volume_kg - COALESCE(OLD.sets, 0) * COALESCE(OLD.reps, 0) * COALESCE(OLD.weight_used, 0), "
+        + "workout_entries = workout_entries - 1 "
+        + "WHERE user_id = OLD.user_id AND date = OLD.date;";
+
+    // Drop a day once nothing is logged on it any more
+    private static final String SUMMARY_CLEANUP =
+        "DELETE FROM daily_summary WHERE user_id = OLD.user_id AND date = OLD.date "
+        + "AND food_entries <= 0 AND workout_entries <= 0;";
+
+    // Recomputes daily_summary from the raw logs; also used by DatabaseManager.rebuildDailySummary()
+    static final String REBUILD_DAILY_SUMMARY_SQL =
+        "INSERT INTO daily_summary(user_id, date, calories, protein, carbs, fats, food_entries, "
+        + "sets, volume_kg, workout_entries) "
+        + "SELECT user_id, date, SUM(calories), SUM(protein), SUM(carbs), SUM(fats), SUM(food_entries), "
+        + "SUM(sets), SUM(volume_kg), SUM(workout_entries) FROM ("
+        + "  SELECT user_id, date, calories, COALESCE(protein, 0) AS protein, COALESCE(carbs, 0) AS carbs, "
+        + "         COALESCE(fats, 0) AS fats, 1 AS food_entries, 0 AS sets, 0 AS volume_kg, 0 AS workout_entries "
+        + "  FROM food_log"
+        + "  UNION ALL"
+        + "  SELECT user_id, date, 0, 0, 0, 0, 0, COALESCE(sets, 0), "
+        + "         COALESCE(sets, 0) * COALESCE(reps, 0) * COALESCE(weight_used, 0), 1 "
+        + "  FROM workout_log"
+        + ") GROUP BY user_id, date";
+
+    // Ordered list of all migrations, oldest first
+    private static final List<Migration> MIGRATIONS = List.of(
+        Migration.ofSql(1, "Index per-user history tables by (user_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_workout_log_user_date ON workout_log(user_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_food_log_user_date ON food_log(user_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_weight_history_user_date ON weight_history(user_id, date)"),
+
+        Migration.ofSql(2, "Index goals and workout plans by (user_id, created_at)",
+            "CREATE INDEX IF NOT EXISTS idx_goals_user_created ON goals(user_id, created_at)",
+            "CREATE INDEX IF NOT EXISTS idx_workout_plans_user_created ON workout_plans(user_id, created_at)"),
+
+        new Migration(3, "Add workout_name column to workout_log", conn -> {
+            if (!SchemaInfo.load(conn).hasColumn("workout_log", "workout_name")) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE workout_log ADD COLUMN workout_name TEXT");
+                }
+            }
+        }),
+
+        // Triggers keep the rollup in the same transaction as the food/workout write,
+        // so every write path (DAO, commands, bulk imports) stays consistent
+        Migration.ofSql(4, "Add daily_summary rollup maintained by triggers",
+            "CREATE TABLE IF NOT EXISTS daily_summary (\n"
+                + "    user_id INTEGER NOT NULL,\n"
+                + "    date DATE NOT NULL,\n"
+                + "    calories INTEGER NOT NULL DEFAULT 0,\n"
+                + "    protein REAL NOT NULL DEFAULT 0,\n"
+                + "    carbs REAL NOT NULL DEFAULT 0,\n"
+                + "    fats REAL NOT NULL DEFAULT 0,\n"
+                + "    food_entries INTEGER NOT NULL DEFAULT 0,\n"
+                + "    sets INTEGER NOT NULL DEFAULT 0,\n"
+                + "    volume_kg REAL NOT NULL DEFAULT 0,\n"
+                + "    workout_entries INTEGER NOT NULL DEFAULT 0,\n"
+                + "    PRIMARY KEY (user_id, date),\n"
+                + "    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE\n"
+                + ") WITHOUT ROWID",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_food_log_summary_insert AFTER INSERT ON food_log BEGIN\n"
+                + FOOD_SUMMARY_ADD + "\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_food_log_summary_delete AFTER DELETE ON food_log BEGIN\n"
+                + FOOD_SUMMARY_SUBTRACT + "\n"
+                + SUMMARY_CLEANUP + "\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_food_log_summary_update "
+                + "AFTER UPDATE OF user_id, date, calories, protein, carbs, fats ON food_log BEGIN\n"
+                + FOOD_SUMMARY_SUBTRACT + "\n"
+                + SUMMARY_CLEANUP + "\n"
+                + FOOD_SUMMARY_ADD + "\n"
+                + "END",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_workout_log_summary_insert AFTER INSERT ON workout_log BEGIN\n"
+                + WORKOUT_SUMMARY_ADD + "\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_workout_log_summary_delete AFTER DELETE ON workout_log BEGIN\n"
+                + WORKOUT_SUMMARY_SUBTRACT + "\n"
+                + SUMMARY_CLEANUP + "\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_workout_log_summary_update "
+                + "AFTER UPDATE OF user_id, date, sets, reps, weight_used ON workout_log BEGIN\n"
+                + WORKOUT_SUMMARY_SUBTRACT + "\n"
+                + SUMMARY_CLEANUP + "\n"
+                + WORKOUT_SUMMARY_ADD + "\n"
+                + "END",
+
+            // Backfill from existing history
+            "DELETE FROM daily_summary",
+            REBUILD_DAILY_SUMMARY_SQL),
+
+        // NOCASE so PersonalRecords' "workout_name = ? COLLATE NOCASE" lookups can use it; date (and the
+        // implicit rowid) let them come back in (date, log_id) order without a sort
+        Migration.ofSql(5, "Index workout_log by (user_id, workout_name, date)",
+            "CREATE INDEX IF NOT EXISTS idx_workout_log_user_name "
+                + "ON workout_log(user_id, workout_name COLLATE NOCASE, date)"),
+
+        // External-content FTS5 index over food_library: the text lives only in food_library,
+        // triggers keep the index in step, and prefix='2 3' makes short type-ahead prefixes cheap
+        Migration.ofSql(6, "Add food_library full-text search maintained by triggers",
+            "CREATE INDEX IF NOT EXISTS idx_food_library_user_name "
+                + "ON food_library(created_by_user_id, food_name COLLATE NOCASE)",
+            "CREATE VIRTUAL TABLE IF NOT EXISTS food_library_fts USING fts5("
+                + "food_name, content='food_library', content_rowid='food_id', "
+                + "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_food_library_fts_insert AFTER INSERT ON food_library BEGIN\n"
+                + "    INSERT INTO food_library_fts(rowid, food_name) VALUES (new.food_id, new.food_name);\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_food_library_fts_delete AFTER DELETE ON food_library BEGIN\n"
+                + "    INSERT INTO food_library_fts(food_library_fts, rowid, food_name) "
+                + "VALUES ('delete', old.food_id, old.food_name);\n"
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_food_library_fts_update AFTER UPDATE OF food_name ON food_library BEGIN\n"
+                + "    INSERT INTO food_library_fts(food_library_fts, rowid, food_name) "
+                + "VALUES ('delete', old.food_id, old.food_name);\n"
+                + "    INSERT INTO food_library_fts(rowid, food_name) VALUES (new.food_id, new.food_name);\n"
+                + "END",
+
+            // Backfill from existing rows
+            "INSERT INTO food_library_fts(food_library_fts) VALUES ('rebuild')")
+    );
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort((a, b) -> Integer.compare(a.version, b.version));
+        this.migrations = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Apply every pending migration.
+     * @param conn writer connection (auto-commit is restored afterwards)
+     * @return the schema version after migrating
+     * @throws SQLException if a migration fails; that migration is rolled back
+     */
+    public int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (\n"
+                + "    version INTEGER PRIMARY KEY,\n"
+                + "    description TEXT NOT NULL,\n"
+                + "    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP\n"
+                + ");");
+        }
+
+        int current = getCurrentVersion(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migration migration : migrations) {
+                if (migration.version <= current) continue;
+
+                conn.setAutoCommit(false);
+                try {
+                    migration.step.apply(conn);
+                    recordVersion(conn, migration);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    logger.error("✗ Migration {} failed: {}", migration.version, e.getMessage(), e);
+                    throw e;
+                }
+                current = migration.version;
+                logger.info("✓ Applied migration {}: {}", migration.version, migration.description);
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    /**
+     * Get the latest applied schema version, or 0 if none
+     */
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Get the version the newest known migration brings the schema to
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    private void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version(version, description) VALUES(?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+}
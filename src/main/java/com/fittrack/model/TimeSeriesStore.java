@@ -0,0 +1,187 @@
+package com.fittrack.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TimeSeriesStore - In-memory per-user weight, food and workout history for analytics
+ *
+ * A user's three histories are loaded from the database once, on first use, into
+ * columnar DaySeries. DatabaseManager reports every save and delete here, so the
+ * series stay in sync without reloading; writes for users that are not loaded are
+ * ignored (they are read on first use anyway). Bulk imports call invalidate().
+ * The getters may hit the database on first use, so call them off the FX thread
+ * (AsyncDatabaseManager has wrappers); the returned snapshots are safe to read
+ * anywhere.
+ *
+ * Columns:
+ *   weights:  WEIGHT
+ *   food:     CALORIES, PROTEIN, CARBS, FATS
+ *   workouts: SETS, REPS, LOAD (weight used), VOLUME (sets x reps x weight)
+ * Food is also indexed per day in a NutritionIndex for O(log n) window averages,
+ * and workout volume feeds a TrainingLoad (acute:chronic workload) with O(1) updates.
+ */
+public class TimeSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesStore.class);
+
+    public static final int WEIGHT = 0;
+
+    public static final int CALORIES = 0;
+    public static final int PROTEIN = 1;
+    public static final int CARBS = 2;
+    public static final int FATS = 3;
+
+    public static final int SETS = 0;
+    public static final int REPS = 1;
+    public static final int LOAD = 2;
+    public static final int VOLUME = 3;
+
+    private static TimeSeriesStore instance;
+
+    /**
+     * The three series of one user; each field is swapped for a new snapshot on write
+     */
+    private static final class UserSeries {
+        volatile DaySeries weights;
+        volatile DaySeries food;
+        volatile DaySeries workouts;
+        NutritionIndex nutrition; // updated in place, internally synchronized
+        TrainingLoad training;    // likewise
+    }
+
+    private final DatabaseManager dbManager;
+    // Loading and write notifications are serialized on this, so a write is never
+    // lost or applied twice around a load (inserts are ignored if the ID is present)
+    private final Map<Integer, UserSeries> users = new HashMap<>(); // guarded by this
+
+    TimeSeriesStore(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized TimeSeriesStore getInstance() {
+        if (instance == null) {
+            instance = new TimeSeriesStore(new DatabaseManager());
+        }
+        return instance;
+    }
+
+    public DaySeries getWeights(int userId) {
+        return load(userId).weights;
+    }
+
+    public DaySeries getFood(int userId) {
+        return load(userId).food;
+    }
+
+    public DaySeries getWorkouts(int userId) {
+        return load(userId).workouts;
+    }
+
+    public NutritionIndex getNutritionIndex(int userId) {
+        return load(userId).nutrition;
+    }
+
+    public TrainingLoad getTrainingLoad(int userId) {
+        return load(userId).training;
+    }
+
+    /**
+     * Forget a user's series; they are reloaded on next use (e.g. after a bulk import)
+     */
+    public synchronized void invalidate(int userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Forget every loaded user (e.g. on logout)
+     */
+    public synchronized void clear() {
+        users.clear();
+    }
+
+    private synchronized UserSeries load(int userId) {
+        UserSeries series = users.get(userId);
+        if (series == null) {
+            long start = System.nanoTime();
+            series = new UserSeries();
+            series.weights = dbManager.loadWeightSeries(userId);
+            series.food = dbManager.loadFoodSeries(userId);
+            series.workouts = dbManager.loadWorkoutSeries(userId);
+            series.nutrition = new NutritionIndex(series.food);
+            series.training = new TrainingLoad(series.workouts);
+            users.put(userId, series);
+            logger.info("✓ Loaded time series for user ID {} in {} ms ({} weights, {} food, {} workouts)", userId,
+                (System.nanoTime() - start) / 1_000_000, series.weights.size(), series.food.size(), series.workouts.size());
+        }
+        return series;
+    }
+
+    // ==================== WRITE NOTIFICATIONS (from DatabaseManager) ====================
+
+    synchronized void weightSaved(WeightHistory entry) {
+        UserSeries series = users.get(entry.getUserId());
+        if (series == null || entry.getDate() == null) return;
+        series.weights = series.weights.with(entry.getId(), (int) entry.getDate().toEpochDay(), entry.getWeight());
+    }
+
+    synchronized void weightDeleted(int historyId) {
+        for (UserSeries series : users.values()) {
+            series.weights = series.weights.without(historyId);
+        }
+    }
+
+    synchronized void foodSaved(FoodLog log) {
+        UserSeries series = users.get(log.getUserId());
+        if (series == null || log.getDate() == null) return;
+        int day = (int) log.getDate().toEpochDay();
+        DaySeries updated = series.food.with(log.getId(), day,
+            log.getCalories(), log.getProtein(), log.getCarbs(), log.getFats());
+        if (updated != series.food) {
+            series.food = updated;
+            series.nutrition.add(day, log.getCalories(), log.getProtein(), log.getCarbs(), log.getFats());
+        }
+    }
+
+    synchronized void foodDeleted(int foodLogId) {
+        for (UserSeries series : users.values()) {
+            DaySeries food = series.food;
+            int at = food.indexOfId(foodLogId);
+            if (at < 0) continue;
+            series.food = food.without(foodLogId);
+            series.nutrition.remove(food.day(at), food.value(CALORIES, at), food.value(PROTEIN, at),
+                food.value(CARBS, at), food.value(FATS, at));
+        }
+    }
+
+    synchronized void workoutSaved(WorkoutLog log) {
+        UserSeries series = users.get(log.getUserId());
+        if (series == null || log.getDate() == null) return;
+        int day = (int) log.getDate().toEpochDay();
+        double volume = log.getSets() * log.getReps() * log.getWeightUsed();
+        DaySeries updated = series.workouts.with(log.getId(), day, log.getSets(), log.getReps(), log.getWeightUsed(),
+            volume);
+        if (updated != series.workouts) {
+            series.workouts = updated;
+            series.training.add(day, volume);
+        }
+    }
+
+    synchronized void workoutDeleted(int logId) {
+        for (UserSeries series : users.values()) {
+            DaySeries workouts = series.workouts;
+            int at = workouts.indexOfId(logId);
+            if (at < 0) continue;
+            series.workouts = workouts.without(logId);
+            if (series.training.remove(workouts.day(at), workouts.value(VOLUME, at))) {
+                series.training.rebuild(series.workouts); // the newest day is gone; step back to the one before
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * TrainingLoad - Acute:chronic workload ratio, monotony and strain from daily training volume
+ *
+ * Daily load is the day's workout volume (sets x reps x weight). Acute (7-day) and
+ * chronic (28-day) loads are exponentially weighted moving averages with
+ * lambda = 2 / (N + 1). An EWMA is linear in the daily loads, so a set logged on
+ * day d changes the averages at the reference day r by lambda * (1 - lambda)^(r - d)
+ * times its volume: every save or delete is O(1), whatever its date, and moving to
+ * a later day just decays both averages. The last 7 daily loads are kept in a
+ * ring for Foster's monotony (mean / standard deviation) and strain (weekly load
+ * x monotony). Kept up to date by TimeSeriesStore, which rebuilds it from the
+ * workout series when the newest day's sets are all deleted (e.g. a mis-dated
+ * future set), so the averages move back to the newest day still logged. All
+ * methods are thread safe.
+ *
+ * Values are as of the given day, or as of the newest logged day if that is later.
+ *
+ * Simple usage:
+ *   TrainingLoad load = TimeSeriesStore.getInstance().getTrainingLoad(userId);
+ *   double ratio = load.acwr(LocalDate.now());
+ */
+public class TrainingLoad {
+
+    public static final int ACUTE_DAYS = 7;
+    public static final int CHRONIC_DAYS = 28;
+
+    private static final double ACUTE_DECAY = 1 - 2.0 / (ACUTE_DAYS + 1);
+    private static final double CHRONIC_DECAY = 1 - 2.0 / (CHRONIC_DAYS + 1);
+    // A daily load this close to 0 is rounding left over from deletes
+    private static final double EMPTY_LOAD = 1e-6;
+
+    private boolean empty = true;
+    private int referenceDay;   // epoch day the averages are at (newest logged day)
+    private double acute;
+    private double chronic;
+    // Daily load of referenceDay - 6 .. referenceDay, slot = floorMod(day, ACUTE_DAYS)
+    private final double[] recentLoads = new double[ACUTE_DAYS];
+
+    /**
+     * Backfill from a workout series (VOLUME column) in one pass over its rows, oldest first
+     */
+    TrainingLoad(DaySeries workouts) {
+        rebuild(workouts);
+    }
+
+    /**
+     * 7-day exponentially weighted average daily load
+     */
+    public synchronized double acute(LocalDate day) {
+        // max(0, ...) hides rounding left over when every set was deleted again
+        return empty ? 0 : Math.max(0, acute * Math.pow(ACUTE_DECAY, daysAfterReference(day)));
+    }
+
+    /**
+     * 28-day exponentially weighted average daily load
+     */
+    public synchronized double chronic(LocalDate day) {
+        return empty ? 0 : Math.max(0, chronic * Math.pow(CHRONIC_DECAY, daysAfterReference(day)));
+    }
+
+    /**
+     * Acute:chronic workload ratio (NaN while there is no chronic load)
+     */
+    public synchronized double acwr(LocalDate day) {
+        double chronicLoad = chronic(day);
+        return chronicLoad > 0 ? acute(day) / chronicLoad : Double.NaN;
+    }
+
+    /**
+     * Total load of the 7 days ending on the day
+     */
+    public synchronized double weeklyLoad(LocalDate day) {
+        double total = 0;
+        for (double load : lastWeek(day)) total += load;
+        return total;
+    }
+
+    /**
+     * Foster's monotony over the 7 days ending on the day: mean / standard deviation
+     * of the daily loads (NaN if the loads do not vary, e.g. nothing was logged)
+     */
+    public synchronized double monotony(LocalDate day) {
+        double[] loads = lastWeek(day);
+        double mean = 0;
+        for (double load : loads) mean += load;
+        mean /= loads.length;
+        double variance = 0;
+        for (double load : loads) variance += (load - mean) * (load - mean);
+        double deviation = Math.sqrt(variance / loads.length);
+        return deviation > 0 ? mean / deviation : Double.NaN;
+    }
+
+    /**
+     * Foster's strain over the 7 days ending on the day: weekly load x monotony
+     */
+    public synchronized double strain(LocalDate day) {
+        return weeklyLoad(day) * monotony(day);
+    }
+
+    // ==================== UPDATES (from TimeSeriesStore) ====================
+
+    synchronized void add(int epochDay, double volume) {
+        if (empty) {
+            empty = false;
+            referenceDay = epochDay;
+        } else if (epochDay > referenceDay) {
+            advanceTo(epochDay);
+        }
+        int age = referenceDay - epochDay;
+        acute += (1 - ACUTE_DECAY) * Math.pow(ACUTE_DECAY, age) * volume;
+        chronic += (1 - CHRONIC_DECAY) * Math.pow(CHRONIC_DECAY, age) * volume;
+        if (age < ACUTE_DAYS) recentLoads[Math.floorMod(epochDay, ACUTE_DAYS)] += volume;
+    }
+
+    /**
+     * @return true if this emptied the newest logged day; the averages then stay at that
+     *         day until rebuild() moves them back to the newest day still logged
+     */
+    synchronized boolean remove(int epochDay, double volume) {
+        if (empty) return false;
+        add(epochDay, -volume);
+        return epochDay == referenceDay && Math.abs(recentLoads[Math.floorMod(epochDay, ACUTE_DAYS)]) < EMPTY_LOAD;
+    }
+
+    /**
+     * Start over from a workout series (VOLUME column), oldest row first
+     */
+    synchronized void rebuild(DaySeries workouts) {
+        empty = true;
+        referenceDay = 0;
+        acute = 0;
+        chronic = 0;
+        Arrays.fill(recentLoads, 0);
+        for (int i = 0; i < workouts.size(); i++) {
+            add(workouts.day(i), workouts.value(TimeSeriesStore.VOLUME, i));
+        }
+    }
+
+    /**
+     * Decay both averages to a later day and drop daily loads that leave the week
+     */
+    private void advanceTo(int epochDay) {
+        int gap = epochDay - referenceDay;
+        acute *= Math.pow(ACUTE_DECAY, gap);
+        chronic *= Math.pow(CHRONIC_DECAY, gap);
+        for (int day = Math.max(referenceDay + 1, epochDay - ACUTE_DAYS + 1); day <= epochDay; day++) {
+            recentLoads[Math.floorMod(day, ACUTE_DAYS)] = 0;
+        }
+        referenceDay = epochDay;
+    }
+
+    private int daysAfterReference(LocalDate day) {
+        return (int) Math.max(0, day.toEpochDay() - referenceDay);
+    }
+
+    // Daily loads of the 7 days ending on the day (days after the newest logged day are 0)
+    private double[] lastWeek(LocalDate day) {
+        double[] loads = new double[ACUTE_DAYS];
+        if (empty) return loads;
+        int end = referenceDay + daysAfterReference(day);
+        for (int i = 0; i < ACUTE_DAYS; i++) {
+            int d = end - i;
+            if (d <= referenceDay && d > referenceDay - ACUTE_DAYS) {
+                loads[i] = recentLoads[Math.floorMod(d, ACUTE_DAYS)];
+            }
+        }
+        return loads;
+    }
+}
@@ -0,0 +1,79 @@
+package com.fittrack.model;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WalCheckpointer - Runs periodic WAL checkpoints on a background thread
+ *
+ * Checkpointing from the background keeps the -wal file small without making
+ * a user-facing write pay for the auto-checkpoint. A final TRUNCATE checkpoint
+ * runs on stop() so the WAL file is emptied on exit.
+ */
+public class WalCheckpointer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalCheckpointer.class);
+
+    private final ConnectionPool pool;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    public WalCheckpointer(ConnectionPool pool, long intervalSeconds) {
+        this.pool = pool;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Start the background checkpoint thread (no-op if already running or interval is 0)
+     */
+    public synchronized void start() {
+        if (scheduler != null || intervalSeconds <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fittrack-wal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> checkpoint("PASSIVE"),
+            intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("✓ WAL checkpoints scheduled every {} s", intervalSeconds);
+    }
+
+    /**
+     * Stop the background thread and truncate the WAL file
+     */
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+        checkpoint("TRUNCATE");
+    }
+
+    /**
+     * Run a checkpoint now
+     * @param mode PASSIVE, FULL, RESTART or TRUNCATE
+     * @return true if the checkpoint completed without being blocked
+     */
+    public boolean checkpoint(String mode) {
+        try (Connection conn = pool.acquireWriter();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            if (rs.next()) {
+                boolean busy = rs.getInt(1) != 0;
+                logger.debug("WAL checkpoint {}: busy={}, log={}, checkpointed={}",
+                    mode, busy, rs.getInt(2), rs.getInt(3));
+                return !busy;
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠ WAL checkpoint failed: {}", e.getMessage());
+        }
+        return false;
+    }
+}
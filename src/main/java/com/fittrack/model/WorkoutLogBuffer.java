@@ -0,0 +1,190 @@
+package com.fittrack.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WorkoutLogBuffer - Optional write-behind queue for logging workout sets
+ *
+ * In BUFFERED mode add() returns at once and the set is written later, together
+ * with any other pending sets, in a single transaction: after flushMillis, or
+ * as soon as maxPending sets are queued. SceneSwitcher and FitTrackApp.stop()
+ * call flush() so other screens and the next launch see every set.
+ * In SYNC mode add() commits before returning, like saveWorkoutLog().
+ *
+ * Durability is chosen with system properties:
+ *   -Dfittrack.workout.durability=sync|buffered   (default buffered)
+ *   -Dfittrack.workout.flushMillis=500            (BUFFERED: max delay before a write)
+ *   -Dfittrack.workout.maxPending=20              (BUFFERED: flush early at this many sets)
+ * In BUFFERED mode a crash or power loss can drop up to flushMillis of sets.
+ * SYNC loses nothing that add() acknowledged (subject to the PRAGMA synchronous
+ * level of the active PerformanceProfile).
+ */
+public class WorkoutLogBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutLogBuffer.class);
+
+    public static final String DURABILITY_PROPERTY = "fittrack.workout.durability";
+    public static final String FLUSH_MILLIS_PROPERTY = "fittrack.workout.flushMillis";
+    public static final String MAX_PENDING_PROPERTY = "fittrack.workout.maxPending";
+
+    public enum Durability {
+        SYNC,       // commit before acknowledging
+        BUFFERED    // acknowledge now, commit within flushMillis
+    }
+
+    private static WorkoutLogBuffer instance;
+
+    private final DatabaseManager dbManager;
+    private final Durability durability;
+    private final long flushMillis;
+    private final int maxPending;
+
+    private final List<WorkoutLog> pending = new ArrayList<>(); // guarded by this
+    private ScheduledFuture<?> scheduledFlush;                  // guarded by this
+    // Held while a batch is being written, so delete() can wait for its IDs
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService scheduler;
+
+    WorkoutLogBuffer(DatabaseManager dbManager, Durability durability, long flushMillis, int maxPending) {
+        this.dbManager = dbManager;
+        this.durability = durability;
+        this.flushMillis = flushMillis;
+        this.maxPending = maxPending;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fittrack-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the singleton instance, configured from system properties
+     */
+    public static synchronized WorkoutLogBuffer getInstance() {
+        if (instance == null) {
+            String mode = System.getProperty(DURABILITY_PROPERTY, "buffered").toUpperCase(Locale.ROOT);
+            Durability durability = "SYNC".equals(mode) ? Durability.SYNC : Durability.BUFFERED;
+            long flushMillis = Long.getLong(FLUSH_MILLIS_PROPERTY, 500);
+            int maxPending = Integer.getInteger(MAX_PENDING_PROPERTY, 20);
+            instance = new WorkoutLogBuffer(new DatabaseManager(), durability, flushMillis, maxPending);
+            logger.info("✓ Workout logging: {} (flush every {} ms or {} sets)", durability, flushMillis, maxPending);
+        }
+        return instance;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Log a set. In BUFFERED mode the log gets its ID when the batch is flushed.
+     * @return false only if a SYNC write failed
+     */
+    public boolean add(WorkoutLog log) {
+        if (durability == Durability.SYNC || scheduler.isShutdown()) {
+            return dbManager.saveWorkoutLog(log);
+        }
+        synchronized (this) {
+            pending.add(log);
+            if (pending.size() >= maxPending) {
+                scheduleFlush(0);
+            } else if (scheduledFlush == null) {
+                scheduleFlush(flushMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Delete a set, whether it is still queued or already written
+     */
+    public boolean delete(WorkoutLog log) {
+        synchronized (this) {
+            if (pending.remove(log)) {
+                return true;
+            }
+        }
+        // If the log is in a batch being written right now, wait for it to get its ID
+        synchronized (flushLock) {
+            synchronized (this) {
+                // A batch that failed while we waited put its sets back in the queue
+                if (pending.remove(log)) {
+                    return true;
+                }
+            }
+            return dbManager.deleteWorkoutLog(log.getId());
+        }
+    }
+
+    /**
+     * Write every queued set now, in one transaction.
+     * Safe to call from any thread; returns once the batch has committed.
+     * @return number of sets written
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            List<WorkoutLog> batch;
+            synchronized (this) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (pending.isEmpty()) return 0;
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            if (dbManager.saveWorkoutLogs(batch)) {
+                logger.debug("Flushed {} buffered workout sets", batch.size());
+                return batch.size();
+            }
+
+            // Keep the sets and try again later rather than dropping them
+            synchronized (this) {
+                pending.addAll(0, batch);
+                if (!scheduler.isShutdown()) {
+                    scheduleFlush(flushMillis);
+                }
+            }
+            logger.error("✗ Failed to flush {} buffered workout sets; will retry", batch.size());
+            return 0;
+        }
+    }
+
+    /**
+     * Number of sets acknowledged but not yet written
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop the flush timer and write anything still queued
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        int flushed = flush();
+        if (flushed > 0) {
+            logger.info("✓ Flushed {} buffered workout sets on shutdown", flushed);
+        }
+        if (getPendingCount() > 0) {
+            logger.warn("⚠ {} workout sets could not be saved before shutdown", getPendingCount());
+        }
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -23,4 +23,19 @@ public interface Command {
      * @return description string
      */
     String getDescription();
+
+    /**
+     * Rough retained size of a command object holding a few references
+     */
+    long BASE_BYTES = 64;
+
+    /**
+     * Estimate the memory this command keeps alive while it sits in the history
+     * (its own fields and the state it needs to undo/redo, not shared objects such
+     * as UI lists). CommandHistory is bounded by the sum of these estimates.
+     * @return estimated bytes, in the right ballpark rather than exact
+     */
+    default long estimatedBytes() {
+        return BASE_BYTES;
+    }
 }
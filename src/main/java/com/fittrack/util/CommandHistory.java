@@ -1,159 +1,610 @@
 package com.fittrack.util;
 
-import java.util.Stack;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+import com.fittrack.model.AsyncDatabaseManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Singleton class to manage command history for undo/redo operations
- * Maintains two stacks: one for undo, one for redo
+ * Maintains two fixed-capacity ring buffers: one for undo, one for redo
+ *
+ * The history is bounded by the estimated bytes its commands retain
+ * (Command.estimatedBytes()) as well as by a command count. When a new command
+ * pushes it over either limit the oldest undo entries are evicted, each in O(1)
+ * with no array shifting. Both rings are allocated once, so deep histories do not
+ * cause any allocation or copying on push. All methods are thread safe.
+ *
+ * With a CommandJournal attached (openJournal), every execute, undo, redo and
+ * clear is also appended to the journal, so the history survives a restart.
+ * Async steps are only appended once saved, and compaction snapshots the
+ * journaled history rather than the rings, so a step still waiting to be saved
+ * is never in the journal twice (or at all, if the app stops first).
+ *
+ * executeAsync(), undoAsync() and redoAsync() take OptimisticCommands: the UI
+ * change and the history update happen at once on the calling (FX) thread, and the
+ * database work is queued on the background writer in submission order. If saving
+ * fails the UI change is reverted on the FX thread and the command leaves the
+ * history; later queued steps of that same command are skipped. At most
+ * MAX_IN_FLIGHT steps may wait to be saved; beyond that the call is rejected.
+ * Each command type's time from submission until saved feeds a LatencyHistogram.
  */
 public class CommandHistory {
     private static final Logger logger = LoggerFactory.getLogger(CommandHistory.class);
     private static CommandHistory instance;
-    private final Stack<Command> undoStack = new Stack<>();
-    private final Stack<Command> redoStack = new Stack<>();
-    private final int MAX_HISTORY = 50; // Limit history size to prevent memory issues
-    
-    private CommandHistory() {}
-    
+
+    // Limits: thousands of small commands, but never more than a few MB of retained state
+    static final int MAX_COMMANDS = 4096;
+    static final long MAX_BYTES = 4L * 1024 * 1024;
+    // Steps submitted but not yet saved; a slow disk makes callers fail fast rather than pile up
+    static final int MAX_IN_FLIGHT = 64;
+
+    private final CommandRing undoRing;
+    private final CommandRing redoRing;
+    private final long maxBytes;
+    private long retainedBytes; // undo + redo; guarded by this
+    private long evictedCount;  // guarded by this
+    private CommandJournal journal; // null when not persisted; guarded by this
+    // The stacks as the journal replays them: the rings minus steps not yet saved; guarded by this
+    private final List<Command> journaledUndo = new ArrayList<>();
+    private final List<Command> journaledRedo = new ArrayList<>();
+
+    // Async pipeline
+    private final Executor writer;
+    private final Executor viewExecutor;
+    private int inFlight;                                                      // guarded by this
+    private final Set<Command> failed = Collections.newSetFromMap(new IdentityHashMap<>()); // guarded by this
+    private final Map<String, LatencyHistogram> latency = new ConcurrentHashMap<>();
+
+    private CommandHistory() {
+        this(MAX_COMMANDS, MAX_BYTES);
+    }
+
+    CommandHistory(int maxCommands, long maxBytes) {
+        // Same writer thread as every other database write, so saves stay in order
+        this(maxCommands, maxBytes,
+            task -> AsyncDatabaseManager.getInstance().write(db -> { task.run(); return null; }),
+            FxThreadMonitor.executor());
+    }
+
+    CommandHistory(int maxCommands, long maxBytes, Executor writer, Executor viewExecutor) {
+        this.undoRing = new CommandRing(maxCommands);
+        this.redoRing = new CommandRing(maxCommands);
+        this.maxBytes = maxBytes;
+        this.writer = writer;
+        this.viewExecutor = viewExecutor;
+    }
+
     /**
      * Get the singleton instance
      */
-    public static CommandHistory getInstance() {
+    public static synchronized CommandHistory getInstance() {
         if (instance == null) {
             instance = new CommandHistory();
         }
         return instance;
     }
-    
+
     /**
      * Execute a command and add it to history
      * Clears the redo stack since new action invalidates future states
      * @param command The command to execute
      * @return true if execution was successful
      */
-    public boolean executeCommand(Command command) {
+    public synchronized boolean executeCommand(Command command) {
         boolean success = command.execute();
         if (success) {
-            undoStack.push(command);
-            redoStack.clear(); // Clear redo stack when new command is executed
-            
-            // Limit history size to prevent memory issues
-            if (undoStack.size() > MAX_HISTORY) {
-                undoStack.remove(0);
-            }
-            
+            // Clear redo stack when new command is executed
+            retainedBytes -= redoRing.totalBytes();
+            redoRing.clear();
+            push(command);
+            record(CommandJournal.EXECUTE, command);
             logger.info("✓ Command executed: {}", command.getDescription());
         }
         return success;
     }
-    
+
     /**
      * Undo the last command
      * Moves the command from undo stack to redo stack
      * @return true if undo was successful
      */
-    public boolean undo() {
-        if (undoStack.isEmpty()) {
+    public synchronized boolean undo() {
+        if (undoRing.isEmpty()) {
             logger.info("⚠ Nothing to undo");
             return false;
         }
-        
-        Command command = undoStack.pop();
+
+        Command command = undoRing.peekLast();
         boolean success = command.undo();
-        
+
         if (success) {
-            redoStack.push(command);
+            // The rings have the same capacity and redo only ever holds undone commands, so this always fits
+            long bytes = undoRing.lastBytes();
+            undoRing.pollLast();
+            redoRing.addLast(command, bytes);
+            record(CommandJournal.UNDO, command);
             logger.info("✓ Undone: {}", command.getDescription());
         } else {
-            undoStack.push(command); // Put it back if undo failed
             logger.error("✗ Failed to undo: {}", command.getDescription());
         }
-        
+
         return success;
     }
-    
+
     /**
      * Redo the last undone command
      * Moves the command from redo stack back to undo stack
      * @return true if redo was successful
      */
-    public boolean redo() {
-        if (redoStack.isEmpty()) {
+    public synchronized boolean redo() {
+        if (redoRing.isEmpty()) {
             logger.info("⚠ Nothing to redo");
             return false;
         }
-        
-        Command command = redoStack.pop();
+
+        Command command = redoRing.peekLast();
         boolean success = command.execute();
-        
+
         if (success) {
-            undoStack.push(command);
+            long bytes = redoRing.lastBytes();
+            redoRing.pollLast();
+            undoRing.addLast(command, bytes);
+            record(CommandJournal.REDO, command);
             logger.info("✓ Redone: {}", command.getDescription());
         } else {
-            redoStack.push(command); // Put it back if redo failed
             logger.error("✗ Failed to redo: {}", command.getDescription());
         }
-        
+
         return success;
     }
-    
+
+    /**
+     * Apply a command's UI change now and save it on the background writer.
+     * Call on the FX thread. The future completes on the FX thread: true once saved,
+     * false if saving failed and the UI change was reverted. Fails with
+     * RejectedExecutionException, without applying anything, when too many
+     * commands are waiting to be saved.
+     */
+    public CompletableFuture<Boolean> executeAsync(OptimisticCommand command) {
+        synchronized (this) {
+            if (inFlight >= MAX_IN_FLIGHT) return rejected();
+            inFlight++;
+            retainedBytes -= redoRing.totalBytes();
+            redoRing.clear();
+            push(command);
+        }
+        command.applyView();
+        return submit(command, CommandJournal.EXECUTE, command::persist, command::revertView);
+    }
+
+    /**
+     * Undo the last command in the UI now and in the database on the background writer.
+     * Commands that are not OptimisticCommands are undone synchronously.
+     * @return future completing on the FX thread; see executeAsync()
+     */
+    public CompletableFuture<Boolean> undoAsync() {
+        OptimisticCommand command;
+        synchronized (this) {
+            if (undoRing.isEmpty() || !(undoRing.peekLast() instanceof OptimisticCommand)) {
+                return CompletableFuture.completedFuture(undo());
+            }
+            if (inFlight >= MAX_IN_FLIGHT) return rejected();
+            inFlight++;
+            command = (OptimisticCommand) undoRing.peekLast();
+            long bytes = undoRing.lastBytes();
+            undoRing.pollLast();
+            redoRing.addLast(command, bytes);
+        }
+        command.revertView();
+        return submit(command, CommandJournal.UNDO, command::unpersist, command::applyView);
+    }
+
+    /**
+     * Redo the last undone command in the UI now and in the database on the background writer.
+     * Commands that are not OptimisticCommands are redone synchronously.
+     * @return future completing on the FX thread; see executeAsync()
+     */
+    public CompletableFuture<Boolean> redoAsync() {
+        OptimisticCommand command;
+        synchronized (this) {
+            if (redoRing.isEmpty() || !(redoRing.peekLast() instanceof OptimisticCommand)) {
+                return CompletableFuture.completedFuture(redo());
+            }
+            if (inFlight >= MAX_IN_FLIGHT) return rejected();
+            inFlight++;
+            command = (OptimisticCommand) redoRing.peekLast();
+            long bytes = redoRing.lastBytes();
+            redoRing.pollLast();
+            undoRing.addLast(command, bytes);
+        }
+        command.applyView();
+        return submit(command, CommandJournal.REDO, command::persist, command::revertView);
+    }
+
     /**
      * Check if undo is available
      * @return true if there are commands to undo
      */
-    public boolean canUndo() {
-        return !undoStack.isEmpty();
+    public synchronized boolean canUndo() {
+        return !undoRing.isEmpty();
     }
-    
+
     /**
      * Check if redo is available
      * @return true if there are commands to redo
      */
-    public boolean canRedo() {
-        return !redoStack.isEmpty();
+    public synchronized boolean canRedo() {
+        return !redoRing.isEmpty();
     }
-    
+
     /**
      * Clear all history (both undo and redo stacks)
      */
-    public void clear() {
-        undoStack.clear();
-        redoStack.clear();
+    public synchronized void clear() {
+        undoRing.clear();
+        redoRing.clear();
+        retainedBytes = 0;
+        record(CommandJournal.CLEAR, null);
         logger.info("ℹ Command history cleared");
     }
-    
+
+    /**
+     * Replace the history with the one recorded in a journal and keep recording to it
+     * (e.g. after login). Any journal attached before is closed first.
+     */
+    public synchronized void openJournal(CommandJournal newJournal) {
+        closeJournal();
+        CommandJournal.Replay replay = newJournal.replay();
+        for (Command command : replay.undo) {
+            push(command);
+        }
+        // Undo and redo share the ring capacity; keep the redo entries closest to the top
+        List<Command> redo = replay.redo;
+        int capacity = undoRing.capacity() - undoRing.size();
+        for (Command command : redo.subList(Math.max(0, redo.size() - capacity), redo.size())) {
+            long bytes = Math.max(0, command.estimatedBytes());
+            redoRing.addLast(command, bytes);
+            retainedBytes += bytes;
+        }
+        journal = newJournal;
+        journaledUndo.addAll(undoRing.toList());
+        journaledRedo.addAll(redoRing.toList());
+        compactJournal();
+        logger.info("✓ Restored {} undo and {} redo commands from the journal", undoRing.size(), redoRing.size());
+    }
+
+    /**
+     * Close the attached journal (if any) and forget the in-memory history, e.g. on logout.
+     * The journal keeps the history for the next openJournal().
+     */
+    public synchronized void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        journaledUndo.clear();
+        journaledRedo.clear();
+        undoRing.clear();
+        redoRing.clear();
+        retainedBytes = 0;
+    }
+
+    /**
+     * Commands in the history, undo entries oldest first followed by redo entries
+     * (e.g. to re-bind them to a rebuilt view)
+     */
+    public synchronized List<Command> getCommands() {
+        List<Command> commands = new ArrayList<>(undoRing.toList());
+        commands.addAll(redoRing.toList());
+        return commands;
+    }
+
     /**
      * Get the description of the command that would be undone
      * @return description string, or empty if nothing to undo
      */
-    public String getUndoDescription() {
-        return undoStack.isEmpty() ? "" : undoStack.peek().getDescription();
+    public synchronized String getUndoDescription() {
+        return undoRing.isEmpty() ? "" : undoRing.peekLast().getDescription();
     }
-    
+
     /**
      * Get the description of the command that would be redone
      * @return description string, or empty if nothing to redo
      */
-    public String getRedoDescription() {
-        return redoStack.isEmpty() ? "" : redoStack.peek().getDescription();
+    public synchronized String getRedoDescription() {
+        return redoRing.isEmpty() ? "" : redoRing.peekLast().getDescription();
     }
-    
+
     /**
      * Get the current undo stack size
      * @return number of commands available for undo
      */
-    public int getUndoCount() {
-        return undoStack.size();
+    public synchronized int getUndoCount() {
+        return undoRing.size();
     }
-    
+
     /**
      * Get the current redo stack size
      * @return number of commands available for redo
      */
-    public int getRedoCount() {
-        return redoStack.size();
+    public synchronized int getRedoCount() {
+        return redoRing.size();
+    }
+
+    /**
+     * Get the estimated bytes retained by all commands in the history
+     */
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * Get the number of commands dropped from the history to stay within its limits
+     */
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Number of async steps submitted but not yet saved
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * Submission-to-saved latency of async steps, by command type
+     */
+    public Map<String, LatencyHistogram> getLatency() {
+        return new TreeMap<>(latency);
+    }
+
+    /**
+     * One line per command type with its save latency (for the log)
+     */
+    public String getLatencySummary() {
+        StringBuilder summary = new StringBuilder();
+        getLatency().forEach((type, histogram) ->
+            summary.append(String.format("%n  %s: %s", type, histogram)));
+        return summary.length() == 0 ? "no async commands" : summary.toString();
+    }
+
+    private CompletableFuture<Boolean> submit(Command command, byte kind, BooleanSupplier save, Runnable revertView) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> saved = new CompletableFuture<>();
+        try {
+            writer.execute(() -> saved.complete(save(command, kind, save, start)));
+        } catch (RejectedExecutionException e) {
+            saved.complete(saved(command, kind, false, start));
+        }
+        return saved.thenApplyAsync(success -> {
+            if (success == null) return false; // skipped: the failed step already reverted the UI
+            if (!success) revertView.run();
+            return success;
+        }, viewExecutor);
+    }
+
+    // Runs on the writer thread; null means the step was skipped
+    private Boolean save(Command command, byte kind, BooleanSupplier save, long start) {
+        synchronized (this) {
+            if (failed.contains(command)) {
+                // An earlier step of this command failed and already left the history
+                finishStep();
+                return null;
+            }
+        }
+        boolean success;
+        try {
+            success = save.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.error("✗ Command threw while saving: {}", command.getDescription(), e);
+            success = false;
+        }
+        return saved(command, kind, success, start);
+    }
+
+    private synchronized boolean saved(Command command, byte kind, boolean success, long start) {
+        latency.computeIfAbsent(command.getClass().getSimpleName(), type -> new LatencyHistogram())
+            .record(System.nanoTime() - start);
+        if (success) {
+            record(kind, command);
+        } else {
+            logger.error("✗ Failed to save, reverting: {}", command.getDescription());
+            failed.add(command);
+            retainedBytes -= undoRing.remove(command) + redoRing.remove(command);
+            compactJournal(); // the journal must not keep what never reached the database
+        }
+        finishStep();
+        return success;
+    }
+
+    private void finishStep() {
+        inFlight--;
+        if (inFlight == 0) failed.clear();
+    }
+
+    private static CompletableFuture<Boolean> rejected() {
+        return CompletableFuture.failedFuture(
+            new RejectedExecutionException("Too many changes waiting to be saved"));
+    }
+
+    private void push(Command command) {
+        long bytes = Math.max(0, command.estimatedBytes());
+        if (undoRing.isFull()) evictOldest();
+        undoRing.addLast(command, bytes);
+        retainedBytes += bytes;
+        // Keep the command just executed even if it alone exceeds the budget
+        while (retainedBytes > maxBytes && undoRing.size() > 1) {
+            evictOldest();
+        }
+    }
+
+    private void record(byte kind, Command command) {
+        if (journal == null) return;
+        // Same moves as CommandJournal.replay()
+        switch (kind) {
+            case CommandJournal.EXECUTE:
+                journaledRedo.clear();
+                journaledUndo.add(command);
+                break;
+            case CommandJournal.UNDO:
+                if (!journaledUndo.isEmpty()) journaledUndo.remove(journaledUndo.size() - 1);
+                journaledRedo.add(command);
+                break;
+            case CommandJournal.REDO:
+                if (!journaledRedo.isEmpty()) journaledRedo.remove(journaledRedo.size() - 1);
+                journaledUndo.add(command);
+                break;
+            default:
+                journaledUndo.clear();
+                journaledRedo.clear();
+        }
+        try {
+            if (!journal.append(kind, command) || journal.needsCompaction()) {
+                // The snapshot already contains this change, so nothing is lost when the append did not fit
+                compactJournal();
+            }
+        } catch (IOException e) {
+            logger.error("✗ Undo journal write failed, history will not survive a restart: {}", e.getMessage(), e);
+            journal.close();
+            journal = null;
+            journaledUndo.clear();
+            journaledRedo.clear();
+        }
+    }
+
+    private void compactJournal() {
+        if (journal == null) return;
+        // Only what has been saved and is still in the history (not failed, evicted or cleared)
+        Set<Command> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(undoRing.toList());
+        live.addAll(redoRing.toList());
+        journaledUndo.retainAll(live);
+        journaledRedo.retainAll(live);
+        try {
+            journal.compact(journaledUndo, journaledRedo);
+        } catch (IOException e) {
+            logger.error("✗ Undo journal compaction failed: {}", e.getMessage(), e);
+            journal.close();
+            journal = null;
+            journaledUndo.clear();
+            journaledRedo.clear();
+        }
+    }
+
+    private void evictOldest() {
+        retainedBytes -= undoRing.firstBytes();
+        Command evicted = undoRing.pollFirst();
+        journaledUndo.remove(evicted); // oldest, so near the front
+        evictedCount++;
+        logger.debug("History full, dropped oldest command: {}", evicted.getDescription());
+    }
+
+    /**
+     * Fixed-capacity ring of commands and their byte estimates (not thread safe; guarded by CommandHistory)
+     */
+    private static final class CommandRing {
+        private final Command[] commands;
+        private final long[] bytes;
+        private int head;      // index of the oldest entry
+        private int size;
+        private long totalBytes;
+
+        CommandRing(int capacity) {
+            if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+            commands = new Command[capacity];
+            bytes = new long[capacity];
+        }
+
+        int size() { return size; }
+        int capacity() { return commands.length; }
+        boolean isEmpty() { return size == 0; }
+        boolean isFull() { return size == commands.length; }
+        long totalBytes() { return totalBytes; }
+
+        void addLast(Command command, long commandBytes) {
+            int slot = index(size);
+            commands[slot] = command;
+            bytes[slot] = commandBytes;
+            totalBytes += commandBytes;
+            size++;
+        }
+
+        Command peekLast() { return commands[index(size - 1)]; }
+        long lastBytes() { return bytes[index(size - 1)]; }
+        long firstBytes() { return bytes[head]; }
+
+        Command pollLast() {
+            int slot = index(size - 1);
+            return take(slot, false);
+        }
+
+        Command pollFirst() {
+            return take(head, true);
+        }
+
+        /**
+         * Entries oldest (bottom) first
+         */
+        List<Command> toList() {
+            Command[] entries = new Command[size];
+            for (int i = 0; i < size; i++) entries[i] = commands[index(i)];
+            return List.of(entries);
+        }
+
+        /**
+         * Remove a command wherever it is (O(n); only used when a save fails)
+         * @return the bytes it accounted for, or 0 if it was not here
+         */
+        long remove(Command command) {
+            for (int i = 0; i < size; i++) {
+                if (commands[index(i)] != command) continue;
+                long removed = bytes[index(i)];
+                for (int j = i; j < size - 1; j++) {
+                    commands[index(j)] = commands[index(j + 1)];
+                    bytes[index(j)] = bytes[index(j + 1)];
+                }
+                commands[index(size - 1)] = null;
+                totalBytes -= removed;
+                size--;
+                return removed;
+            }
+            return 0;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) commands[index(i)] = null;
+            head = 0;
+            size = 0;
+            totalBytes = 0;
+        }
+
+        private Command take(int slot, boolean first) {
+            Command command = commands[slot];
+            commands[slot] = null; // let it be collected
+            totalBytes -= bytes[slot];
+            size--;
+            if (first) head = (head + 1) % commands.length;
+            return command;
+        }
+
+        private int index(int offset) {
+            return (head + offset) % commands.length;
+        }
     }
 }
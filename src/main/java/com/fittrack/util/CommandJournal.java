@@ -0,0 +1,420 @@
+package com.fittrack.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CommandJournal - Append-only, memory-mapped undo/redo journal
+ *
+ * Each executed, undone or redone command is appended as one record:
+ *   [int body length][int CRC32 of body][body = byte kind, int type ID, command bytes]
+ * Appends are plain writes into a mapped file, so they never block on the disk;
+ * a background thread forces the written range to disk once GROUP_SIZE records
+ * are pending and at least every FLUSH_INTERVAL_MS. After a crash the journal
+ * is read up to the first record that is incomplete or fails its CRC.
+ *
+ * The journal uses two fixed-size files (.a and .b), so disk usage is capped at
+ * twice FILE_BYTES. Each starts with a magic number and a generation; the valid
+ * file with the higher generation is current. Compaction writes a snapshot of
+ * the live history into the other file and only then bumps its generation, so
+ * a crash at any point leaves one complete journal. It runs when the current
+ * file is three quarters full (the snapshot has to fit in half a file, or the
+ * oldest undo entries are dropped) and once after every replay.
+ *
+ * Simple usage:
+ *   CommandHistory.getInstance().openJournal(CommandJournal.forUser(userId, CommandCodecs::decode));
+ */
+public class CommandJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandJournal.class);
+
+    /**
+     * Turns a type ID and the bytes written by PersistentCommand.writeTo() back into a command
+     */
+    @FunctionalInterface
+    public interface Decoder {
+        /**
+         * @return the command, or null if the type is unknown
+         */
+        Command decode(int typeId, DataInput in) throws IOException;
+    }
+
+    /**
+     * Replay - Undo and redo entries rebuilt from the journal, oldest (bottom) first
+     */
+    public static final class Replay {
+        public final List<Command> undo;
+        public final List<Command> redo;
+
+        Replay(List<Command> undo, List<Command> redo) {
+            this.undo = undo;
+            this.redo = redo;
+        }
+    }
+
+    // Directory for the per-user journals, next to fittrack.db
+    private static final String JOURNAL_DIR = "undo-journal";
+
+    static final int FILE_BYTES = 2 * 1024 * 1024;
+    static final int GROUP_SIZE = 32;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+
+    private static final int MAGIC = 0x46544A31; // "FTJ1"
+    private static final int HEADER_BYTES = 16;  // magic, reserved, long generation
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    // Record kinds
+    static final byte EXECUTE = 1;    // push onto undo, clear redo
+    static final byte UNDO = 2;       // move undo top to redo (with the command's new state)
+    static final byte REDO = 3;       // move redo top to undo (with the command's new state)
+    static final byte CLEAR = 4;      // empty both stacks
+    static final byte REDO_ENTRY = 5; // push onto redo (snapshots only)
+
+    private final Path[] files;
+    private final int fileBytes;
+    private final Decoder decoder;
+
+    private MappedByteBuffer buffer; // current file; guarded by this
+    private int current;             // index into files
+    private long generation;
+    private int position;            // end of the last record
+    private int syncedPosition;      // everything before this is on disk
+    private int pendingRecords;
+    private boolean closed;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Open (or create) the journal kept in path.a and path.b
+     */
+    public CommandJournal(Path path, Decoder decoder) throws IOException {
+        this(path, decoder, FILE_BYTES);
+    }
+
+    CommandJournal(Path path, Decoder decoder, int fileBytes) throws IOException {
+        this.files = new Path[] {Paths.get(path + ".a"), Paths.get(path + ".b")};
+        this.fileBytes = fileBytes;
+        this.decoder = decoder;
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+
+        long[] generations = {readGeneration(files[0]), readGeneration(files[1])};
+        if (generations[0] < 0 && generations[1] < 0) {
+            current = 0;
+            generation = 1;
+            buffer = map(files[0]);
+            clear(buffer, 0);
+            writeHeader(buffer, generation);
+            buffer.force();
+            position = HEADER_BYTES;
+        } else {
+            current = generations[1] > generations[0] ? 1 : 0;
+            generation = generations[current];
+            buffer = map(files[current]);
+            position = scan(buffer);
+            // Wipe whatever follows the last good record so it can never be read back
+            clear(buffer, position);
+        }
+        syncedPosition = position;
+        startFlusher();
+        logger.info("✓ Opened undo journal {} (generation {}, {} bytes used)", files[current], generation, position);
+    }
+
+    /**
+     * Open the journal of one user in the default directory
+     */
+    public static CommandJournal forUser(int userId, Decoder decoder) throws IOException {
+        return new CommandJournal(Paths.get(JOURNAL_DIR, "user-" + userId + ".journal"), decoder);
+    }
+
+    /**
+     * Rebuild the undo and redo stacks recorded in the journal. Commands that cannot be
+     * decoded cut the history: only entries newer than the last such command are kept.
+     */
+    public synchronized Replay replay() {
+        List<Command> undo = new ArrayList<>();
+        List<Command> redo = new ArrayList<>();
+        int records = 0;
+        int at = HEADER_BYTES;
+        while (at < position) {
+            int length = buffer.getInt(at);
+            byte[] body = new byte[length];
+            buffer.get(at + RECORD_HEADER_BYTES, body);
+            at += RECORD_HEADER_BYTES + length;
+            records++;
+
+            byte kind = body[0];
+            Command command = kind == CLEAR ? null : decode(body);
+            switch (kind) {
+                case EXECUTE:
+                    redo.clear();
+                    undo.add(command);
+                    break;
+                case UNDO:
+                    if (!undo.isEmpty()) undo.remove(undo.size() - 1);
+                    redo.add(command);
+                    break;
+                case REDO:
+                    if (!redo.isEmpty()) redo.remove(redo.size() - 1);
+                    undo.add(command);
+                    break;
+                case CLEAR:
+                    undo.clear();
+                    redo.clear();
+                    break;
+                case REDO_ENTRY:
+                    redo.add(command);
+                    break;
+                default:
+                    logger.warn("⚠ Skipping undo journal record of unknown kind {}", kind);
+            }
+        }
+        Replay result = new Replay(afterLastGap(undo), afterLastGap(redo));
+        logger.info("✓ Replayed {} journal records: {} undo, {} redo", records, result.undo.size(), result.redo.size());
+        return result;
+    }
+
+    /**
+     * Append one record (command may be null for CLEAR)
+     * @return false if the current file is full; compact() with the live history then
+     */
+    public synchronized boolean append(byte kind, Command command) throws IOException {
+        if (closed) throw new IOException("Journal is closed");
+        byte[] body = encode(kind, command);
+        if (position + RECORD_HEADER_BYTES + body.length > fileBytes) return false;
+        writeRecord(buffer, position, body);
+        position += RECORD_HEADER_BYTES + body.length;
+        if (++pendingRecords >= GROUP_SIZE) flusher.execute(this::flush);
+        return true;
+    }
+
+    /**
+     * True once the current file is three quarters full
+     */
+    public synchronized boolean needsCompaction() {
+        return position > fileBytes / 4 * 3;
+    }
+
+    /**
+     * Replace the journal with a snapshot of the live history (oldest/bottom entries first).
+     * If the snapshot does not fit in half a file the oldest undo entries are left out.
+     */
+    public synchronized void compact(List<Command> undo, List<Command> redo) throws IOException {
+        if (closed) throw new IOException("Journal is closed");
+        List<byte[]> redoBodies = new ArrayList<>(redo.size());
+        int budget = fileBytes / 2 - HEADER_BYTES;
+        for (Command command : redo) {
+            byte[] body = encode(REDO_ENTRY, command);
+            budget -= RECORD_HEADER_BYTES + body.length;
+            redoBodies.add(body);
+        }
+        // Newest undo entries first, until the budget runs out
+        List<byte[]> undoBodies = new ArrayList<>(undo.size());
+        for (int i = undo.size() - 1; i >= 0; i--) {
+            byte[] body = encode(EXECUTE, undo.get(i));
+            if (budget < RECORD_HEADER_BYTES + body.length) {
+                logger.warn("⚠ Undo journal full, keeping only the newest {} of {} undo entries",
+                    undoBodies.size(), undo.size());
+                break;
+            }
+            budget -= RECORD_HEADER_BYTES + body.length;
+            undoBodies.add(body);
+        }
+        if (budget < 0) {
+            logger.warn("⚠ Redo entries do not fit in the undo journal, dropping them");
+            redoBodies.clear();
+        }
+
+        // Write the snapshot into the other file; it only becomes current once its header is updated
+        int next = 1 - current;
+        MappedByteBuffer target = map(files[next]);
+        writeHeader(target, 0); // not valid until finished
+        int at = HEADER_BYTES;
+        for (int i = undoBodies.size() - 1; i >= 0; i--) {
+            at = writeRecord(target, at, undoBodies.get(i));
+        }
+        for (byte[] body : redoBodies) {
+            at = writeRecord(target, at, body);
+        }
+        clear(target, at);
+        target.force();
+        writeHeader(target, generation + 1);
+        target.force(0, HEADER_BYTES);
+
+        logger.info("✓ Compacted undo journal from {} to {} bytes", position, at);
+        buffer = target;
+        current = next;
+        generation++;
+        position = at;
+        syncedPosition = at;
+        pendingRecords = 0;
+    }
+
+    /**
+     * Force every appended record to disk
+     */
+    public void flush() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        synchronized (this) {
+            if (closed || position == syncedPosition) return;
+            target = buffer;
+            from = syncedPosition;
+            to = position;
+            syncedPosition = position;
+            pendingRecords = 0;
+        }
+        // Outside the lock, so appends never wait for the disk
+        target.force(from, to - from);
+    }
+
+    /**
+     * Flush and stop the background flusher
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        flusher.shutdownNow();
+        logger.info("ℹ Closed undo journal {}", files[current]);
+    }
+
+    /**
+     * Bytes used in the current file
+     */
+    public synchronized int getUsedBytes() {
+        return position;
+    }
+
+    // ==================== ENCODING ====================
+
+    private static byte[] encode(byte kind, Command command) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(kind);
+        if (command instanceof PersistentCommand) {
+            PersistentCommand persistent = (PersistentCommand) command;
+            out.writeInt(persistent.getTypeId());
+            persistent.writeTo(out);
+        } else {
+            out.writeInt(0); // recorded so replay knows the history has a gap here
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private Command decode(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1));
+            int typeId = in.readInt();
+            return typeId == 0 ? null : decoder.decode(typeId, in);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("⚠ Could not decode undo journal record: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // null marks a command that could not be restored; nothing before it can be undone/redone
+    private static List<Command> afterLastGap(List<Command> commands) {
+        int gap = commands.lastIndexOf(null);
+        return gap < 0 ? commands : new ArrayList<>(commands.subList(gap + 1, commands.size()));
+    }
+
+    // ==================== FILE LAYOUT ====================
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+        }
+    }
+
+    /**
+     * Generation of a journal file, or -1 if it is missing, too short or not a finished journal
+     */
+    private long readGeneration(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < fileBytes) return -1;
+        MappedByteBuffer header = map(file);
+        long fileGeneration = header.getLong(8);
+        return header.getInt(0) == MAGIC && fileGeneration > 0 ? fileGeneration : -1;
+    }
+
+    private static void writeHeader(MappedByteBuffer target, long fileGeneration) {
+        target.putInt(0, MAGIC);
+        target.putInt(4, 0);
+        target.putLong(8, fileGeneration);
+    }
+
+    private static int writeRecord(MappedByteBuffer target, int at, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        target.put(at + RECORD_HEADER_BYTES, body);
+        target.putInt(at + 4, (int) crc.getValue());
+        target.putInt(at, body.length); // a zero length here ends the journal, so write it last
+        return at + RECORD_HEADER_BYTES + body.length;
+    }
+
+    /**
+     * End of the last complete record with a matching CRC
+     */
+    private int scan(MappedByteBuffer source) {
+        int at = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        while (at + RECORD_HEADER_BYTES <= fileBytes) {
+            int length = source.getInt(at);
+            if (length <= 0 || length > fileBytes - at - RECORD_HEADER_BYTES) break;
+            byte[] body = new byte[length];
+            source.get(at + RECORD_HEADER_BYTES, body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != source.getInt(at + 4)) {
+                logger.warn("⚠ Undo journal record at {} is damaged, ignoring it and everything after", at);
+                break;
+            }
+            at += RECORD_HEADER_BYTES + length;
+        }
+        return at;
+    }
+
+    private void clear(MappedByteBuffer target, int from) {
+        int at = from;
+        for (; at + Long.BYTES <= fileBytes; at += Long.BYTES) {
+            if (target.getLong(at) != 0) target.putLong(at, 0);
+        }
+        for (; at < fileBytes; at++) {
+            target.put(at, (byte) 0);
+        }
+    }
+
+    private void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fittrack-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+}
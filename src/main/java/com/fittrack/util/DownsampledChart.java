@@ -0,0 +1,276 @@
+package com.fittrack.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.ScrollEvent;
+
+/**
+ * DownsampledChart - Keeps a LineChart fast with long numeric time series
+ *
+ * The full series is kept in primitive arrays; the chart only gets the points
+ * picked by Largest-Triangle-Three-Buckets for the visible range, about one per
+ * horizontal pixel, so the shape (peaks and dips) survives while the node count
+ * stays bounded. Scrolling the mouse wheel over the chart zooms around the
+ * cursor and re-runs the downsampling for the new range; a double click shows
+ * everything again. When new data only adds points after the last one, they
+ * are appended to the series instead of rebuilding it. All methods must be
+ * called on the FX thread once the chart is shown.
+ *
+ * Simple usage:
+ *   DownsampledChart helper = new DownsampledChart(weightChart, series, 7);
+ *   helper.setData(epochDays, weights);
+ */
+public class DownsampledChart {
+
+    // Zoom factor per mouse wheel notch
+    private static final double ZOOM_STEP = 1.25;
+    // Symbols are one node per point; only draw them when there are few points
+    private static final int SYMBOL_LIMIT = 60;
+    // Used before the chart has been laid out
+    private static final int DEFAULT_WIDTH = 600;
+
+    private final LineChart<Number, Number> chart;
+    private final NumberAxis xAxis;
+    private final XYChart.Series<Number, Number> series;
+    private final double minSpan;
+
+    // Full data, x ascending
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int size;
+
+    // Visible x range
+    private double lower;
+    private double upper;
+    private boolean zoomed;
+
+    /**
+     * @param chart chart with a NumberAxis as x axis; the series must already be in chart.getData()
+     * @param series series that receives the downsampled points
+     * @param minSpan smallest x range the user can zoom in to
+     */
+    public DownsampledChart(LineChart<Number, Number> chart, XYChart.Series<Number, Number> series, double minSpan) {
+        this.chart = chart;
+        this.xAxis = (NumberAxis) chart.getXAxis();
+        this.series = series;
+        this.minSpan = minSpan;
+
+        xAxis.setAutoRanging(false);
+        chart.setOnScroll(this::handleScroll);
+        chart.setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) resetZoom();
+        });
+        // One point per pixel: re-pick when the plot gets wider or narrower
+        xAxis.widthProperty().addListener((obs, oldWidth, newWidth) -> {
+            if (Math.abs(newWidth.doubleValue() - oldWidth.doubleValue()) >= 20) render();
+        });
+    }
+
+    /**
+     * Show new data. xs must be ascending. If it only adds points after the
+     * current last point, they are appended; otherwise the series is rebuilt.
+     */
+    public void setData(double[] newXs, double[] newYs) {
+        if (newXs.length != newYs.length) {
+            throw new IllegalArgumentException("xs and ys must have the same length");
+        }
+        int oldSize = size;
+        boolean extendsOld = oldSize > 0 && newXs.length >= oldSize
+            && Arrays.equals(xs, 0, oldSize, newXs, 0, oldSize)
+            && Arrays.equals(ys, 0, oldSize, newYs, 0, oldSize);
+        boolean followingEnd = oldSize == 0 || !zoomed || upper >= xs[oldSize - 1];
+
+        xs = newXs;
+        ys = newYs;
+        size = newXs.length;
+
+        if (extendsOld) {
+            if (size > oldSize && followingEnd) appendTail(oldSize);
+            return;
+        }
+        if (!zoomed || size == 0) {
+            showAll();
+        } else {
+            clampRange();
+        }
+        render();
+    }
+
+    /**
+     * Show the full x range again
+     */
+    public void resetZoom() {
+        showAll();
+        render();
+    }
+
+    /**
+     * Number of points currently drawn (after downsampling)
+     */
+    public int getRenderedPointCount() {
+        return series.getData().size();
+    }
+
+    private void appendTail(int from) {
+        for (int i = from; i < size; i++) {
+            series.getData().add(new XYChart.Data<>(xs[i], ys[i]));
+        }
+        upper = Math.max(upper, xs[size - 1]);
+        if (!zoomed) lower = xs[0];
+        applyAxisRange();
+        // Downsample again once appends have doubled the point budget
+        if (series.getData().size() > 2 * targetPoints()) render();
+    }
+
+    private void render() {
+        if (size == 0) {
+            series.getData().clear();
+            return;
+        }
+        // One point past each edge so the line runs to the border of the plot
+        int from = Math.max(0, lowerIndex(lower) - 1);
+        int to = Math.min(size, lowerIndex(Math.nextUp(upper)) + 1);
+
+        int[] picked = lttb(xs, ys, from, to, targetPoints());
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            points.add(new XYChart.Data<>(xs[index], ys[index]));
+        }
+        chart.setCreateSymbols(points.size() <= SYMBOL_LIMIT);
+        series.getData().setAll(points);
+        applyAxisRange();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (size < 2 || event.getDeltaY() == 0) return;
+        double fullSpan = xs[size - 1] - xs[0];
+        double span = upper - lower;
+        if (fullSpan <= 0 || span <= 0) return;
+
+        double factor = event.getDeltaY() > 0 ? 1 / ZOOM_STEP : ZOOM_STEP;
+        double newSpan = Math.min(fullSpan, Math.max(Math.min(minSpan, fullSpan), span * factor));
+        double anchor = xAxis.getValueForDisplay(xAxis.sceneToLocal(event.getSceneX(), event.getSceneY()).getX())
+            .doubleValue();
+        anchor = Math.max(lower, Math.min(upper, anchor));
+
+        // Keep the value under the cursor where it is
+        lower = anchor - (anchor - lower) * newSpan / span;
+        upper = lower + newSpan;
+        zoomed = newSpan < fullSpan;
+        clampRange();
+        render();
+        event.consume();
+    }
+
+    private void showAll() {
+        zoomed = false;
+        if (size > 0) {
+            lower = xs[0];
+            upper = xs[size - 1];
+        }
+    }
+
+    private void clampRange() {
+        double span = upper - lower;
+        if (lower < xs[0]) {
+            lower = xs[0];
+            upper = lower + span;
+        }
+        if (upper > xs[size - 1]) {
+            upper = xs[size - 1];
+            lower = Math.max(xs[0], upper - span);
+        }
+    }
+
+    private void applyAxisRange() {
+        double min = lower;
+        double max = upper;
+        if (max - min < minSpan) {
+            double pad = (minSpan - (max - min)) / 2;
+            min -= pad;
+            max += pad;
+        }
+        xAxis.setLowerBound(min);
+        xAxis.setUpperBound(max);
+        xAxis.setTickUnit(Math.max(1, Math.ceil((max - min) / 6)));
+    }
+
+    private int targetPoints() {
+        double width = xAxis.getWidth() > 0 ? xAxis.getWidth() : DEFAULT_WIDTH;
+        return Math.max(3, (int) width);
+    }
+
+    /**
+     * Index of the first point with x >= value
+     */
+    private int lowerIndex(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] < value) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: pick threshold points from [from, to) that keep
+     * the visual shape. The first and last points are always kept; each bucket in
+     * between contributes the point forming the largest triangle with the point picked
+     * before it and the average of the next bucket.
+     * @return indices of the picked points, ascending
+     */
+    public static int[] lttb(double[] xs, double[] ys, int from, int to, int threshold) {
+        int count = to - from;
+        if (threshold >= count || threshold < 3) {
+            int[] all = new int[Math.max(0, count)];
+            for (int i = 0; i < all.length; i++) all[i] = from + i;
+            return all;
+        }
+
+        int[] picked = new int[threshold];
+        picked[0] = from;
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int previous = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int avgStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+            int avgEnd = Math.min(to, from + (int) ((bucket + 2) * bucketSize) + 1);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Point in this bucket with the largest triangle
+            int start = from + (int) (bucket * bucketSize) + 1;
+            int end = from + (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((xs[previous] - avgX) * (ys[i] - ys[previous])
+                    - (xs[previous] - xs[i]) * (avgY - ys[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            picked[bucket + 1] = best;
+            previous = best;
+        }
+
+        picked[threshold - 1] = to - 1;
+        return picked;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fittrack.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * FxThreadMonitor - Marshals work onto the JavaFX Application Thread and measures stalls
+ *
+ * executor() runs tasks through Platform.runLater and times each one, so slow
+ * UI callbacks show up in the stats. startWatchdog() measures the gap between
+ * rendered frames; any gap longer than STALL_THRESHOLD_MS counts as a stall,
+ * whatever caused it.
+ */
+public class FxThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxThreadMonitor.class);
+
+    // One frame at 60 fps
+    private static final long SLOW_TASK_THRESHOLD_MS = 16;
+    // Long enough for a user to notice the window freezing
+    private static final long STALL_THRESHOLD_MS = 100;
+
+    private static final Executor FX_EXECUTOR = FxThreadMonitor::runLater;
+
+    private static final AtomicLong tasks = new AtomicLong();
+    private static final AtomicLong taskNanos = new AtomicLong();
+    private static final AtomicLong maxTaskNanos = new AtomicLong();
+    private static final AtomicLong stalls = new AtomicLong();
+    private static final AtomicLong stallNanos = new AtomicLong();
+    private static final AtomicLong maxFrameGapNanos = new AtomicLong();
+
+    private static AnimationTimer watchdog;
+
+    private FxThreadMonitor() {}
+
+    /**
+     * Executor that runs tasks on the FX thread (use with thenAcceptAsync etc.)
+     */
+    public static Executor executor() {
+        return FX_EXECUTOR;
+    }
+
+    /**
+     * Run a task on the FX thread, timing how long it blocks the thread
+     */
+    public static void runLater(Runnable task) {
+        Platform.runLater(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                tasks.incrementAndGet();
+                taskNanos.addAndGet(elapsed);
+                maxTaskNanos.accumulateAndGet(elapsed, Math::max);
+                if (elapsed > SLOW_TASK_THRESHOLD_MS * 1_000_000) {
+                    logger.warn("⚠ Slow FX task: {} ms", elapsed / 1_000_000);
+                }
+            }
+        });
+    }
+
+    /**
+     * Start measuring frame gaps. Must be called on the FX thread.
+     */
+    public static void startWatchdog() {
+        if (watchdog != null) return;
+        watchdog = new AnimationTimer() {
+            private long lastFrame;
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame != 0) {
+                    long gap = now - lastFrame;
+                    maxFrameGapNanos.accumulateAndGet(gap, Math::max);
+                    if (gap > STALL_THRESHOLD_MS * 1_000_000) {
+                        stalls.incrementAndGet();
+                        stallNanos.addAndGet(gap);
+                        logger.warn("⚠ FX thread stalled for {} ms", gap / 1_000_000);
+                    }
+                }
+                lastFrame = now;
+            }
+        };
+        watchdog.start();
+    }
+
+    /**
+     * Stop measuring frame gaps. Must be called on the FX thread.
+     */
+    public static void stopWatchdog() {
+        if (watchdog != null) {
+            watchdog.stop();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Total time the FX thread spent frozen beyond the stall threshold
+     */
+    public static long getTotalStallMillis() {
+        return stallNanos.get() / 1_000_000;
+    }
+
+    /**
+     * Get a one-line summary of the FX thread metrics
+     */
+    public static String getSummary() {
+        long count = tasks.get();
+        double avgTaskMs = count == 0 ? 0 : taskNanos.get() / (double) count / 1_000_000.0;
+        return String.format("tasks=%d, avgTask=%.2f ms, maxTask=%.2f ms, stalls=%d (%d ms total), maxFrameGap=%.1f ms",
+            count, avgTaskMs, maxTaskNanos.get() / 1_000_000.0,
+            stalls.get(), getTotalStallMillis(), maxFrameGapNanos.get() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fittrack.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.fittrack.model.FoodLog;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Compares KeyedObservableList.sync() with clear() + addAll() reloads
+ * Runs on plain lists (no FX toolkit needed). "rows touched" is the number of
+ * added plus removed rows listeners are told about, i.e. the cells a TableView
+ * has to rebuild.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.fittrack.util.KeyedListBenchmark" [-Dexec.args="rows"]
+ */
+public class KeyedListBenchmark {
+
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        System.out.println("==============================================");
+        System.out.println("   FitTrack List Reload Benchmark (" + rows + " rows)");
+        System.out.println("==============================================\n");
+
+        List<FoodLog> base = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            base.add(row(rows - i, "Food " + i, 100 + i % 700));
+        }
+
+        run("unchanged", base, fresh -> copy(fresh));
+        run("1 insert (top)", base, fresh -> {
+            List<FoodLog> next = copy(fresh);
+            next.add(0, row(rows + 1, "New food", 250));
+            return next;
+        });
+        run("1 delete", base, fresh -> {
+            List<FoodLog> next = copy(fresh);
+            next.remove(rows / 2);
+            return next;
+        });
+        run("1 edit", base, fresh -> {
+            List<FoodLog> next = copy(fresh);
+            FoodLog old = next.get(rows / 3);
+            next.set(rows / 3, row(old.getId(), old.getFoodName(), old.getCalories() + 1));
+            return next;
+        });
+        run("1% edits", base, fresh -> {
+            List<FoodLog> next = copy(fresh);
+            for (int i = 0; i < next.size(); i += 100) {
+                FoodLog old = next.get(i);
+                next.set(i, row(old.getId(), old.getFoodName(), old.getCalories() + 1));
+            }
+            return next;
+        });
+    }
+
+    private static void run(String name, List<FoodLog> base, UnaryOperator<List<FoodLog>> mutate) {
+        List<FoodLog> fresh = mutate.apply(base);
+
+        KeyedObservableList<FoodLog> keyed = new KeyedObservableList<>(FoodLog::getId);
+        ObservableList<FoodLog> plain = FXCollections.observableArrayList();
+        long[] keyedTouched = new long[2];
+        long[] plainTouched = new long[2];
+        keyed.addListener(counter(keyedTouched));
+        plain.addListener(counter(plainTouched));
+
+        long keyedNanos = 0;
+        long plainNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            keyed.sync(copy(base));
+            plain.clear();
+            plain.addAll(copy(base));
+            keyedTouched[0] = keyedTouched[1] = plainTouched[0] = plainTouched[1] = 0;
+
+            long start = System.nanoTime();
+            keyed.sync(fresh);
+            keyedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            plain.clear();
+            plain.addAll(fresh);
+            plainNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("%-15s sync %7.2f ms, %6d rows touched, %d event(s)   |   clear+addAll %7.2f ms, %6d rows touched, %d events%n",
+            name, keyedNanos / ROUNDS / 1e6, keyedTouched[0], keyedTouched[1],
+            plainNanos / ROUNDS / 1e6, plainTouched[0], plainTouched[1]);
+    }
+
+    private static ListChangeListener<FoodLog> counter(long[] touched) {
+        return change -> {
+            touched[1]++;
+            while (change.next()) {
+                touched[0] += change.getAddedSize() + change.getRemovedSize();
+            }
+        };
+    }
+
+    private static FoodLog row(int id, String name, int calories) {
+        return new FoodLog(id, 1, name, calories, 10, 20, 5, LocalDate.of(2024, 1, 1).plusDays(id / 20));
+    }
+
+    private static List<FoodLog> copy(List<FoodLog> rows) {
+        List<FoodLog> copy = new ArrayList<>(rows.size());
+        for (FoodLog row : rows) {
+            copy.add(row(row.getId(), row.getFoodName(), row.getCalories()));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,181 @@
+package com.fittrack.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * KeyedObservableList - ObservableList that reloads by diffing against fresh rows
+ *
+ * sync(fresh) makes the list equal to a fresh database result by entity ID:
+ * rows whose ID disappeared are removed, new IDs are inserted at their
+ * position, and rows whose content changed are replaced in place. Rows that did
+ * not change keep their instance and their cells. All of it is reported to
+ * listeners as ONE change, so a TableView updates once instead of rebuilding
+ * every cell as it does after clear() + addAll().
+ *
+ * Simple usage:
+ *   KeyedObservableList<Goal> goals = new KeyedObservableList<>(Goal::getGoalId, KeyedObservableList.sameFields(...));
+ *   goals.sync(dbManager.getGoals(userId));
+ */
+public class KeyedObservableList<T> extends ModifiableObservableListBase<T> {
+
+    /**
+     * What one sync() changed
+     */
+    public static class Changes {
+        public final int inserted;
+        public final int removed;
+        public final int updated;
+
+        Changes(int inserted, int removed, int updated) {
+            this.inserted = inserted;
+            this.removed = removed;
+            this.updated = updated;
+        }
+
+        public boolean isEmpty() {
+            return inserted == 0 && removed == 0 && updated == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "inserted=" + inserted + ", removed=" + removed + ", updated=" + updated;
+        }
+    }
+
+    private final List<T> items = new ArrayList<>();
+    private final Function<? super T, ?> keyOf;
+    private final BiPredicate<? super T, ? super T> sameContent;
+
+    /**
+     * @param keyOf entity ID of a row
+     * @param sameContent true if two rows with the same ID would display the same
+     */
+    public KeyedObservableList(Function<? super T, ?> keyOf, BiPredicate<? super T, ? super T> sameContent) {
+        this.keyOf = keyOf;
+        this.sameContent = sameContent;
+    }
+
+    /**
+     * Key rows by ID and compare content with equals() (for models that implement it)
+     */
+    public KeyedObservableList(Function<? super T, ?> keyOf) {
+        this(keyOf, Objects::equals);
+    }
+
+    /**
+     * Content comparison built from the fields a view displays
+     * Example: sameFields(Goal::getGoalType, Goal::getTargetValue, Goal::getStatus)
+     */
+    @SafeVarargs
+    public static <T> BiPredicate<T, T> sameFields(Function<? super T, ?>... fields) {
+        return (a, b) -> {
+            for (Function<? super T, ?> field : fields) {
+                if (!Objects.equals(field.apply(a), field.apply(b))) return false;
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Make this list match fresh (same IDs, same order, fresh content) with the fewest
+     * removes, inserts and replacements, fired as one change. Must be called on the FX
+     * thread once the list is shown. Keys in fresh must be unique.
+     */
+    public Changes sync(List<? extends T> fresh) {
+        Map<Object, T> freshByKey = new HashMap<>(fresh.size() * 4 / 3 + 1);
+        for (T row : fresh) {
+            if (freshByKey.put(keyOf.apply(row), row) != null) {
+                throw new IllegalArgumentException("Duplicate key in fresh rows: " + keyOf.apply(row));
+            }
+        }
+
+        int inserted = 0;
+        int removed = 0;
+        int updated = 0;
+        beginChange();
+        try {
+            // 1. Drop rows whose ID is gone, compacting the array in one pass.
+            //    Reported front to back, each at its index after the earlier removals.
+            Set<Object> currentKeys = new HashSet<>(items.size() * 4 / 3 + 1);
+            int write = 0;
+            for (int read = 0; read < items.size(); read++) {
+                T row = items.get(read);
+                Object key = keyOf.apply(row);
+                if (freshByKey.containsKey(key) && currentKeys.add(key)) {
+                    items.set(write++, row);
+                } else {
+                    nextRemove(write, row);
+                    removed++;
+                }
+            }
+            items.subList(write, items.size()).clear();
+
+            // 2. Walk fresh in order; items[0, i) already matches fresh[0, i).
+            //    The remaining rows are all in fresh, usually in the same order.
+            int i = 0;
+            while (i < fresh.size()) {
+                T want = fresh.get(i);
+                Object wantKey = keyOf.apply(want);
+                if (i < items.size() && Objects.equals(keyOf.apply(items.get(i)), wantKey)) {
+                    T have = items.get(i);
+                    if (have != want && !sameContent.test(have, want)) {
+                        items.set(i, want);
+                        nextSet(i, have);
+                        updated++;
+                    }
+                    i++;
+                } else if (!currentKeys.contains(wantKey)) {
+                    items.add(i, want);
+                    nextAdd(i, i + 1);
+                    inserted++;
+                    i++;
+                } else {
+                    // wantKey is further down: the row in the way moved, so take it out
+                    // here and let it be inserted again where fresh has it
+                    T moved = items.remove(i);
+                    currentKeys.remove(keyOf.apply(moved));
+                    nextRemove(i, moved);
+                    removed++;
+                }
+            }
+        } finally {
+            endChange();
+        }
+        return new Changes(inserted, removed, updated);
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    protected void doAdd(int index, T element) {
+        items.add(index, element);
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        return items.set(index, element);
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        return items.remove(index);
+    }
+}
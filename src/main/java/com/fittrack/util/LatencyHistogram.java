@@ -0,0 +1,80 @@
+package com.fittrack.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - Lock-free histogram of operation latencies
+ *
+ * Latencies are counted in power-of-two microsecond buckets, so recording is
+ * O(1) with no allocation and percentiles are accurate to within a factor of
+ * two, which is plenty to tell a 2 ms save from a 200 ms one. Safe to record
+ * and read from any thread.
+ *
+ * Simple usage:
+ *   long start = System.nanoTime();
+ *   ...
+ *   histogram.record(System.nanoTime() - start);
+ *   logger.info("ℹ Save latency: {}", histogram);
+ */
+public class LatencyHistogram {
+
+    // Bucket i holds latencies in [2^i, 2^(i+1)) µs; the last one also takes anything longer
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record one latency
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / (double) n / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (never above the max seen)
+     * @param percentile between 0 and 100
+     */
+    public double getPercentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                double upperMillis = (1L << (bucket + 1)) / 1_000.0;
+                return Math.min(upperMillis, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.2f ms, p50<=%.2f ms, p99<=%.2f ms, max=%.2f ms",
+            getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,49 @@
+package com.fittrack.util;
+
+/**
+ * OptimisticCommand - A command whose UI effect can be applied before it is saved
+ *
+ * The command is split into its persistent half (persist/unpersist, run on the
+ * background writer) and its in-memory half (applyView/revertView, run on the FX
+ * thread). CommandHistory.executeAsync() applies the view change at once and
+ * reverts it if persisting fails, so the table updates without waiting for the disk.
+ * execute() and undo() still run both halves synchronously, persistence first.
+ */
+public interface OptimisticCommand extends Command {
+
+    /**
+     * Write the change to the database (background thread)
+     * @return true if it was saved
+     */
+    boolean persist();
+
+    /**
+     * Reverse persist() in the database (background thread)
+     * @return true if it was reversed
+     */
+    boolean unpersist();
+
+    /**
+     * Show the change in the UI lists (FX thread)
+     */
+    void applyView();
+
+    /**
+     * Reverse applyView() (FX thread)
+     */
+    void revertView();
+
+    @Override
+    default boolean execute() {
+        if (!persist()) return false;
+        applyView();
+        return true;
+    }
+
+    @Override
+    default boolean undo() {
+        if (!unpersist()) return false;
+        revertView();
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fittrack.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * PersistentCommand - A command that can be written to the undo journal
+ *
+ * CommandHistory appends every executed, undone and redone command to its
+ * CommandJournal so the history survives a restart. The journal's decoder
+ * turns getTypeId() and the bytes written by writeTo() back into a command.
+ * Commands that do not implement this interface still work, but the history
+ * cannot be restored past them.
+ */
+public interface PersistentCommand extends Command {
+
+    /**
+     * Stable tag identifying the command class in the journal.
+     * Never reuse or renumber a tag once it has shipped.
+     */
+    int getTypeId();
+
+    /**
+     * Write the state needed to undo/redo the command (its current state, e.g. the row's latest ID)
+     */
+    void writeTo(DataOutput out) throws IOException;
+}
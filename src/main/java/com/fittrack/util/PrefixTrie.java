@@ -0,0 +1,279 @@
+package com.fittrack.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PrefixTrie - Compressed (radix) trie answering "best keys starting with this prefix"
+ *
+ * Every node caches the K highest-weighted entries below it, so complete() costs a
+ * walk down the prefix plus copying at most K values, however many keys share the
+ * prefix. Edges hold whole substrings, so the node count grows with the number of
+ * keys rather than their total length. Keys are unique, so when the same text can
+ * belong to several values add a suffix (e.g. a separator and an ID); keys must not
+ * contain '\0', which ends every key internally. Not thread safe.
+ *
+ * Simple usage:
+ *   PrefixTrie<FoodItem> trie = new PrefixTrie<>(8);
+ *   trie.put("chicken breast\u0001" + item.getFoodId(), item, timesLogged);
+ *   List<FoodItem> best = trie.complete("chi", 8);
+ */
+public class PrefixTrie<T> {
+
+    // Highest weight first; ties alphabetically by key
+    private static final Comparator<Entry<?>> BEST_FIRST =
+        Comparator.<Entry<?>>comparingLong(entry -> -entry.weight).thenComparing(entry -> entry.key);
+
+    private static final class Entry<T> {
+        final String key;
+        final T value;
+        final long weight;
+
+        Entry(String key, T value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    // Shared by every leaf until it needs room (most nodes are leaves)
+    private static final String[] NO_LABELS = new String[0];
+    private static final Node<?>[] NO_NODES = new Node<?>[0];
+    private static final Entry<?>[] NO_ENTRIES = new Entry<?>[0];
+
+    private static final class Node<T> {
+        String[] labels = NO_LABELS; // edge labels, sorted by first char
+        Node<T>[] children = newNodes();
+        int childCount;
+        Entry<T>[] top = newEntries(); // best entries below this node (a leaf holds just its own)
+        int topCount;
+    }
+
+    // Appended to every key so that no stored key is a prefix of another
+    private static final char END = '\0';
+
+    private final int topSize;
+    private final Node<T> root = new Node<>();
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * @param topSize entries cached per node; complete() returns at most this many
+     */
+    public PrefixTrie(int topSize) {
+        if (topSize < 1) throw new IllegalArgumentException("topSize must be positive");
+        this.topSize = topSize;
+    }
+
+    /**
+     * Add a key, or replace its value and weight
+     */
+    public void put(String key, T value, long weight) {
+        if (key.indexOf(END) >= 0) throw new IllegalArgumentException("key must not contain \\0");
+        remove(key);
+        Entry<T> entry = new Entry<>(key, value, weight);
+        String path = key + END;
+
+        List<Node<T>> visited = new ArrayList<>();
+        Node<T> node = root;
+        int i = 0;
+        while (true) {
+            visited.add(node);
+            int slot = find(node, path.charAt(i));
+            if (slot < 0) {
+                Node<T> leaf = new Node<>();
+                insertChild(node, -(slot + 1), path.substring(i), leaf);
+                visited.add(leaf);
+                break;
+            }
+
+            String label = node.labels[slot];
+            // Stored keys end in END and differ from this one, so the walk never runs into a leaf
+            int common = commonPrefix(label, path, i);
+            Node<T> child = node.children[slot];
+            if (common < label.length()) {
+                // Split the edge: node -label[0, common)-> mid -label[common..]-> child
+                Node<T> mid = new Node<>();
+                insertChild(mid, 0, label.substring(common), child);
+                mid.top = Arrays.copyOf(child.top, child.top.length);
+                mid.topCount = child.topCount;
+                node.labels[slot] = label.substring(0, common);
+                node.children[slot] = mid;
+            }
+            node = node.children[slot];
+            i += common;
+        }
+        for (Node<T> onPath : visited) offer(onPath, entry);
+        entries.put(key, entry);
+    }
+
+    /**
+     * Remove a key
+     * @return true if it was present
+     */
+    public boolean remove(String key) {
+        Entry<T> entry = entries.remove(key);
+        if (entry == null) return false;
+        String path = key + END;
+
+        // Nodes from the root down to the leaf's parent, with the slot taken at each one
+        List<Node<T>> visited = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Node<T> node = root;
+        int i = 0;
+        while (true) {
+            int slot = find(node, path.charAt(i));
+            visited.add(node);
+            slots.add(slot);
+            Node<T> child = node.children[slot];
+            i += node.labels[slot].length();
+            if (i == path.length()) break;
+            node = child;
+        }
+
+        int depth = visited.size() - 1;
+        Node<T> parent = visited.get(depth);
+        removeChild(parent, slots.get(depth));
+        if (depth > 0 && parent.childCount == 1) {
+            // Keep the trie compressed: fold the parent into its only remaining child
+            Node<T> grandparent = visited.get(depth - 1);
+            int parentSlot = slots.get(depth - 1);
+            grandparent.labels[parentSlot] += parent.labels[0];
+            grandparent.children[parentSlot] = parent.children[0];
+            depth--;
+        }
+        for (int d = depth; d >= 0; d--) {
+            Node<T> ancestor = visited.get(d);
+            if (contains(ancestor, entry)) recompute(ancestor);
+        }
+        return true;
+    }
+
+    /**
+     * Values of the best keys starting with prefix, best first
+     * @param limit at most this many (capped at the trie's topSize)
+     */
+    public List<T> complete(String prefix, int limit) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int slot = find(node, prefix.charAt(i));
+            if (slot < 0) return List.of();
+            String label = node.labels[slot];
+            int remaining = prefix.length() - i;
+            int compared = Math.min(remaining, label.length());
+            if (!prefix.regionMatches(i, label, 0, compared)) return List.of();
+            node = node.children[slot];
+            i += compared;
+        }
+
+        int count = Math.min(limit, node.topCount);
+        List<T> values = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) values.add(node.top[k].value);
+        return values;
+    }
+
+    public boolean containsKey(String key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        root.labels = NO_LABELS;
+        root.children = newNodes();
+        root.childCount = 0;
+        root.top = newEntries();
+        root.topCount = 0;
+    }
+
+    // ==================== NODES ====================
+
+    private void offer(Node<T> node, Entry<T> entry) {
+        int at = node.topCount;
+        while (at > 0 && BEST_FIRST.compare(entry, node.top[at - 1]) < 0) at--;
+        if (at >= topSize) return;
+        if (node.topCount == node.top.length) {
+            node.top = Arrays.copyOf(node.top, Math.min(topSize, Math.max(1, node.top.length * 2)));
+        }
+        int moved = Math.min(node.topCount, topSize - 1) - at;
+        System.arraycopy(node.top, at, node.top, at + 1, moved);
+        node.top[at] = entry;
+        node.topCount = Math.min(node.topCount + 1, topSize);
+    }
+
+    private void recompute(Node<T> node) {
+        node.top = newEntries();
+        node.topCount = 0;
+        for (int c = 0; c < node.childCount; c++) {
+            Node<T> child = node.children[c];
+            for (int k = 0; k < child.topCount; k++) offer(node, child.top[k]);
+        }
+    }
+
+    private static <T> boolean contains(Node<T> node, Entry<T> entry) {
+        for (int k = 0; k < node.topCount; k++) {
+            if (node.top[k] == entry) return true;
+        }
+        return false;
+    }
+
+    // Binary search on the edges' first chars; like Arrays.binarySearch, (-(insertion point) - 1) if absent
+    private static <T> int find(Node<T> node, char c) {
+        int low = 0;
+        int high = node.childCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = node.labels[mid].charAt(0);
+            if (first < c) low = mid + 1;
+            else if (first > c) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    private static <T> void insertChild(Node<T> node, int slot, String label, Node<T> child) {
+        if (node.childCount == node.labels.length) {
+            int capacity = Math.max(2, node.labels.length * 2);
+            node.labels = Arrays.copyOf(node.labels, capacity);
+            node.children = Arrays.copyOf(node.children, capacity);
+        }
+        System.arraycopy(node.labels, slot, node.labels, slot + 1, node.childCount - slot);
+        System.arraycopy(node.children, slot, node.children, slot + 1, node.childCount - slot);
+        node.labels[slot] = label;
+        node.children[slot] = child;
+        node.childCount++;
+    }
+
+    private static <T> void removeChild(Node<T> node, int slot) {
+        int after = node.childCount - slot - 1;
+        System.arraycopy(node.labels, slot + 1, node.labels, slot, after);
+        System.arraycopy(node.children, slot + 1, node.children, slot, after);
+        node.childCount--;
+        node.labels[node.childCount] = null;
+        node.children[node.childCount] = null;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) i++;
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newNodes() {
+        return (Node<T>[]) NO_NODES;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newEntries() {
+        return (Entry<T>[]) NO_ENTRIES;
+    }
+}
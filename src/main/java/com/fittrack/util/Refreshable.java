@@ -0,0 +1,14 @@
+package com.fittrack.util;
+
+/**
+ * Refreshable - Implemented by controllers whose views SceneSwitcher keeps cached
+ * refresh() is called on the FX thread each time a cached view is shown again,
+ * so the controller can reload its data instead of being rebuilt from FXML.
+ */
+public interface Refreshable {
+
+    /**
+     * Reload the data shown by this view
+     */
+    void refresh();
+}
@@ -1,7 +1,23 @@
 package com.fittrack.util;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fittrack.model.AsyncDatabaseManager;
+import com.fittrack.model.User;
+import com.fittrack.model.WorkoutLogBuffer;
+
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -12,9 +28,51 @@ import javafx.stage.Stage;
 /**
  * SceneSwitcher - Utility class for switching between FXML scenes
  * This class handles navigation between different views in the application
+ *
+ * The main views (Dashboard, Goals, WorkoutPlans, FoodLog, Progress, Profile)
+ * are parsed once per logged-in user and their Scene and controller are kept,
+ * so switching back to one only calls its controller's refresh() (see
+ * Refreshable). preloadMainViews() parses them on a background thread after
+ * login; their first show skips refresh(), since initialize() already loaded them.
+ * Buffered workout sets are flushed on the database writer at each switch; when
+ * sets are still queued the switch waits (without blocking the FX thread) so the
+ * next view sees them. Everything except the preload parsing and the flush runs on
+ * the FX thread.
  */
 public class SceneSwitcher {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(SceneSwitcher.class);
+
+    private static final String VIEW_PATH = "/com/fittrack/view/";
+
+    // Views kept alive between navigations; Login/Register are always rebuilt
+    private static final List<String> MAIN_VIEWS = List.of(
+        "Dashboard.fxml", "Goals.fxml", "WorkoutPlans.fxml", "FoodLog.fxml", "Progress.fxml", "Profile.fxml");
+    private static final Set<String> CACHED_VIEWS = Set.copyOf(MAIN_VIEWS);
+
+    /**
+     * A parsed view: its Scene (which owns the root) and controller
+     */
+    private static class CachedView {
+        final Scene scene;
+        final Object controller;
+        // False until first shown; a preloaded view's initialize() has just loaded its data
+        boolean shownOnce;
+
+        CachedView(Scene scene, Object controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+
+    // FX thread only
+    private static final Map<String, CachedView> cache = new HashMap<>();
+    private static int cacheUserId = -1;
+    private static ExecutorService preloader;
+
+    // Navigation latency per view (FX thread only): {count, total nanos, max nanos}
+    private static final Map<String, long[]> latencies = new LinkedHashMap<>();
+
     /**
      * Switch to a new scene
      * @param event the Event from the button click or mouse click
@@ -22,22 +80,7 @@ public class SceneSwitcher {
      * @throws IOException if the FXML file cannot be loaded
      */
     public static void switchScene(Event event, String fxmlFileName) throws IOException {
-        // Build the full path to the FXML file
-        String fxmlPath = "/com/fittrack/view/" + fxmlFileName;
-        
-        // Load the FXML file
-        FXMLLoader loader = new FXMLLoader(SceneSwitcher.class.getResource(fxmlPath));
-        Parent root = loader.load();
-        
-        // Get the current stage from the event source
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        
-        // Create a new scene
-        Scene scene = new Scene(root);
-        
-        // Set the scene and show it
-        stage.setScene(scene);
-        stage.show();
+        show(stageOf(event), fxmlFileName, null);
     }
     
     /**
@@ -48,30 +91,13 @@ public class SceneSwitcher {
      * @throws IOException if the FXML file cannot be loaded
      */
     public static void switchScene(Event event, String fxmlFileName, String title) throws IOException {
-        // Build the full path to the FXML file
-        String fxmlPath = "/com/fittrack/view/" + fxmlFileName;
-        
-        // Load the FXML file
-        FXMLLoader loader = new FXMLLoader(SceneSwitcher.class.getResource(fxmlPath));
-        Parent root = loader.load();
-        
-        // Get the current stage from the event source BEFORE changing scene
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        
-        // Create a new scene
-        Scene scene = new Scene(root);
-        
-        // Set the title first
-        stage.setTitle(title);
-        
-        // Set the scene and show it
-        stage.setScene(scene);
-        stage.show();
+        show(stageOf(event), fxmlFileName, title);
     }
     
     /**
      * Get the controller from a loaded FXML file
-     * This is useful when you need to pass data to the next controller
+     * This is useful when you need to pass data to the next controller.
+     * Always builds a fresh, uncached view.
      * 
      * @param event the Event from the button click or mouse click
      * @param fxmlFileName the name of the FXML file
@@ -79,15 +105,172 @@ public class SceneSwitcher {
      * @throws IOException if the FXML file cannot be loaded
      */
     public static FXMLLoader switchSceneAndGetController(Event event, String fxmlFileName) throws IOException {
-        String fxmlPath = "/com/fittrack/view/" + fxmlFileName;
-        FXMLLoader loader = new FXMLLoader(SceneSwitcher.class.getResource(fxmlPath));
+        flushWorkoutLogs();
+        FXMLLoader loader = newLoader(fxmlFileName);
         Parent root = loader.load();
         
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+        Stage stage = stageOf(event);
         Scene scene = new Scene(root);
         stage.setScene(scene);
         stage.show();
         
         return loader;
     }
+
+    /**
+     * Parse the main views on a background thread so the first visit to each is instant.
+     * Call on the FX thread after login.
+     */
+    public static void preloadMainViews() {
+        syncCacheWithSession();
+        int userId = cacheUserId;
+        if (preloader == null) {
+            preloader = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fittrack-view-preload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        for (String fxml : MAIN_VIEWS) {
+            if (cache.containsKey(fxml)) continue;
+            preloader.execute(() -> {
+                try {
+                    // Nodes may be built off the FX thread as long as they are not in a live scene yet
+                    long start = System.nanoTime();
+                    FXMLLoader loader = newLoader(fxml);
+                    Parent root = loader.load();
+                    Object controller = loader.getController();
+                    long parseMillis = (System.nanoTime() - start) / 1_000_000;
+
+                    // Scenes must be created on the FX thread
+                    Platform.runLater(() -> {
+                        if (userId != cacheUserId || cache.containsKey(fxml)) return;
+                        cache.put(fxml, new CachedView(new Scene(root), controller));
+                        logger.debug("Preloaded {} in {} ms", fxml, parseMillis);
+                    });
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("⚠ Could not preload {}: {}", fxml, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every cached view (e.g. on logout, since controllers hold the user)
+     */
+    public static void clearCache() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(SceneSwitcher::clearCache);
+            return;
+        }
+        cache.clear();
+        cacheUserId = -1;
+    }
+
+    /**
+     * Get a one-line summary of navigation latency per view (switch start to first layout pulse)
+     */
+    public static String getNavigationSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : latencies.entrySet()) {
+            long[] stats = entry.getValue();
+            if (summary.length() > 0) summary.append(", ");
+            summary.append(String.format("%s n=%d avg=%.1f ms max=%.1f ms", entry.getKey(), stats[0],
+                stats[1] / (double) stats[0] / 1_000_000.0, stats[2] / 1_000_000.0));
+        }
+        return summary.length() == 0 ? "no navigation yet" : summary.toString();
+    }
+
+    private static void show(Stage stage, String fxmlFileName, String title) throws IOException {
+        if (WorkoutLogBuffer.getInstance().getPendingCount() > 0) {
+            // Queued sets are written first so the next view reads them; the FX thread does not wait
+            flushWorkoutLogs().whenCompleteAsync((flushed, ex) -> {
+                try {
+                    showNow(stage, fxmlFileName, title);
+                } catch (IOException e) {
+                    logger.error("✗ Could not load {}: {}", fxmlFileName, e.getMessage(), e);
+                }
+            }, FxThreadMonitor.executor());
+            return;
+        }
+        showNow(stage, fxmlFileName, title);
+    }
+
+    private static void showNow(Stage stage, String fxmlFileName, String title) throws IOException {
+        long start = System.nanoTime();
+        syncCacheWithSession();
+
+        CachedView view = cache.get(fxmlFileName);
+        boolean cached = view != null;
+        if (cached) {
+            if (view.shownOnce && view.controller instanceof Refreshable refreshable) {
+                refreshable.refresh();
+            }
+        } else {
+            FXMLLoader loader = newLoader(fxmlFileName);
+            Parent root = loader.load();
+            view = new CachedView(new Scene(root), loader.getController());
+            if (CACHED_VIEWS.contains(fxmlFileName) && cacheUserId != -1) {
+                cache.put(fxmlFileName, view);
+            }
+        }
+
+        if (title != null) {
+            stage.setTitle(title);
+        }
+        stage.setScene(view.scene);
+        stage.show();
+        view.shownOnce = true;
+        recordLatency(fxmlFileName, view.scene, start, cached);
+    }
+
+    /**
+     * Write buffered workout sets on the database writer; later writes queue behind it
+     */
+    private static CompletableFuture<Integer> flushWorkoutLogs() {
+        return AsyncDatabaseManager.getInstance().flushWorkoutLogs().exceptionally(ex -> {
+            logger.error("✗ Could not flush buffered workout sets", ex);
+            return 0;
+        });
+    }
+
+    /**
+     * Drop cached views built for a different user than the one logged in now
+     */
+    private static void syncCacheWithSession() {
+        User user = SessionManager.getInstance().getLoggedInUser();
+        int userId = user != null ? user.getUserId() : -1;
+        if (userId != cacheUserId) {
+            cache.clear();
+            cacheUserId = userId;
+        }
+    }
+
+    /**
+     * Record the time until the new scene has been laid out for the first time
+     */
+    private static void recordLatency(String fxmlFileName, Scene scene, long start, boolean cached) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            long elapsed = System.nanoTime() - start;
+            long[] stats = latencies.computeIfAbsent(fxmlFileName, key -> new long[3]);
+            stats[0]++;
+            stats[1] += elapsed;
+            stats[2] = Math.max(stats[2], elapsed);
+            logger.debug("Navigated to {} in {} ms ({})", fxmlFileName, elapsed / 1_000_000,
+                cached ? "cached" : "loaded");
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static FXMLLoader newLoader(String fxmlFileName) {
+        return new FXMLLoader(SceneSwitcher.class.getResource(VIEW_PATH + fxmlFileName));
+    }
+
+    private static Stage stageOf(Event event) {
+        // Get the current stage from the event source BEFORE changing scene
+        return (Stage) ((Node) event.getSource()).getScene().getWindow();
+    }
 }
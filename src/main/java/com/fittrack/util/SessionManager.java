@@ -1,5 +1,8 @@
 package com.fittrack.util;
 
+import com.fittrack.model.FoodLibrary;
+import com.fittrack.model.PersonalRecords;
+import com.fittrack.model.TimeSeriesStore;
 import com.fittrack.model.User;
 
 /**
@@ -58,6 +61,11 @@ public class SessionManager {
      */
     public void logout() {
         this.loggedInUser = null;
+        SceneSwitcher.clearCache(); // cached views belong to the previous user
+        TimeSeriesStore.getInstance().clear();
+        PersonalRecords.getInstance().clear();
+        FoodLibrary.getInstance().clear();
+        CommandHistory.getInstance().closeJournal(); // undo history stays in the user's journal
     }
     
     /**
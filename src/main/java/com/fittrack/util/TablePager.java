@@ -0,0 +1,158 @@
+package com.fittrack.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * TablePager - Loads a TableView's rows one page at a time as the user scrolls
+ *
+ * The first page is fetched by reload(); the next page is fetched whenever the
+ * vertical scroll bar gets near the bottom. Each request passes the last row
+ * already loaded, so the loader can use keyset pagination ("rows older than
+ * this one"). Memory and time-to-first-paint then depend on the page size,
+ * not on how long the history is. The page size should be larger than the
+ * number of visible rows, otherwise there is no scroll bar to trigger the next
+ * page. All methods must be called on the FX thread.
+ *
+ * If items is a KeyedObservableList, reload() re-fetches every row loaded so
+ * far in one request and syncs it into the list, so only changed rows are
+ * redrawn and the scroll position is kept.
+ *
+ * Simple usage:
+ *   new TablePager<>(foodLogTable, foodLogList, 200, (last, limit) -> last == null
+ *       ? asyncDb.getFoodLogPage(userId, null, 0, limit)
+ *       : asyncDb.getFoodLogPage(userId, last.getDate(), last.getId(), limit)).reload();
+ */
+public class TablePager<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TablePager.class);
+
+    // Start fetching when the user is this far down the loaded rows
+    private static final double PREFETCH_THRESHOLD = 0.9;
+
+    /**
+     * Fetches up to limit rows that come after the given row (null = first page)
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        CompletableFuture<List<T>> load(T after, int limit);
+    }
+
+    private final TableView<T> table;
+    private final ObservableList<T> items;
+    private final int pageSize;
+    private final PageLoader<T> loader;
+
+    private T lastLoaded;
+    private boolean loading;
+    private boolean hasMore = true;
+    // Bumped on reload() so pages requested before it are dropped
+    private int generation;
+    private ScrollBar attachedScrollBar;
+
+    public TablePager(TableView<T> table, ObservableList<T> items, int pageSize, PageLoader<T> loader) {
+        this.table = table;
+        this.items = items;
+        this.pageSize = pageSize;
+        this.loader = loader;
+
+        // The scroll bar only exists once the table has a skin
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachToScrollBar());
+        attachToScrollBar();
+    }
+
+    /**
+     * Fetch the first page again (or, for a KeyedObservableList, every row loaded so far)
+     */
+    public void reload() {
+        generation++;
+        lastLoaded = null;
+        hasMore = true;
+        loading = false;
+        if (!(items instanceof KeyedObservableList<T> keyed) || items.isEmpty()) {
+            items.clear();
+            loadNextPage();
+            return;
+        }
+
+        loading = true;
+        int requestGeneration = generation;
+        int limit = Math.max(pageSize, items.size());
+        loader.load(null, limit)
+            .thenAcceptAsync(rows -> {
+                if (requestGeneration != generation) return;
+                loading = false;
+                KeyedObservableList.Changes changes = keyed.sync(rows);
+                lastLoaded = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+                hasMore = rows.size() == limit;
+                logger.debug("Reloaded {} rows ({})", rows.size(), changes);
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error reloading table", ex);
+                FxThreadMonitor.runLater(() -> {
+                    if (requestGeneration == generation) loading = false;
+                });
+                return null;
+            });
+    }
+
+    /**
+     * Fetch the next page unless one is already in flight or the end was reached
+     */
+    public void loadNextPage() {
+        if (loading || !hasMore) return;
+        loading = true;
+        int requestGeneration = generation;
+
+        loader.load(lastLoaded, pageSize)
+            .thenAcceptAsync(page -> {
+                if (requestGeneration != generation) return;
+                loading = false;
+                if (!page.isEmpty()) {
+                    lastLoaded = page.get(page.size() - 1);
+                    items.addAll(page);
+                }
+                hasMore = page.size() == pageSize;
+                logger.debug("Loaded page of {} rows ({} total, more={})", page.size(), items.size(), hasMore);
+            }, FxThreadMonitor.executor())
+            .exceptionally(ex -> {
+                logger.error("✗ Error loading table page", ex);
+                FxThreadMonitor.runLater(() -> {
+                    if (requestGeneration == generation) loading = false;
+                });
+                return null;
+            });
+    }
+
+    /**
+     * Check if more pages may exist
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    private void attachToScrollBar() {
+        if (attachedScrollBar != null || table.getSkin() == null) return;
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                attachedScrollBar = bar;
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    double max = bar.getMax();
+                    if (max > 0 && newValue.doubleValue() >= max * PREFETCH_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                return;
+            }
+        }
+    }
+}
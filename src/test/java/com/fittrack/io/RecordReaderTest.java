@@ -0,0 +1,59 @@
+package com.fittrack.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the streaming CSV and JSON import readers.
+ */
+class RecordReaderTest {
+
+    @Test
+    void testCsvQuotedFieldsAndMissingValues() throws IOException {
+        String csv = "Food_Name,calories,protein\r\n"
+            + "\"Rice, \"\"white\"\"\",200,\n"
+            + "\n"
+            + "\"Multi\nline\",50,3.5\n";
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            Map<String, String> first = reader.next();
+            assertEquals("Rice, \"white\"", first.get("food_name"));
+            assertEquals("200", first.get("calories"));
+            assertFalse(first.containsKey("protein"), "Empty fields should be treated as missing");
+
+            Map<String, String> second = reader.next();
+            assertEquals("Multi\nline", second.get("food_name"));
+            assertEquals("3.5", second.get("protein"));
+
+            assertNull(reader.next(), "Blank lines should be skipped and end of input returns null");
+        }
+    }
+
+    @Test
+    void testJsonArrayAndNdjsonGiveSameRecords() throws IOException {
+        String array = "[ {\"weight\": 72.5, \"date\": \"2024-01-01\", \"note\": null},\n"
+            + "  {\"weight\": 72.1, \"date\": \"2024-01-02\"} ]";
+        String ndjson = "{\"weight\":72.5,\"date\":\"2024-01-01\"}\n{\"weight\":72.1,\"date\":\"2024-01-02\"}\n";
+
+        try (JsonRecordReader fromArray = new JsonRecordReader(new StringReader(array));
+             JsonRecordReader fromLines = new JsonRecordReader(new StringReader(ndjson))) {
+            for (int i = 0; i < 2; i++) {
+                assertEquals(fromLines.next(), fromArray.next());
+            }
+            assertNull(fromArray.next());
+            assertNull(fromLines.next());
+        }
+    }
+
+    @Test
+    void testJsonRejectsNestedValues() {
+        JsonRecordReader reader = new JsonRecordReader(new StringReader("[{\"food\": {\"name\": \"x\"}}]"));
+        assertThrows(IOException.class, reader::next);
+    }
+}
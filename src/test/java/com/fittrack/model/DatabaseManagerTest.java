@@ -32,9 +32,27 @@ class DatabaseManagerTest {
     }
 
     @Test
-    void testDatabaseConnection() {
-        Connection conn = dbManager.connect();
-        assertNotNull(conn, "Database connection should not be null");
+    void testDatabaseConnection() throws Exception {
+        try (Connection conn = dbManager.connect()) {
+            assertNotNull(conn, "Database connection should not be null");
+        }
+    }
+
+    @Test
+    void testPooledConnectionIsReused() throws Exception {
+        dbManager.getGoals(1);
+        long openReaders = dbManager.getPoolStats().openReaders;
+
+        for (int i = 0; i < 20; i++) {
+            dbManager.getGoals(1);
+        }
+
+        assertEquals(openReaders, dbManager.getPoolStats().openReaders,
+            "Sequential reads should reuse the same pooled connection");
+
+        Connection lease = dbManager.connectReadOnly();
+        lease.close();
+        assertTrue(lease.isClosed(), "Closed lease should report closed");
     }
 
     @Test
@@ -44,6 +62,19 @@ class DatabaseManagerTest {
         assertTrue(true, "Tables should be created without errors");
     }
 
+    @Test
+    void testMigrationsAppliedAndIdempotent() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator();
+        dbManager.createTables(); // second run must be a no-op
+
+        try (Connection conn = dbManager.connect()) {
+            assertEquals(migrator.getLatestVersion(), migrator.getCurrentVersion(conn),
+                "Schema should be at the latest migration version");
+            assertEquals(migrator.getLatestVersion(), migrator.migrate(conn),
+                "Re-running migrations should not change the version");
+        }
+    }
+
     @Test
     void testRegisterNewUser() {
         User user = new User();
@@ -245,6 +276,235 @@ class DatabaseManagerTest {
         assertTrue(history.isEmpty(), "Weight history should be empty after deletion");
     }
 
+    @Test
+    void testFoodLogKeysetPagination() {
+        User user = new User();
+        user.setUsername("pagetest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        User loggedInUser = dbManager.login(user.getUsername(), "password123");
+
+        // Two entries per day so pages have to break ties on the id
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 10; i++) {
+            dbManager.saveFoodLog(new FoodLog(loggedInUser.getUserId(), "Food " + i, 100, 0, 0, 0, start.plusDays(i / 2)));
+        }
+
+        var all = dbManager.getFoodLog(loggedInUser.getUserId(), null);
+        var paged = new java.util.ArrayList<FoodLog>();
+        var page = dbManager.getFoodLogPage(loggedInUser.getUserId(), null, 0, 3);
+        while (!page.isEmpty()) {
+            paged.addAll(page);
+            FoodLog last = page.get(page.size() - 1);
+            page = dbManager.getFoodLogPage(loggedInUser.getUserId(), last.getDate(), last.getId(), 3);
+        }
+
+        assertEquals(10, paged.size(), "Pages should cover every entry exactly once");
+        assertEquals(all, paged, "Pages should follow the same newest-first order as the full query");
+    }
+
+    @Test
+    void testDailyNutritionTotals() {
+        User user = new User();
+        user.setUsername("totalstest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        User loggedInUser = dbManager.login(user.getUsername(), "password123");
+        int userId = loggedInUser.getUserId();
+
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        dbManager.saveFoodLog(new FoodLog(userId, "Oats", 300, 10, 50, 5, day));
+        dbManager.saveFoodLog(new FoodLog(userId, "Eggs", 150, 12, 1, 10, day));
+        dbManager.saveFoodLog(new FoodLog(userId, "Rice", 200, 4, 45, 1, day.plusDays(2)));
+
+        DailyNutrition totals = dbManager.getDailyNutrition(userId, day);
+        assertEquals(450, totals.getCalories());
+        assertEquals(22.0, totals.getProtein(), 0.01);
+        assertEquals(2, totals.getEntries());
+
+        assertEquals(0, dbManager.getDailyNutrition(userId, day.plusDays(1)).getCalories(),
+            "A day with nothing logged should total zero");
+        assertEquals(2, dbManager.getDailyNutrition(userId, day, day.plusDays(2)).size(),
+            "Range totals should have one row per logged day");
+    }
+
+    @Test
+    void testDailySummaryTracksWritesAndMatchesRebuild() {
+        User user = new User();
+        user.setUsername("summarytest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        int userId = dbManager.login(user.getUsername(), "password123").getUserId();
+
+        LocalDate day = LocalDate.of(2024, 4, 1);
+        FoodLog oats = new FoodLog(userId, "Oats", 300, 10, 50, 5, day);
+        dbManager.saveFoodLog(oats);
+        dbManager.saveFoodLog(new FoodLog(userId, "Eggs", 150, 12, 1, 10, day));
+        WorkoutLog squat = new WorkoutLog(userId, "Squat", 3, 5, 100, day);
+        dbManager.saveWorkoutLog(squat);
+        dbManager.deleteFoodLog(oats.getId());
+
+        var summaries = dbManager.getDailySummaries(userId, day, day);
+        assertEquals(1, summaries.size());
+        assertEquals(150, summaries.get(0).getNutrition().getCalories());
+        assertEquals(1500.0, summaries.get(0).getVolumeKg(), 0.01);
+
+        dbManager.deleteWorkoutLog(squat.getId());
+        String incremental = dbManager.getDailySummaries(userId, day, day).toString();
+        assertTrue(dbManager.rebuildDailySummary() >= 0, "Rebuild should succeed");
+        assertEquals(incremental, dbManager.getDailySummaries(userId, day, day).toString(),
+            "Trigger-maintained rollup should match a full rebuild");
+    }
+
+    @Test
+    void testTimeSeriesStoreTracksWrites() {
+        User user = new User();
+        user.setUsername("seriestest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        int userId = user.getUserId();
+
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        dbManager.saveWeightHistory(new WeightHistory(userId, 82.0, day.minusDays(10)));
+        TimeSeriesStore store = new TimeSeriesStore(dbManager);
+        assertEquals(1, store.getWeights(userId).size(), "Existing rows should be loaded");
+
+        // Later writes reach the shared store, which this test's store mirrors
+        WeightHistory latest = new WeightHistory(userId, 80.5, day);
+        dbManager.saveWeightHistory(latest);
+        store.weightSaved(latest);
+        FoodLog lunch = new FoodLog(userId, "Rice", 400, 8, 80, 2, day);
+        dbManager.saveFoodLog(lunch);
+        store.foodSaved(lunch);
+        store.foodSaved(lunch); // a repeated notification must not double count
+
+        DaySeries weights = store.getWeights(userId);
+        assertEquals(2, weights.size());
+        assertEquals(80.5, weights.last(TimeSeriesStore.WEIGHT), 0.001);
+        assertEquals(400, store.getFood(userId).sum(TimeSeriesStore.CALORIES, day.minusDays(6), day), 0.001);
+
+        store.foodDeleted(lunch.getId());
+        assertEquals(0, store.getFood(userId).count(day, day));
+        assertEquals(dbManager.loadWeightSeries(userId).toString(), weights.toString(),
+            "Incrementally maintained series should match a fresh load");
+    }
+
+    @Test
+    void testPersonalRecordsFollowWritesAndDeletes() {
+        User user = new User();
+        user.setUsername("prtest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        int userId = user.getUserId();
+
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        WorkoutLog heavy = new WorkoutLog(userId, "Bench Press", 1, 3, 100.0, day.minusDays(7));
+        dbManager.saveWorkoutLog(heavy);
+        PersonalRecords records = new PersonalRecords(dbManager);
+        assertEquals(100.0, records.get(userId, "bench press").heaviest.value, 0.001,
+            "Existing rows should be loaded, names matched case-insensitively");
+
+        // 5 reps at 95 kg: lighter, but a better estimated 1RM and more volume
+        WorkoutLog strong = new WorkoutLog(userId, "Bench Press", 3, 5, 95.0, day);
+        dbManager.saveWorkoutLog(strong);
+        records.workoutSaved(strong);
+        PersonalRecords.Exercise bench = records.get(userId, "Bench Press");
+        assertEquals(heavy.getId(), bench.heaviest.logId);
+        assertEquals(strong.getId(), bench.oneRepMax.logId);
+        assertEquals(PersonalRecords.estimateOneRepMax(95.0, 5), bench.oneRepMax.value, 0.001);
+        assertEquals(3 * 5 * 95.0, bench.volume.value, 0.001);
+
+        // Deleting the heaviest set falls back to the next best from the database
+        dbManager.deleteWorkoutLog(heavy.getId());
+        records.workoutDeleted(heavy.getId());
+        assertEquals(strong.getId(), records.get(userId, "Bench Press").heaviest.logId);
+
+        dbManager.deleteWorkoutLog(strong.getId());
+        records.workoutDeleted(strong.getId());
+        assertNull(records.get(userId, "Bench Press"));
+    }
+
+    @Test
+    void testTransactionCommitsOrRollsBackAllWrites() {
+        User user = new User();
+        user.setUsername("txtest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        int userId = user.getUserId();
+        LocalDate day = LocalDate.of(2024, 6, 1);
+
+        // A failing batch leaves nothing behind, not even the writes before the failure
+        boolean committed = dbManager.inTransaction(userId, () ->
+            dbManager.saveFoodLog(new FoodLog(userId, "Toast", 200, 6, 30, 3, day))
+                && dbManager.saveFoodLog(new FoodLog(userId, "Jam", 80, 0, 20, 0, day))
+                && false);
+        assertFalse(committed);
+        assertEquals(0, dbManager.getFoodLog(userId, day).size());
+        assertEquals(0, TimeSeriesStore.getInstance().getFood(userId).count(day, day),
+            "Cached series should not keep rolled-back rows");
+
+        FoodLog toast = new FoodLog(userId, "Toast", 200, 6, 30, 3, day);
+        assertTrue(dbManager.inTransaction(userId, () ->
+            dbManager.saveFoodLog(toast)
+                && dbManager.saveFoodLog(new FoodLog(userId, "Jam", 80, 0, 20, 0, day))
+                && dbManager.inTransaction(userId, () -> dbManager.deleteFoodLog(toast.getId()))));
+        assertEquals(1, dbManager.getFoodLog(userId, day).size(), "Nested work should join the outer transaction");
+        assertEquals(80, dbManager.getDailyNutrition(userId, day).getCalories());
+
+        // Loaded caches only hear about the rows once they are committed
+        TimeSeriesStore store = TimeSeriesStore.getInstance();
+        LocalDate nextDay = day.plusDays(1);
+        assertEquals(0, store.getFood(userId).count(nextDay, nextDay));
+        assertTrue(dbManager.inTransaction(userId, () ->
+            dbManager.saveFoodLog(new FoodLog(userId, "Toast", 200, 6, 30, 3, nextDay))
+                && store.getFood(userId).count(nextDay, nextDay) == 0));
+        assertEquals(1, store.getFood(userId).count(nextDay, nextDay));
+    }
+
+    @Test
+    void testFoodLibrarySearchFindsWordPrefixes() {
+        User user = new User();
+        user.setUsername("librarytest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        int userId = user.getUserId();
+        LocalDate day = LocalDate.of(2024, 6, 1);
+
+        FoodItem breast = new FoodItem(userId, "Grilled Chicken Breast", 100, 165, 31, 0, 3.6);
+        assertTrue(dbManager.saveFoodItem(breast));
+        assertTrue(dbManager.saveFoodItems(java.util.List.of(
+            new FoodItem(userId, "Chicken Thigh", 100, 209, 26, 0, 10.9),
+            new FoodItem(userId, "Crème Brûlée", 100, 330, 4, 30, 22))));
+
+        // Same name in other case updates the entry instead of adding one
+        assertTrue(dbManager.saveFoodItem(new FoodItem(userId, "grilled chicken breast", 0, 170, 32, 0, 4)));
+        assertEquals(3, dbManager.getFoodItems(userId, 10).size());
+
+        var found = dbManager.searchFoodLibrary(userId, "chick bre", 10);
+        assertEquals(1, found.size());
+        assertEquals(breast.getFoodId(), found.get(0).getFoodId());
+        assertEquals(170.0, found.get(0).getCalories(), 0.01);
+        assertEquals(100.0, found.get(0).getServingSizeG(), 0.01, "Unknown serving size should keep the stored one");
+        assertEquals(2, dbManager.searchFoodLibrary(userId, "CHICK", 10).size());
+        assertEquals(1, dbManager.searchFoodLibrary(userId, "creme", 10).size(), "Accents should not matter");
+        assertEquals(0, dbManager.searchFoodLibrary(userId + 100_000, "chick", 10).size());
+
+        // Triggers keep the index in step with deletes
+        assertTrue(dbManager.deleteFoodItem(breast.getFoodId()));
+        assertEquals(1, dbManager.searchFoodLibrary(userId, "chick", 10).size());
+
+        // Type-ahead ranks the foods logged most often first
+        dbManager.saveFoodItem(breast);
+        dbManager.saveFoodLog(new FoodLog(userId, "Chicken Thigh", 209, 26, 0, 11, day));
+        FoodLibrary library = new FoodLibrary(dbManager);
+        assertNull(library.suggestIfLoaded(userId, "chi", 5));
+        var suggested = library.suggest(userId, "chi", 5);
+        assertEquals(java.util.List.of("Chicken Thigh", "Grilled Chicken Breast"),
+            suggested.stream().map(FoodItem::getFoodName).toList());
+        assertEquals("Crème Brûlée", library.suggest(userId, "bru", 5).get(0).getFoodName());
+        assertTrue(library.isComplete(userId));
+    }
+
     @Test
     void testPasswordHashingIsSecure() {
         User user1 = new User();
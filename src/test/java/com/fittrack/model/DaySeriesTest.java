@@ -0,0 +1,45 @@
+package com.fittrack.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the columnar day series behind TimeSeriesStore.
+ */
+class DaySeriesTest {
+
+    @Test
+    void testRangeLookupsAndSums() {
+        DaySeries series = DaySeries.empty(1)
+            .with(3, 100, 500)
+            .with(1, 102, 300)
+            .with(2, 100, 200)
+            .with(4, 105, 700);
+
+        assertEquals(4, series.size());
+        assertEquals(2, series.id(0), "Rows on the same day should be ordered by ID");
+        assertEquals(3, series.id(1));
+        assertEquals(2, series.firstIndexOnOrAfter(101));
+        assertEquals(3, series.endIndexOnOrBefore(104));
+        assertEquals(1000, series.sum(0, 100, 102), 0.001);
+        assertEquals(700, series.sum(0, 103, 200), 0.001);
+        assertEquals(0, series.sum(0, 106, 110), 0.001);
+        assertEquals(2, series.count(100, 100));
+        assertEquals(700, series.last(0), 0.001);
+    }
+
+    @Test
+    void testWritesAreCopyOnWriteAndIdempotent() {
+        DaySeries original = DaySeries.empty(2).with(1, 10, 1, 2);
+        DaySeries added = original.with(2, 11, 3, 4);
+
+        assertEquals(1, original.size(), "Earlier snapshots should not change");
+        assertSame(added, added.with(2, 11, 3, 4), "Adding an existing ID should be a no-op");
+        assertSame(added, added.without(99), "Removing a missing ID should be a no-op");
+
+        DaySeries removed = added.without(1);
+        assertEquals(1, removed.size());
+        assertEquals(4, removed.sum(1, 0, 100), 0.001);
+    }
+}
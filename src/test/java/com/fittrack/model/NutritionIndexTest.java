@@ -0,0 +1,73 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Fenwick-tree nutrition index behind the rolling averages.
+ */
+class NutritionIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    void testAveragesArePerLoggedDay() {
+        int today = (int) TODAY.toEpochDay();
+        DaySeries food = DaySeries.empty(4)
+            .with(1, today - 1, 2000, 100, 200, 60)
+            .with(2, today, 1500, 80, 150, 50)
+            .with(3, today, 500, 20, 50, 10);
+        NutritionIndex index = new NutritionIndex(food);
+
+        assertEquals(4000, index.sum(NutritionIndex.CALORIES, TODAY.minusDays(6), TODAY), 0.001);
+        assertEquals(2, index.loggedDays(TODAY.minusDays(6), TODAY));
+        assertEquals(2000, index.rollingAverage(NutritionIndex.CALORIES, TODAY, 7), 0.001);
+
+        index.remove(today - 1, 2000, 100, 200, 60);
+        assertEquals(1, index.loggedDays(TODAY.minusDays(6), TODAY), "Emptied days should stop counting");
+        assertEquals(100, index.rollingAverage(NutritionIndex.PROTEIN, TODAY, 7), 0.001);
+    }
+
+    @Test
+    void testPointUpdatesMatchBruteForce() {
+        Random random = new Random(42);
+        int today = (int) TODAY.toEpochDay();
+        NutritionIndex index = new NutritionIndex(DaySeries.empty(4));
+        // Wide spread of days, including far outside the initial capacity
+        double[] calories = new double[4000];
+        int[] entries = new int[4000];
+        int firstDay = today - 3000;
+
+        for (int i = 0; i < 3000; i++) {
+            int offset = random.nextInt(calories.length);
+            double kcal = random.nextInt(900);
+            if (entries[offset] > 0 && random.nextInt(4) == 0) {
+                index.remove(firstDay + offset, calories[offset] / entries[offset], 0, 0, 0);
+                calories[offset] -= calories[offset] / entries[offset];
+                entries[offset]--;
+            } else {
+                index.add(firstDay + offset, kcal, 0, 0, 0);
+                calories[offset] += kcal;
+                entries[offset]++;
+            }
+        }
+
+        for (int check = 0; check < 200; check++) {
+            int from = random.nextInt(calories.length);
+            int to = from + random.nextInt(calories.length - from);
+            double expected = 0;
+            int logged = 0;
+            for (int d = from; d <= to; d++) {
+                expected += calories[d];
+                if (entries[d] > 0) logged++;
+            }
+            LocalDate fromDate = LocalDate.ofEpochDay(firstDay + from);
+            LocalDate toDate = LocalDate.ofEpochDay(firstDay + to);
+            assertEquals(expected, index.sum(NutritionIndex.CALORIES, fromDate, toDate), 0.01);
+            assertEquals(logged, index.loggedDays(fromDate, toDate));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fittrack.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Unit tests for PasswordHasher.
+ * Tests cost parsing, calibration bounds and rehash detection.
+ */
+class PasswordHasherTest {
+
+    @Test
+    void testParseLogRounds() {
+        assertEquals(10, PasswordHasher.parseLogRounds(BCrypt.hashpw("secret", BCrypt.gensalt(10))));
+        assertEquals(4, PasswordHasher.parseLogRounds(BCrypt.hashpw("secret", BCrypt.gensalt(4))));
+        assertEquals(-1, PasswordHasher.parseLogRounds("not-a-hash"), "Malformed hash should return -1");
+        assertEquals(-1, PasswordHasher.parseLogRounds(null), "Null hash should return -1");
+    }
+
+    @Test
+    void testHashAndVerify() {
+        String hash = PasswordHasher.hash("correct_password");
+        assertTrue(PasswordHasher.verify("correct_password", hash), "Correct password should verify");
+        assertFalse(PasswordHasher.verify("Correct_Password", hash), "Verification should be case-sensitive");
+        assertFalse(PasswordHasher.verify("correct_password", "garbage"), "Malformed hash should not verify");
+    }
+
+    @Test
+    void testCalibrationStaysWithinBounds() {
+        int rounds = PasswordHasher.calibrate(1);
+        assertEquals(PasswordHasher.MIN_LOG_ROUNDS, rounds, "Tiny target should never drop below the minimum cost");
+        assertEquals(rounds, PasswordHasher.getLogRounds());
+    }
+
+    @Test
+    void testNeedsRehashOnlyForLowerCost() {
+        PasswordHasher.calibrate(1); // resets to the minimum cost
+        String weakHash = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+        String currentHash = PasswordHasher.hash("secret");
+
+        assertTrue(PasswordHasher.needsRehash(weakHash), "Hash below the current cost should be rehashed");
+        assertFalse(PasswordHasher.needsRehash(currentHash), "Hash at the current cost should be kept");
+    }
+}
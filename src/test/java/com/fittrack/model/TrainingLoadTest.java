@@ -0,0 +1,98 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the incremental EWMA training load.
+ */
+class TrainingLoadTest {
+
+    @Test
+    void testIncrementalUpdatesMatchDayByDayEwma() {
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        int days = 400;
+        double[] daily = new double[days];
+        Random random = new Random(42);
+        TrainingLoad load = new TrainingLoad(DaySeries.empty(4));
+
+        // Sets arrive out of date order, and some are deleted again
+        load.add((int) start.toEpochDay(), 0);
+        for (int i = 0; i < 1500; i++) {
+            int day = random.nextInt(days);
+            double volume = random.nextInt(40) * 25;
+            load.add((int) start.toEpochDay() + day, volume);
+            daily[day] += volume;
+            if (i % 5 == 0) {
+                load.remove((int) start.toEpochDay() + day, volume);
+                daily[day] -= volume;
+            }
+        }
+
+        double acute = 0;
+        double chronic = 0;
+        for (double volume : daily) {
+            acute = 2.0 / 8 * volume + (1 - 2.0 / 8) * acute;
+            chronic = 2.0 / 29 * volume + (1 - 2.0 / 29) * chronic;
+        }
+        LocalDate lastDay = start.plusDays(days - 1);
+        assertEquals(acute, load.acute(lastDay), 1e-6);
+        assertEquals(chronic, load.chronic(lastDay), 1e-6);
+        assertEquals(acute / chronic, load.acwr(lastDay), 1e-9);
+
+        // Days without training only decay the averages
+        assertEquals(chronic * Math.pow(1 - 2.0 / 29, 10), load.chronic(lastDay.plusDays(10)), 1e-6);
+    }
+
+    @Test
+    void testMonotonyAndStrainOverLastWeek() {
+        LocalDate today = LocalDate.of(2024, 6, 30);
+        int day = (int) today.toEpochDay();
+        TrainingLoad load = new TrainingLoad(DaySeries.empty(4));
+        assertTrue(Double.isNaN(load.acwr(today)), "No load yet");
+
+        load.add(day - 20, 5000); // outside the week
+        load.add(day - 2, 1000);
+        load.add(day, 3000);
+        load.add(day, 1000);
+
+        // Week: 0, 0, 0, 0, 1000, 0, 4000 -> mean 5000 / 7
+        double mean = 5000.0 / 7;
+        double variance = (5 * mean * mean + (1000 - mean) * (1000 - mean) + (4000 - mean) * (4000 - mean)) / 7;
+        double monotony = mean / Math.sqrt(variance);
+        assertEquals(5000, load.weeklyLoad(today), 1e-9);
+        assertEquals(monotony, load.monotony(today), 1e-9);
+        assertEquals(5000 * monotony, load.strain(today), 1e-6);
+
+        // A week later everything has left the window
+        assertEquals(0, load.weeklyLoad(today.plusDays(7)), 1e-9);
+        assertTrue(Double.isNaN(load.monotony(today.plusDays(7))));
+    }
+
+    @Test
+    void testDeletingNewestDayMovesBackToEarlierTraining() {
+        LocalDate today = LocalDate.of(2024, 6, 30);
+        int day = (int) today.toEpochDay();
+        DaySeries logged = DaySeries.empty(4).with(1, day - 3, 3, 10, 100, 3000).with(2, day - 1, 5, 5, 40, 1000);
+        TrainingLoad expected = new TrainingLoad(logged);
+        TrainingLoad load = new TrainingLoad(logged);
+
+        // A set logged a month ahead by mistake moves the reference day forward
+        load.add(day + 30, 2000);
+        assertTrue(load.acute(today) < expected.acute(today));
+
+        assertFalse(load.remove(day - 1, 500), "An older day needs no rebuild");
+        load.add(day - 1, 500);
+        assertTrue(load.remove(day + 30, 2000), "Emptying the newest day should ask for a rebuild");
+        load.rebuild(logged);
+        assertEquals(expected.acute(today), load.acute(today), 1e-9);
+        assertEquals(expected.chronic(today), load.chronic(today), 1e-9);
+        assertEquals(expected.monotony(today), load.monotony(today), 1e-9);
+        assertEquals(4000, load.weeklyLoad(today), 1e-9);
+    }
+}
@@ -0,0 +1,62 @@
+package com.fittrack.model;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the write-behind workout set buffer.
+ */
+class WorkoutLogBufferTest {
+
+    private DatabaseManager dbManager;
+    private int userId;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager();
+        dbManager.createTables();
+
+        User user = new User();
+        user.setUsername("buffertest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        dbManager.register(user, "password123");
+        userId = user.getUserId();
+    }
+
+    @Test
+    void testBufferedSetsAreWrittenOnFlush() {
+        // Long interval so only the explicit flush writes
+        WorkoutLogBuffer buffer = new WorkoutLogBuffer(dbManager, WorkoutLogBuffer.Durability.BUFFERED, 60_000, 100);
+        LocalDate day = LocalDate.of(2024, 5, 1);
+        WorkoutLog first = new WorkoutLog(userId, "Squat", 1, 5, 100, day);
+        WorkoutLog second = new WorkoutLog(userId, "Squat", 1, 5, 105, day);
+
+        assertTrue(buffer.add(first));
+        assertTrue(buffer.add(second));
+        assertEquals(2, buffer.getPendingCount());
+        assertEquals(0, dbManager.getWorkoutLogs(userId, day).size(), "Nothing should be written before a flush");
+
+        assertTrue(buffer.delete(second), "A queued set can be deleted before it is written");
+        assertEquals(1, buffer.flush());
+        assertTrue(first.getId() > 0, "Flushed sets should get their database IDs");
+        assertEquals(1, dbManager.getWorkoutLogs(userId, day).size());
+
+        buffer.shutdown();
+    }
+
+    @Test
+    void testSyncModeWritesImmediately() {
+        WorkoutLogBuffer buffer = new WorkoutLogBuffer(dbManager, WorkoutLogBuffer.Durability.SYNC, 60_000, 100);
+        WorkoutLog log = new WorkoutLog(userId, "Bench", 1, 5, 60, LocalDate.of(2024, 5, 2));
+
+        assertTrue(buffer.add(log));
+        assertEquals(0, buffer.getPendingCount());
+        assertTrue(log.getId() > 0, "SYNC mode should commit before add() returns");
+
+        buffer.shutdown();
+    }
+}
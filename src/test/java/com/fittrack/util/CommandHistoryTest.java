@@ -0,0 +1,211 @@
+package com.fittrack.util;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import com.fittrack.command.DeleteFoodLogCommand;
+import com.fittrack.model.DatabaseManager;
+import com.fittrack.model.FoodLog;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ring-buffer undo/redo history.
+ */
+class CommandHistoryTest {
+
+    @Test
+    void testUndoRedoOrderAcrossRingWraparound() {
+        CommandHistory history = new CommandHistory(4, Long.MAX_VALUE);
+        List<String> log = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            assertTrue(history.executeCommand(new FakeCommand("c" + i, 10, log)));
+        }
+
+        // Only the newest four are kept; the two oldest were evicted
+        assertEquals(4, history.getUndoCount());
+        assertEquals(2, history.getEvictedCount());
+        assertEquals(40, history.getRetainedBytes());
+
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertEquals("c4", history.getUndoDescription());
+        assertEquals("c5", history.getRedoDescription());
+        assertTrue(history.redo());
+        assertEquals(List.of("do c1", "do c2", "do c3", "do c4", "do c5", "do c6", "undo c6", "undo c5", "do c5"), log);
+
+        // A new command drops the redo entries
+        history.executeCommand(new FakeCommand("c7", 10, log));
+        assertFalse(history.canRedo());
+        assertEquals(4, history.getUndoCount());
+        assertEquals(40, history.getRetainedBytes());
+        for (int i = 0; i < 4; i++) assertTrue(history.undo());
+        assertFalse(history.undo());
+        assertEquals("undo c3", log.get(log.size() - 1));
+    }
+
+    @Test
+    void testHistoryIsBoundedByRetainedBytes() {
+        CommandHistory history = new CommandHistory(1000, 1000);
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            history.executeCommand(new FakeCommand("small" + i, 100, log));
+        }
+        assertEquals(10, history.getUndoCount());
+
+        history.executeCommand(new FakeCommand("big", 550, log));
+        assertEquals(5, history.getUndoCount(), "Oldest commands should make room for the new one");
+        assertEquals(950, history.getRetainedBytes());
+
+        // A command larger than the whole budget is still kept on its own
+        history.executeCommand(new FakeCommand("huge", 5000, log));
+        assertEquals(1, history.getUndoCount());
+        assertEquals("huge", history.getUndoDescription());
+
+        history.clear();
+        assertEquals(0, history.getRetainedBytes());
+    }
+
+    @Test
+    void testAsyncAppliesViewFirstAndRevertsFailedSaves() {
+        // Writes wait in a queue until the test runs them, like a slow disk
+        Queue<Runnable> disk = new ArrayDeque<>();
+        CommandHistory history = new CommandHistory(100, Long.MAX_VALUE, disk::add, Runnable::run);
+        List<String> view = new ArrayList<>();
+
+        CompletableFuture<Boolean> first = history.executeAsync(new ViewCommand("a", true, view));
+        CompletableFuture<Boolean> second = history.executeAsync(new ViewCommand("b", false, view));
+        assertEquals(List.of("a", "b"), view, "UI changes should show before anything is saved");
+        assertEquals(2, history.getUndoCount());
+        assertEquals(2, history.getInFlightCount());
+
+        // b's undo is queued behind its failing save
+        CompletableFuture<Boolean> undo = history.undoAsync();
+        assertEquals(List.of("a"), view);
+        assertEquals("b", history.getRedoDescription());
+
+        while (!disk.isEmpty()) disk.poll().run();
+        assertTrue(first.join());
+        assertFalse(second.join());
+        assertFalse(undo.join(), "Later steps of a failed command are skipped");
+        assertEquals(List.of("a"), view);
+        assertEquals(1, history.getUndoCount());
+        assertFalse(history.canRedo(), "A command that failed to save leaves the history");
+        assertEquals(0, history.getInFlightCount());
+        assertEquals(2, history.getLatency().get("ViewCommand").getCount());
+
+        for (int i = 0; i < CommandHistory.MAX_IN_FLIGHT; i++) {
+            history.executeAsync(new ViewCommand("c" + i, true, view));
+        }
+        assertTrue(history.executeAsync(new ViewCommand("rejected", true, view)).isCompletedExceptionally());
+        assertFalse(view.contains("rejected"), "A rejected command must not touch the UI");
+    }
+
+    @Test
+    void testRevertAfterUndoDoesNotDuplicateDeletedRow() {
+        Queue<Runnable> disk = new ArrayDeque<>();
+        CommandHistory history = new CommandHistory(100, Long.MAX_VALUE, disk::add, Runnable::run);
+        // The delete never reaches the database
+        DatabaseManager failingDb = new DatabaseManager() {
+            @Override
+            public boolean deleteFoodLog(int foodLogId) {
+                return false;
+            }
+        };
+        FoodLog log = new FoodLog(7, 1, "Oats", 380, 13, 66, 7, LocalDate.of(2024, 5, 1));
+        ObservableList<FoodLog> view = FXCollections.observableArrayList(log);
+
+        CompletableFuture<Boolean> delete = history.executeAsync(new DeleteFoodLogCommand(failingDb, log, view));
+        CompletableFuture<Boolean> undo = history.undoAsync();
+        assertEquals(1, view.size(), "Undo puts the row back before anything is saved");
+
+        // The failed delete reverts its view change again
+        while (!disk.isEmpty()) disk.poll().run();
+        assertFalse(delete.join());
+        assertFalse(undo.join());
+        assertEquals(1, view.size(), "The row must not be shown twice");
+        assertSame(log, view.get(0));
+    }
+
+    private static final class FakeCommand implements Command {
+        private final String name;
+        private final long bytes;
+        private final List<String> log;
+
+        FakeCommand(String name, long bytes, List<String> log) {
+            this.name = name;
+            this.bytes = bytes;
+            this.log = log;
+        }
+
+        @Override
+        public boolean execute() {
+            log.add("do " + name);
+            return true;
+        }
+
+        @Override
+        public boolean undo() {
+            log.add("undo " + name);
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return bytes;
+        }
+    }
+
+    private static final class ViewCommand implements OptimisticCommand {
+        private final String name;
+        private final boolean saves;
+        private final List<String> view;
+
+        ViewCommand(String name, boolean saves, List<String> view) {
+            this.name = name;
+            this.saves = saves;
+            this.view = view;
+        }
+
+        @Override
+        public boolean persist() {
+            return saves;
+        }
+
+        @Override
+        public boolean unpersist() {
+            return saves;
+        }
+
+        @Override
+        public void applyView() {
+            view.add(name);
+        }
+
+        @Override
+        public void revertView() {
+            view.remove(name);
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.fittrack.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the memory-mapped undo journal.
+ */
+class CommandJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHistorySurvivesReopen() throws IOException {
+        Path path = tempDir.resolve("history.journal");
+        CommandHistory history = new CommandHistory(100, Long.MAX_VALUE);
+        history.openJournal(new CommandJournal(path, CommandJournalTest::decode));
+        history.executeCommand(new NamedCommand("a"));
+        history.executeCommand(new NamedCommand("b"));
+        history.executeCommand(new NamedCommand("c"));
+        history.undo();
+        history.closeJournal();
+        assertEquals(0, history.getUndoCount(), "Closing the journal forgets the in-memory history");
+
+        CommandHistory restored = new CommandHistory(100, Long.MAX_VALUE);
+        restored.openJournal(new CommandJournal(path, CommandJournalTest::decode));
+        assertEquals(2, restored.getUndoCount());
+        assertEquals(1, restored.getRedoCount());
+        assertEquals("b", restored.getUndoDescription());
+        assertEquals("c", restored.getRedoDescription());
+        assertTrue(restored.redo());
+        assertEquals("c", restored.getUndoDescription());
+        restored.closeJournal();
+    }
+
+    @Test
+    void testDamagedTailIsIgnored() throws IOException {
+        Path path = tempDir.resolve("torn.journal");
+        CommandJournal journal = new CommandJournal(path, CommandJournalTest::decode);
+        journal.append(CommandJournal.EXECUTE, new NamedCommand("kept"));
+        int end = journal.getUsedBytes();
+        journal.append(CommandJournal.EXECUTE, new NamedCommand("torn"));
+        journal.close();
+
+        // Flip a byte inside the last record, as a crash mid-write would leave it
+        try (FileChannel channel = FileChannel.open(Paths.get(path + ".a"), StandardOpenOption.WRITE)) {
+            channel.write(java.nio.ByteBuffer.wrap(new byte[] {0x7F}), end + 12);
+        }
+
+        CommandJournal reopened = new CommandJournal(path, CommandJournalTest::decode);
+        CommandJournal.Replay replay = reopened.replay();
+        assertEquals(1, replay.undo.size());
+        assertEquals("kept", replay.undo.get(0).getDescription());
+        assertEquals(end, reopened.getUsedBytes());
+        reopened.close();
+    }
+
+    @Test
+    void testCompactionKeepsDiskUsageCapped() throws IOException {
+        Path path = tempDir.resolve("small.journal");
+        int fileBytes = 4096;
+        CommandHistory history = new CommandHistory(1000, Long.MAX_VALUE);
+        history.openJournal(new CommandJournal(path, CommandJournalTest::decode, fileBytes));
+        for (int i = 0; i < 500; i++) {
+            history.executeCommand(new NamedCommand("command " + i));
+            if (i % 3 == 0) history.undo();
+        }
+        history.closeJournal();
+
+        assertEquals(fileBytes, Files.size(Paths.get(path + ".a")));
+        assertEquals(fileBytes, Files.size(Paths.get(path + ".b")));
+        CommandJournal journal = new CommandJournal(path, CommandJournalTest::decode, fileBytes);
+        CommandJournal.Replay replay = journal.replay();
+        assertTrue(replay.undo.size() > 50, "Newest entries should survive compaction");
+        assertEquals("command 499", replay.undo.get(replay.undo.size() - 1).getDescription());
+        journal.close();
+    }
+
+    @Test
+    void testCompactionMidFlightDoesNotDuplicateSteps() throws IOException {
+        Path path = tempDir.resolve("inflight.journal");
+        List<Runnable> disk = new ArrayList<>();
+        CommandHistory history = new CommandHistory(100, Long.MAX_VALUE, disk::add, Runnable::run);
+        history.openJournal(new CommandJournal(path, CommandJournalTest::decode));
+        history.executeAsync(new SavedCommand("a", true));
+        history.executeAsync(new SavedCommand("b", false));
+        history.executeAsync(new SavedCommand("c", true));
+
+        // b fails and compacts the journal while c is still waiting to be saved
+        disk.get(0).run();
+        disk.get(1).run();
+        disk.get(2).run();
+        history.closeJournal();
+
+        CommandHistory restored = new CommandHistory(100, Long.MAX_VALUE);
+        restored.openJournal(new CommandJournal(path, CommandJournalTest::decode));
+        assertEquals(2, restored.getUndoCount(), "c must be journaled once, after it was saved");
+        assertEquals("c", restored.getUndoDescription());
+        assertTrue(restored.undo());
+        assertEquals("a", restored.getUndoDescription());
+        restored.closeJournal();
+    }
+
+    private static Command decode(int typeId, DataInput in) throws IOException {
+        return typeId == NamedCommand.TYPE_ID ? new NamedCommand(in.readUTF()) : null;
+    }
+
+    private static final class NamedCommand implements PersistentCommand {
+        static final int TYPE_ID = 42;
+        private final String name;
+
+        NamedCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean execute() {
+            return true;
+        }
+
+        @Override
+        public boolean undo() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        @Override
+        public int getTypeId() {
+            return TYPE_ID;
+        }
+
+        @Override
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeUTF(name);
+        }
+    }
+
+    private static final class SavedCommand implements OptimisticCommand, PersistentCommand {
+        private final String name;
+        private final boolean saves;
+
+        SavedCommand(String name, boolean saves) {
+            this.name = name;
+            this.saves = saves;
+        }
+
+        @Override
+        public boolean persist() {
+            return saves;
+        }
+
+        @Override
+        public boolean unpersist() {
+            return true;
+        }
+
+        @Override
+        public void applyView() {
+        }
+
+        @Override
+        public void revertView() {
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        // Replays as a NamedCommand
+        @Override
+        public int getTypeId() {
+            return NamedCommand.TYPE_ID;
+        }
+
+        @Override
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeUTF(name);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.fittrack.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Largest-Triangle-Three-Buckets downsampling behind the weight chart.
+ */
+class DownsampledChartTest {
+
+    @Test
+    void testLttbKeepsEndpointsAndPeaks() {
+        int count = 10_000;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i;
+            ys[i] = 80 + Math.sin(i / 500.0);
+        }
+        ys[4321] = 95; // one-day spike must survive downsampling
+
+        int[] picked = DownsampledChart.lttb(xs, ys, 0, count, 500);
+
+        assertEquals(500, picked.length);
+        assertEquals(0, picked[0]);
+        assertEquals(count - 1, picked[picked.length - 1]);
+        boolean spikeKept = false;
+        for (int i = 0; i < picked.length; i++) {
+            if (i > 0) assertTrue(picked[i] > picked[i - 1], "Indices should be strictly ascending");
+            if (picked[i] == 4321) spikeKept = true;
+        }
+        assertTrue(spikeKept, "The spike should be picked");
+    }
+
+    @Test
+    void testLttbReturnsRangeWhenBelowThreshold() {
+        double[] xs = {1, 2, 3, 4, 5, 6};
+        double[] ys = {5, 4, 3, 2, 1, 0};
+
+        assertArrayEquals(new int[] {2, 3, 4}, DownsampledChart.lttb(xs, ys, 2, 5, 10));
+    }
+}
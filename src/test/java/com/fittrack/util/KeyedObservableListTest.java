@@ -0,0 +1,75 @@
+package com.fittrack.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fittrack.model.WeightHistory;
+
+import javafx.collections.ListChangeListener;
+
+/**
+ * Unit tests for the keyed diffing list used by table reloads.
+ */
+class KeyedObservableListTest {
+
+    @Test
+    void testSyncAppliesMinimalChangesInOneEvent() {
+        KeyedObservableList<WeightHistory> list = new KeyedObservableList<>(WeightHistory::getId);
+        list.sync(List.of(entry(1, 80.0), entry(2, 79.5), entry(3, 79.0), entry(4, 78.8)));
+        WeightHistory unchanged = list.get(0);
+
+        // Replay every change onto a mirror to check the events describe the new state
+        List<WeightHistory> mirror = new ArrayList<>(list);
+        int[] events = {0};
+        list.addListener((ListChangeListener<WeightHistory>) change -> {
+            events[0]++;
+            while (change.next()) {
+                for (int i = 0; i < change.getRemovedSize(); i++) mirror.remove(change.getFrom());
+                mirror.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        });
+
+        // Row 2 deleted, row 3 edited, row 5 inserted at the top
+        List<WeightHistory> fresh = List.of(entry(5, 78.5), entry(1, 80.0), entry(3, 79.1), entry(4, 78.8));
+        KeyedObservableList.Changes changes = list.sync(fresh);
+
+        assertEquals(fresh, list);
+        assertEquals(fresh, mirror);
+        assertEquals(1, events[0], "All changes should be fired as one event");
+        assertEquals(1, changes.inserted);
+        assertEquals(1, changes.removed);
+        assertEquals(1, changes.updated);
+        assertSame(unchanged, list.get(1), "Unchanged rows should keep their instance");
+
+        assertTrue(list.sync(fresh).isEmpty());
+        assertEquals(1, events[0], "A sync without changes should not fire");
+    }
+
+    @Test
+    void testSyncHandlesReorderedRows() {
+        KeyedObservableList<WeightHistory> list = new KeyedObservableList<>(WeightHistory::getId);
+        list.sync(List.of(entry(1, 80.0), entry(2, 79.5), entry(3, 79.0)));
+
+        List<WeightHistory> fresh = List.of(entry(3, 79.0), entry(1, 80.0), entry(2, 79.5));
+        list.sync(fresh);
+
+        assertEquals(fresh, list);
+    }
+
+    @Test
+    void testSyncRejectsDuplicateKeys() {
+        KeyedObservableList<WeightHistory> list = new KeyedObservableList<>(WeightHistory::getId);
+        assertThrows(IllegalArgumentException.class, () -> list.sync(List.of(entry(1, 80.0), entry(1, 79.0))));
+    }
+
+    private static WeightHistory entry(int id, double weight) {
+        return new WeightHistory(id, 1, weight, LocalDate.of(2024, 1, 1).plusDays(id));
+    }
+}
@@ -0,0 +1,73 @@
+package com.fittrack.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the weighted radix trie behind food type-ahead.
+ */
+class PrefixTrieTest {
+
+    @Test
+    void testCompletesBestKeysFirst() {
+        PrefixTrie<String> trie = new PrefixTrie<>(3);
+        trie.put("chicken breast\u0001" + 1, "chicken breast", 5);
+        trie.put("chickpeas\u0001" + 2, "chickpeas", 9);
+        trie.put("cheddar\u0001" + 3, "cheddar", 1);
+        trie.put("chicken thigh\u0001" + 4, "chicken thigh", 5);
+
+        assertEquals(List.of("chickpeas", "chicken breast", "chicken thigh"), trie.complete("ch", 10));
+        assertEquals(List.of("chicken breast", "chicken thigh"), trie.complete("chicken", 10));
+        assertEquals(List.of("cheddar"), trie.complete("che", 10));
+        assertEquals(List.of(), trie.complete("chx", 10));
+
+        // Re-weighting and removing keep the cached tops right
+        trie.put("cheddar\u0001" + 3, "cheddar", 20);
+        assertEquals(List.of("cheddar", "chickpeas"), trie.complete("c", 2));
+        assertTrue(trie.remove("chickpeas\u0001" + 2));
+        assertFalse(trie.remove("chickpeas\u0001" + 2));
+        assertEquals(List.of("cheddar", "chicken breast", "chicken thigh"), trie.complete("", 10));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void testMatchesBruteForceUnderRandomEdits() {
+        Random random = new Random(42);
+        PrefixTrie<String> trie = new PrefixTrie<>(5);
+        Map<String, Long> expected = new HashMap<>();
+        String[] words = {"a", "ab", "abc", "b", "ba", "bab", "c"};
+
+        for (int step = 0; step < 3000; step++) {
+            String key = words[random.nextInt(words.length)] + words[random.nextInt(words.length)] + "\u0001" + random.nextInt(40);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, trie.remove(key));
+            } else {
+                long weight = random.nextInt(10);
+                trie.put(key, key, weight);
+                expected.put(key, weight);
+            }
+
+            String source = words[random.nextInt(words.length)] + words[random.nextInt(words.length)];
+            String prefix = source.substring(0, random.nextInt(source.length() + 1));
+            List<String> best = expected.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayList::new));
+            assertEquals(best, trie.complete(prefix, 5), "Prefix " + prefix + " after step " + step);
+        }
+        assertEquals(expected.size(), trie.size());
+    }
+}